@@ -0,0 +1,69 @@
+package com.dic1.projet.hospitalFind.benchmark;
+
+import com.dic1.projet.hospitalFind.dto.EtablissementPublicDTO;
+import com.dic1.projet.hospitalFind.dto.NoteDTO;
+import com.dic1.projet.hospitalFind.dto.ServiceDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation de la réponse de {@code GET /etablissements}, avec l'ObjectMapper
+ * configuré comme celui de Spring MVC. La sortie est jetée, seul l'encodage est mesuré.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class JacksonBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int etablissements;
+
+    private ObjectMapper objectMapper;
+    private List<EtablissementPublicDTO> dtos;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SyntheticDataset dataset = new SyntheticDataset(etablissements, 42);
+        dtos = new ArrayList<>(etablissements);
+        for (int i = 0; i < etablissements; i++) {
+            List<ServiceDTO> services = new ArrayList<>();
+            for (int s : dataset.services(i)) {
+                services.add(new ServiceDTO(s + 1L, SyntheticDataset.SERVICES.get(s), null));
+            }
+            int nombreAvis = dataset.nombreAvis(i);
+            NoteDTO note = nombreAvis == 0 ? null
+                    : new NoteDTO((long) nombreAvis, (double) dataset.sommeNotes(i) / nombreAvis, List.of());
+            dtos.add(new EtablissementPublicDTO(dataset.id(i), dataset.nom(i), dataset.region(i).nom(), "VALIDE",
+                    dataset.tuteurNom(i), dataset.tuteurPrenom(i), dataset.latitude(i), dataset.longitude(i),
+                    services, note, Map.of()));
+        }
+    }
+
+    @Benchmark
+    public void serialiser() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+}
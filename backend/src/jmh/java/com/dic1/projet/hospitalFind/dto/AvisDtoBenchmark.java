@@ -0,0 +1,82 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import com.dic1.projet.hospitalFind.benchmark.SyntheticDataset;
+import com.dic1.projet.hospitalFind.entity.Avis;
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.entity.Service;
+import com.dic1.projet.hospitalFind.entity.Tuteur;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion d'une page d'avis en {@link AvisDto}, un avis par établissement du jeu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AvisDtoBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int etablissements;
+
+    private List<Avis> avis;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticDataset dataset = new SyntheticDataset(etablissements, 42);
+        List<Service> services = new ArrayList<>();
+        for (int s = 0; s < SyntheticDataset.SERVICES.size(); s++) {
+            Service service = new Service(SyntheticDataset.SERVICES.get(s), null);
+            service.setIdService(s + 1L);
+            services.add(service);
+        }
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+        avis = new ArrayList<>(etablissements);
+        for (int i = 0; i < etablissements; i++) {
+            Etablissement etablissement = new Etablissement();
+            etablissement.setIdEtablissement(dataset.id(i));
+            Tuteur auteur = new Tuteur();
+            auteur.setIdUtilisateur(dataset.id(i));
+            auteur.setNom(dataset.tuteurNom(i));
+            auteur.setPrenom(dataset.tuteurPrenom(i));
+
+            Avis a = new Avis();
+            a.setIdAvis(dataset.id(i));
+            a.setNote(1 + i % 5);
+            a.setCommentaire("Accueil correct, attente raisonnable.");
+            a.setDateCreation(date.plusMinutes(i));
+            a.setEtablissement(etablissement);
+            a.setService(services.get(dataset.services(i)[0]));
+            a.setUtilisateur(auteur);
+            avis.add(a);
+        }
+    }
+
+    @Benchmark
+    public List<AvisDto> convertir() {
+        List<AvisDto> dtos = new ArrayList<>(avis.size());
+        for (Avis a : avis) {
+            dtos.add(new AvisDto(a));
+        }
+        return dtos;
+    }
+}
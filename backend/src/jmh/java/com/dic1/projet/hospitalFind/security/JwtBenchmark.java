@@ -0,0 +1,64 @@
+package com.dic1.projet.hospitalFind.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Émission et vérification des jetons d'accès : vérification servie par le cache
+ * (cas de chaque requête authentifiée) et analyse complète avec contrôle de signature
+ * (premier passage d'un jeton).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark_secret_key_with_at_least_32_bytes_of_entropy_0123456789");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10000L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.init();
+        token = jwtUtil.generateToken("tuteur1@example.sn", "TUTEUR", 1L, "session-1");
+    }
+
+    @Benchmark
+    public String generer() {
+        return jwtUtil.generateToken("tuteur1@example.sn", "TUTEUR", 1L, "session-1");
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifierEnCache() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String analyser() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public String empreinte() {
+        return JwtUtil.sha256(token);
+    }
+}
@@ -0,0 +1,145 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.benchmark.SyntheticDataset;
+import com.dic1.projet.hospitalFind.dto.EtablissementAdminDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementPublicDTO;
+import com.dic1.projet.hospitalFind.dto.NoteDTO;
+import com.dic1.projet.hospitalFind.dto.ServiceDTO;
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.entity.Service;
+import com.dic1.projet.hospitalFind.entity.Tuteur;
+import com.dic1.projet.hospitalFind.repository.EtablissementLigne;
+import com.dic1.projet.hospitalFind.repository.ServiceLien;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Construction des listes de DTO publics et admin à partir des projections
+ * ({@link EtablissementLigne} et {@link ServiceLien}), comparée à l'ancienne
+ * conversion depuis les entités chargées avec leur tuteur et leurs services.
+ * Avec {@code -prof gc}, {@code gc.alloc.rate.norm} donne la mémoire allouée par liste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class DtoConversionBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int etablissements;
+
+    private List<EtablissementLigne> lignes;
+    private List<ServiceLien> liens;
+    private List<Etablissement> entites;
+    private Map<Long, NoteDTO> notes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticDataset dataset = new SyntheticDataset(etablissements, 42);
+        List<Service> services = new ArrayList<>();
+        for (int s = 0; s < SyntheticDataset.SERVICES.size(); s++) {
+            Service service = new Service(SyntheticDataset.SERVICES.get(s), null);
+            service.setIdService(s + 1L);
+            services.add(service);
+        }
+
+        lignes = new ArrayList<>(etablissements);
+        liens = new ArrayList<>();
+        entites = new ArrayList<>(etablissements);
+        notes = new HashMap<>();
+        for (int i = 0; i < etablissements; i++) {
+            long id = dataset.id(i);
+            lignes.add(new EtablissementLigne(id, dataset.nom(i), dataset.region(i).nom(), Etablissement.Statut.VALIDE,
+                    dataset.latitude(i), dataset.longitude(i), id, dataset.tuteurNom(i), dataset.tuteurPrenom(i),
+                    dataset.tuteurEmail(i), true));
+
+            Etablissement etablissement = new Etablissement();
+            etablissement.setIdEtablissement(id);
+            etablissement.setNom(dataset.nom(i));
+            etablissement.setLocalisation(dataset.region(i).nom());
+            etablissement.setStatut(Etablissement.Statut.VALIDE);
+            etablissement.setLatitude(dataset.latitude(i));
+            etablissement.setLongitude(dataset.longitude(i));
+            Tuteur tuteur = new Tuteur();
+            tuteur.setIdUtilisateur(id);
+            tuteur.setNom(dataset.tuteurNom(i));
+            tuteur.setPrenom(dataset.tuteurPrenom(i));
+            tuteur.setEmail(dataset.tuteurEmail(i));
+            etablissement.setTuteur(tuteur);
+            etablissement.setServices(new HashSet<>());
+            for (int s : dataset.services(i)) {
+                Service service = services.get(s);
+                liens.add(new ServiceLien(id, service.getIdService(), service.getNom(), service.getDescription()));
+                etablissement.getServices().add(service);
+            }
+            entites.add(etablissement);
+
+            if (dataset.nombreAvis(i) > 0) {
+                notes.put(id, new NoteDTO((long) dataset.nombreAvis(i),
+                        (double) dataset.sommeNotes(i) / dataset.nombreAvis(i), List.of()));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<EtablissementPublicDTO> publicProjections() {
+        Map<Long, List<ServiceDTO>> services = EtablissementService.servicesParEtablissement(liens);
+        List<EtablissementPublicDTO> dtos = new ArrayList<>(lignes.size());
+        for (EtablissementLigne ligne : lignes) {
+            dtos.add(EtablissementService.convertToPublicDTO(ligne, services.getOrDefault(ligne.id(), List.of()),
+                    notes.get(ligne.id()), Map.of()));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<EtablissementAdminDTO> adminProjections() {
+        return EtablissementService.convertToAdminDTOs(lignes, liens);
+    }
+
+    /** Référence : la conversion depuis les entités, telle qu'elle existait avant les projections. */
+    @Benchmark
+    public List<EtablissementPublicDTO> publicEntites() {
+        List<EtablissementPublicDTO> dtos = new ArrayList<>(entites.size());
+        for (Etablissement etablissement : entites) {
+            EtablissementPublicDTO dto = new EtablissementPublicDTO();
+            dto.setId(etablissement.getIdEtablissement());
+            dto.setNom(etablissement.getNom());
+            dto.setLocalisation(etablissement.getLocalisation());
+            dto.setStatut(etablissement.getStatut().name());
+            dto.setLatitude(etablissement.getLatitude());
+            dto.setLongitude(etablissement.getLongitude());
+            if (etablissement.getTuteur() != null) {
+                dto.setTuteurNom(etablissement.getTuteur().getNom());
+                dto.setTuteurPrenom(etablissement.getTuteur().getPrenom());
+            }
+            dto.setServices(etablissement.getServices().stream()
+                    .map(s -> new ServiceDTO(s.getIdService(), s.getNom(), s.getDescription()))
+                    .collect(Collectors.toList()));
+            dto.setNote(notes.get(etablissement.getIdEtablissement()));
+            dto.setNotesParService(Map.of());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
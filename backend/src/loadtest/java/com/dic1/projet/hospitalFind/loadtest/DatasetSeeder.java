@@ -0,0 +1,110 @@
+package com.dic1.projet.hospitalFind.loadtest;
+
+import com.dic1.projet.hospitalFind.benchmark.SyntheticDataset;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Remplit la base embarquée avant le démarrage des index : services, utilisateurs
+ * STANDARD, établissements VALIDE répartis sur les régions et leurs avis. Les notes
+ * agrégées, les index et le journal des changements sont reconstruits ensuite par
+ * l'application elle-même, comme après une restauration de base.
+ */
+class DatasetSeeder {
+
+    static final String MOT_DE_PASSE = "loadtest-password";
+
+    private static final int TAILLE_LOT = 1000;
+
+    private static final String[] COMMENTAIRES = {
+            "Accueil chaleureux, attente raisonnable.",
+            "Personnel compétent mais locaux à rénover.",
+            "Très longue attente aux urgences.",
+            "Bon suivi, je recommande.",
+            null
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceRepository sequenceRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    DatasetSeeder(ApplicationContext context) {
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.sequenceRepository = context.getBean(SequenceRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+    }
+
+    static String email(int utilisateur) {
+        return "utilisateur" + utilisateur + "@loadtest.sn";
+    }
+
+    void remplir(LoadTestConfig config) {
+        SyntheticDataset dataset = new SyntheticDataset(config.etablissements(), config.graine());
+
+        long premierService = sequenceRepository.allouer(SequenceRepository.Sequence.SERVICE, SyntheticDataset.SERVICES.size());
+        List<Object[]> services = new ArrayList<>();
+        for (int s = 0; s < SyntheticDataset.SERVICES.size(); s++) {
+            services.add(new Object[]{premierService + s, SyntheticDataset.SERVICES.get(s)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO service (id_service, nom) VALUES (?, ?)", services);
+
+        // Un seul hachage : le coût de BCrypt est mesuré par les connexions, pas par l'amorçage.
+        String hash = passwordEncoder.encode(MOT_DE_PASSE);
+        List<Object[]> utilisateurs = new ArrayList<>(config.utilisateurs());
+        for (int u = 0; u < config.utilisateurs(); u++) {
+            utilisateurs.add(new Object[]{"Utilisateur" + u, "Charge", email(u), hash, "STANDARD"});
+        }
+        inserer("INSERT INTO utilisateur (nom, prenom, email, mot_de_passe, role) VALUES (?, ?, ?, ?, ?)", utilisateurs);
+        List<Long> utilisateurIds = jdbcTemplate.queryForList(
+                "SELECT id_utilisateur FROM utilisateur WHERE role = 'STANDARD' ORDER BY id_utilisateur", Long.class);
+
+        long premierEtablissement = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, dataset.taille());
+        SplittableRandom random = new SplittableRandom(config.graine());
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Object[]> etablissements = new ArrayList<>(TAILLE_LOT);
+        List<Object[]> liens = new ArrayList<>();
+        List<Object[]> avis = new ArrayList<>();
+        for (int i = 0; i < dataset.taille(); i++) {
+            long id = premierEtablissement + i;
+            String region = dataset.region(i).nom();
+            etablissements.add(new Object[]{id, dataset.nom(i), "Quartier " + (i % 40 + 1) + ", " + region, region,
+                    "+221 33 " + (100 + i % 900) + " " + (1000 + i % 9000), null, null, dataset.type(i).name(),
+                    dataset.latitude(i), dataset.longitude(i), "VALIDE"});
+            int[] indices = dataset.services(i);
+            for (int s : indices) {
+                liens.add(new Object[]{premierService + s, id});
+            }
+            for (int a = 0; a < config.avisParEtablissement() && !utilisateurIds.isEmpty(); a++) {
+                avis.add(new Object[]{1 + random.nextInt(5), COMMENTAIRES[random.nextInt(COMMENTAIRES.length)],
+                        Timestamp.valueOf(maintenant.minusMinutes(random.nextInt(60 * 24 * 365))),
+                        utilisateurIds.get(random.nextInt(utilisateurIds.size())),
+                        premierService + indices[random.nextInt(indices.length)], id});
+            }
+            if (etablissements.size() == TAILLE_LOT || i == dataset.taille() - 1) {
+                inserer("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                        + "description, type_etablissement, latitude, longitude, statut) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", etablissements);
+                inserer("INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)", liens);
+                inserer("INSERT INTO avis (note, commentaire, date_creation, id_utilisateur, id_service, id_etablissement) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", avis);
+                etablissements.clear();
+                liens.clear();
+                avis.clear();
+            }
+        }
+    }
+
+    private void inserer(String sql, List<Object[]> lignes) {
+        for (int debut = 0; debut < lignes.size(); debut += TAILLE_LOT) {
+            jdbcTemplate.batchUpdate(sql, lignes.subList(debut, Math.min(lignes.size(), debut + TAILLE_LOT)));
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.dic1.projet.hospitalFind.loadtest;
+
+import com.dic1.projet.hospitalFind.HospitalFindApplication;
+import com.dic1.projet.hospitalFind.benchmark.SyntheticDataset;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de charge de bout en bout : démarre l'application sur une base H2 embarquée
+ * (profil {@code loadtest}), la remplit avec le jeu synthétique, puis envoie un mélange
+ * de requêtes HTTP réelles (filtres Spring Security et JWT compris) depuis
+ * {@code loadtest.concurrence} clients en boucle fermée. Chaque opération a son
+ * histogramme HDR ; le rapport est écrit dans {@code loadtest.sortie}.
+ * <p>
+ * Un client en boucle fermée attend sa réponse avant d'envoyer la suivante : quand le
+ * serveur ralentit, la charge baisse aussi, et les centiles élevés sont optimistes.
+ */
+public final class LoadTest {
+
+    private static final long LATENCE_MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestConfig config;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Operation[] tirage;
+
+    private String baseUrl;
+    private long[] etablissementIds;
+    private long[] serviceIds;
+    private String[] jetons;
+
+    private LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, config.concurrence() / 8)))
+                .build();
+        int total = config.melange().values().stream().mapToInt(Integer::intValue).sum();
+        this.tirage = new Operation[total];
+        int position = 0;
+        for (Map.Entry<Operation, Integer> entree : config.melange().entrySet()) {
+            for (int i = 0; i < entree.getValue(); i++) {
+                tirage[position++] = entree.getKey();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.depuisProprietes();
+        List<String> profils = new ArrayList<>(List.of("loadtest"));
+        for (String profil : config.profils().split(",")) {
+            if (!profil.isBlank()) {
+                profils.add(profil.trim());
+            }
+        }
+
+        // Le remplissage a lieu avant ApplicationReadyEvent, donc avant le calcul des notes et des index.
+        ApplicationListener<ApplicationEvent> remplissage = event -> {
+            if (event instanceof ContextRefreshedEvent refreshed && refreshed.getApplicationContext().getParent() == null) {
+                new DatasetSeeder(refreshed.getApplicationContext()).remplir(config);
+            }
+        };
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HospitalFindApplication.class)
+                .profiles(profils.toArray(String[]::new))
+                .listeners(remplissage)
+                .run(args);
+        try {
+            LoadTest test = new LoadTest(config);
+            test.preparer(context);
+            Map<Operation, Histogram> histogrammes = new EnumMap<>(Operation.class);
+            Map<Operation, Long> erreurs = new EnumMap<>(Operation.class);
+            test.executer(histogrammes, erreurs);
+            new LoadTestReport(config, profils, histogrammes, erreurs).ecrire();
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private void preparer(ConfigurableApplicationContext context) throws IOException, InterruptedException {
+        String port = context.getEnvironment().getProperty("local.server.port");
+        String contexte = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        baseUrl = "http://localhost:" + port + contexte;
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        etablissementIds = jdbcTemplate.queryForList("SELECT id_etablissement FROM etablissement", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        serviceIds = jdbcTemplate.queryForList("SELECT id_service FROM service", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+
+        int sessions = Math.min(config.utilisateurs(), config.concurrence());
+        jetons = new String[sessions];
+        for (int u = 0; u < sessions; u++) {
+            HttpResponse<String> reponse = http.send(login(u), HttpResponse.BodyHandlers.ofString());
+            if (reponse.statusCode() != 200) {
+                throw new IllegalStateException("Connexion impossible pour " + DatasetSeeder.email(u) + ": " + reponse.body());
+            }
+            JsonNode corps = objectMapper.readTree(reponse.body());
+            jetons[u] = corps.get("token").asText();
+        }
+    }
+
+    private void executer(Map<Operation, Histogram> histogrammes, Map<Operation, Long> erreurs) throws Exception {
+        long debutMesure = System.nanoTime() + config.echauffement().toNanos();
+        long fin = debutMesure + config.duree().toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(config.concurrence());
+        List<Future<Client>> resultats = new ArrayList<>();
+        for (int c = 0; c < config.concurrence(); c++) {
+            Client client = new Client(c);
+            resultats.add(clients.submit(() -> client.boucler(debutMesure, fin)));
+        }
+        for (Future<Client> resultat : resultats) {
+            Client client = resultat.get();
+            client.histogrammes.forEach((operation, histogramme) ->
+                    histogrammes.computeIfAbsent(operation, o -> nouvelHistogramme()).add(histogramme));
+            client.erreurs.forEach((operation, nombre) -> erreurs.merge(operation, nombre, Long::sum));
+        }
+        clients.shutdown();
+    }
+
+    private static Histogram nouvelHistogramme() {
+        return new Histogram(LATENCE_MAX_MICROS, 3);
+    }
+
+    /** Un client virtuel : ses histogrammes ne sont partagés avec personne pendant la mesure. */
+    private final class Client {
+        private final int numero;
+        private final SplittableRandom random;
+        private final Map<Operation, Histogram> histogrammes = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> erreurs = new EnumMap<>(Operation.class);
+
+        private Client(int numero) {
+            this.numero = numero;
+            this.random = new SplittableRandom(config.graine() * 31 + numero);
+        }
+
+        private Client boucler(long debutMesure, long fin) {
+            while (System.nanoTime() < fin) {
+                Operation operation = tirage[random.nextInt(tirage.length)];
+                HttpRequest requete = requete(operation);
+                long debut = System.nanoTime();
+                boolean succes;
+                try {
+                    int statut = http.send(requete, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    succes = statut >= 200 && statut < 400;
+                } catch (IOException e) {
+                    succes = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debut);
+                if (debut >= debutMesure) {
+                    histogrammes.computeIfAbsent(operation, o -> nouvelHistogramme())
+                            .recordValue(Math.min(micros, LATENCE_MAX_MICROS));
+                    if (!succes) {
+                        erreurs.merge(operation, 1L, Long::sum);
+                    }
+                }
+            }
+            return this;
+        }
+
+        private HttpRequest requete(Operation operation) {
+            long etablissement = etablissementIds[random.nextInt(etablissementIds.length)];
+            return switch (operation) {
+                case LISTE -> get("/etablissements");
+                case DETAIL -> get("/etablissements/" + etablissement);
+                case PROCHES -> {
+                    SyntheticDataset.Region region = SyntheticDataset.REGIONS.get(random.nextInt(SyntheticDataset.REGIONS.size()));
+                    yield get("/etablissements/nearby?lat=" + (region.latitude() + random.nextDouble(-0.2, 0.2))
+                            + "&lon=" + (region.longitude() + random.nextDouble(-0.2, 0.2)) + "&radiusKm=25&k=10");
+                }
+                case AVIS_PAGE -> get("/avis/etablissement/" + etablissement + "/page?size=20&sort=newest");
+                case AVIS -> post("/avis", Map.of(
+                        "etablissementId", etablissement,
+                        "serviceId", serviceIds[random.nextInt(serviceIds.length)],
+                        "note", 1 + random.nextInt(5),
+                        "commentaire", "Avis du test de charge"), jetons[numero % jetons.length]);
+                case LOGIN -> login(random.nextInt(config.utilisateurs()));
+            };
+        }
+    }
+
+    private HttpRequest login(int utilisateur) {
+        return post("/auth/login", Map.of("email", DatasetSeeder.email(utilisateur),
+                "motDePasse", DatasetSeeder.MOT_DE_PASSE), null);
+    }
+
+    private HttpRequest get(String chemin) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + chemin))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String chemin, Map<String, Object> corps, String jeton) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + chemin))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+        if (jeton != null) {
+            builder.header("Authorization", "Bearer " + jeton);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(corps))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dic1.projet.hospitalFind.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Paramètres du test de charge, lus dans les propriétés système {@code loadtest.*}.
+ *
+ * @param melange poids relatif de chaque opération, par exemple
+ *                {@code liste=20,detail=30,proches=15,avis-page=15,avis=15,login=5}
+ */
+record LoadTestConfig(int etablissements,
+                      int utilisateurs,
+                      int avisParEtablissement,
+                      int concurrence,
+                      Duration echauffement,
+                      Duration duree,
+                      Map<Operation, Integer> melange,
+                      String profils,
+                      Path sortie,
+                      long graine) {
+
+    static LoadTestConfig depuisProprietes() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.etablissements", 5000),
+                Integer.getInteger("loadtest.utilisateurs", 500),
+                Integer.getInteger("loadtest.avis-par-etablissement", 10),
+                Integer.getInteger("loadtest.concurrence", 64),
+                Duration.parse(System.getProperty("loadtest.echauffement", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duree", "PT60S")),
+                melange(System.getProperty("loadtest.melange",
+                        "liste=20,detail=30,proches=15,avis-page=15,avis=15,login=5")),
+                System.getProperty("loadtest.profils", ""),
+                Path.of(System.getProperty("loadtest.sortie", "target/loadtest")),
+                Long.getLong("loadtest.graine", 42L));
+    }
+
+    private static Map<Operation, Integer> melange(String valeur) {
+        Map<Operation, Integer> melange = new LinkedHashMap<>();
+        for (String entree : valeur.split(",")) {
+            String[] parties = entree.trim().split("=");
+            if (parties.length != 2) {
+                throw new IllegalArgumentException("Mélange invalide: " + entree);
+            }
+            int poids = Integer.parseInt(parties[1].trim());
+            if (poids > 0) {
+                melange.put(Operation.parNom(parties[0].trim()), poids);
+            }
+        }
+        if (melange.isEmpty()) {
+            throw new IllegalArgumentException("Le mélange ne contient aucune opération");
+        }
+        return melange;
+    }
+}
@@ -0,0 +1,92 @@
+package com.dic1.projet.hospitalFind.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rapport d'un test de charge : un tableau sur la sortie standard, le résumé en JSON
+ * ({@code loadtest-result.json}) et la distribution complète de chaque opération au
+ * format HdrHistogram ({@code <operation>.hgrm}, lisible par HistogramLogAnalyzer).
+ */
+class LoadTestReport {
+
+    private static final double MICROS_PAR_MS = 1000.0;
+
+    private final LoadTestConfig config;
+    private final List<String> profils;
+    private final Map<Operation, Histogram> histogrammes;
+    private final Map<Operation, Long> erreurs;
+
+    LoadTestReport(LoadTestConfig config, List<String> profils,
+                   Map<Operation, Histogram> histogrammes, Map<Operation, Long> erreurs) {
+        this.config = config;
+        this.profils = profils;
+        this.histogrammes = histogrammes;
+        this.erreurs = erreurs;
+    }
+
+    void ecrire() throws IOException {
+        Files.createDirectories(config.sortie());
+        double secondes = config.duree().toMillis() / 1000.0;
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%n%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Opération", "requêtes", "erreurs", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, Histogram> entree : histogrammes.entrySet()) {
+            Operation operation = entree.getKey();
+            Histogram histogramme = entree.getValue();
+            long nombre = histogramme.getTotalCount();
+            long enErreur = erreurs.getOrDefault(operation, 0L);
+
+            Map<String, Object> resume = new LinkedHashMap<>();
+            resume.put("requetes", nombre);
+            resume.put("erreurs", enErreur);
+            resume.put("debit", nombre / secondes);
+            resume.put("p50Ms", ms(histogramme, 50));
+            resume.put("p90Ms", ms(histogramme, 90));
+            resume.put("p99Ms", ms(histogramme, 99));
+            resume.put("p999Ms", ms(histogramme, 99.9));
+            resume.put("maxMs", histogramme.getMaxValue() / MICROS_PAR_MS);
+            operations.put(operation.libelle(), resume);
+
+            System.out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", operation.libelle(), nombre, enErreur,
+                    nombre / secondes, resume.get("p50Ms"), resume.get("p90Ms"), resume.get("p99Ms"),
+                    resume.get("p999Ms"), resume.get("maxMs"));
+
+            try (PrintStream sortie = new PrintStream(Files.newOutputStream(
+                    config.sortie().resolve(operation.nom() + ".hgrm")))) {
+                histogramme.outputPercentileDistribution(sortie, MICROS_PAR_MS);
+            }
+        }
+
+        Map<String, Object> parametres = new LinkedHashMap<>();
+        parametres.put("etablissements", config.etablissements());
+        parametres.put("utilisateurs", config.utilisateurs());
+        parametres.put("avisParEtablissement", config.avisParEtablissement());
+        parametres.put("concurrence", config.concurrence());
+        parametres.put("echauffement", config.echauffement().toString());
+        parametres.put("duree", config.duree().toString());
+        parametres.put("profils", profils);
+        parametres.put("processeurs", Runtime.getRuntime().availableProcessors());
+        parametres.put("java", Runtime.version().toString());
+
+        Map<String, Object> rapport = new LinkedHashMap<>();
+        rapport.put("parametres", parametres);
+        rapport.put("operations", operations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.sortie().resolve("loadtest-result.json").toFile(), rapport);
+        System.out.println("Rapport écrit dans " + config.sortie().toAbsolutePath());
+    }
+
+    private static double ms(Histogram histogramme, double centile) {
+        return histogramme.getValueAtPercentile(centile) / MICROS_PAR_MS;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dic1.projet.hospitalFind.loadtest;
+
+/**
+ * Requêtes envoyées par le test de charge, chacune avec son histogramme de latence.
+ */
+enum Operation {
+    LISTE("liste", "GET /etablissements"),
+    DETAIL("detail", "GET /etablissements/{id}"),
+    PROCHES("proches", "GET /etablissements/nearby"),
+    AVIS_PAGE("avis-page", "GET /avis/etablissement/{id}/page"),
+    AVIS("avis", "POST /avis"),
+    LOGIN("login", "POST /auth/login");
+
+    private final String nom;
+    private final String libelle;
+
+    Operation(String nom, String libelle) {
+        this.nom = nom;
+        this.libelle = libelle;
+    }
+
+    String nom() {
+        return nom;
+    }
+
+    String libelle() {
+        return libelle;
+    }
+
+    static Operation parNom(String nom) {
+        for (Operation operation : values()) {
+            if (operation.nom.equals(nom)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Opération inconnue: " + nom);
+    }
+}
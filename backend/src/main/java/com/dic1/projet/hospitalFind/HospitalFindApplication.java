@@ -2,8 +2,12 @@ package com.dic1.projet.hospitalFind;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableAsync
 public class HospitalFindApplication {
     public static void main(String[] args) {
         SpringApplication.run(HospitalFindApplication.class, args);
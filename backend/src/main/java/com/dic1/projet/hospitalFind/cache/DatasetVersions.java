@@ -0,0 +1,73 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import com.dic1.projet.hospitalFind.index.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numéros de version des jeux de données publics, d'où sont tirés les ETag.
+ * Une modification incrémente la version tout de suite puis de nouveau après la
+ * validation de la transaction : une réponse lue entre les deux ne peut pas
+ * garder l'ETag final. L'époque du démarrage évite de réutiliser un ETag
+ * après un redémarrage.
+ */
+@Component
+public class DatasetVersions {
+
+    public enum Dataset {
+        ETABLISSEMENTS, SERVICES, AVIS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Dataset, AtomicLong> versions = new EnumMap<>(Dataset.class);
+    private final Map<Dataset, AtomicLong> lastModified = new EnumMap<>(Dataset.class);
+
+    public DatasetVersions() {
+        long now = System.currentTimeMillis();
+        for (Dataset dataset : Dataset.values()) {
+            versions.put(dataset, new AtomicLong());
+            lastModified.put(dataset, new AtomicLong(now));
+        }
+    }
+
+    public void bump(Dataset dataset) {
+        increment(dataset);
+        AfterCommit.run(() -> increment(dataset));
+    }
+
+    public String etag(Dataset dataset) {
+        return "\"" + dataset.name().toLowerCase() + "-" + epoch + "-" + versions.get(dataset).get() + "\"";
+    }
+
+    public long lastModified(Dataset dataset) {
+        return lastModified.get(dataset).get();
+    }
+
+    /**
+     * Vrai si l'en-tête If-None-Match du client contient déjà {@code etag}.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void increment(Dataset dataset) {
+        versions.get(dataset).incrementAndGet();
+        lastModified.get(dataset).set(System.currentTimeMillis());
+    }
+}
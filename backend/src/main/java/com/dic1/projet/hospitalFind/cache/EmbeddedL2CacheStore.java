@@ -0,0 +1,89 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Second niveau en mémoire, activé par {@code cache.l2.type=embedded} : il remplace
+ * un serveur Redis en développement et pour les tests de charge.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.l2.type", havingValue = "embedded")
+public class EmbeddedL2CacheStore implements L2CacheStore {
+
+    private record Entry(Object value, long expiresAt) {
+    }
+
+    @Value("${cache.l2.max-entries:100000}")
+    private int maxEntries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, LinkedHashMap<Object, Entry>> caches = new HashMap<>();
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        lock.lock();
+        try {
+            LinkedHashMap<Object, Entry> cache = caches.get(cacheName);
+            Entry entry = cache != null ? cache.get(key) : null;
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= System.currentTimeMillis()) {
+                cache.remove(key);
+                return null;
+            }
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl) {
+        lock.lock();
+        try {
+            LinkedHashMap<Object, Entry> cache = caches.computeIfAbsent(cacheName, name -> new LinkedHashMap<>(64, 0.75f, true));
+            cache.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+            Iterator<Map.Entry<Object, Entry>> eldest = cache.entrySet().iterator();
+            while (cache.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        lock.lock();
+        try {
+            LinkedHashMap<Object, Entry> cache = caches.get(cacheName);
+            if (cache != null) {
+                cache.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        lock.lock();
+        try {
+            caches.remove(cacheName);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import java.time.Duration;
+
+/**
+ * Second niveau de cache, partagé entre instances (Redis par exemple).
+ * Sans implémentation déclarée, seul le cache local est utilisé.
+ */
+public interface L2CacheStore {
+
+    /**
+     * La valeur en cache, ou {@code null} si elle est absente ou expirée.
+     */
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value, Duration ttl);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+}
@@ -0,0 +1,112 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import com.dic1.projet.hospitalFind.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches des lectures publiques et leurs invalidations, y compris les versions
+ * servant aux ETag. Les caches sont transactionnels : une invalidation demandée
+ * dans une transaction n'a lieu qu'après sa validation.
+ */
+@Component
+public class PublicCaches {
+
+    public static final String ETABLISSEMENTS_PUBLICS = "etablissementsPublics";
+    public static final String ETABLISSEMENT_PUBLIC = "etablissementPublic";
+    public static final String SERVICES = "services";
+    public static final String SERVICE = "service";
+    public static final String AVIS_ETABLISSEMENT = "avisEtablissement";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DatasetVersions datasetVersions;
+
+    public void etablissementModifie(Long etablissementId) {
+        datasetVersions.bump(DatasetVersions.Dataset.ETABLISSEMENTS);
+        clear(ETABLISSEMENTS_PUBLICS);
+        evict(ETABLISSEMENT_PUBLIC, etablissementId);
+    }
+
+    /**
+     * Nouveaux établissements : seule la liste est périmée, aucun n'était en cache.
+     */
+    public void etablissementsImportes() {
+        datasetVersions.bump(DatasetVersions.Dataset.ETABLISSEMENTS);
+        clear(ETABLISSEMENTS_PUBLICS);
+    }
+
+    /**
+     * Un établissement supprimé emporte ses avis.
+     */
+    public void etablissementSupprime(Long etablissementId) {
+        etablissementModifie(etablissementId);
+        datasetVersions.bump(DatasetVersions.Dataset.AVIS);
+        evict(AVIS_ETABLISSEMENT, etablissementId);
+    }
+
+    public void serviceCree() {
+        datasetVersions.bump(DatasetVersions.Dataset.SERVICES);
+        clear(SERVICES);
+    }
+
+    /**
+     * Les établissements embarquent leurs services : ils sont tous invalidés.
+     */
+    public void serviceSupprime(Long serviceId) {
+        datasetVersions.bump(DatasetVersions.Dataset.SERVICES);
+        datasetVersions.bump(DatasetVersions.Dataset.ETABLISSEMENTS);
+        clear(SERVICES);
+        evict(SERVICE, serviceId);
+        clear(ETABLISSEMENTS_PUBLICS);
+        clear(ETABLISSEMENT_PUBLIC);
+    }
+
+    /**
+     * Les avis changent aussi les notes affichées avec l'établissement.
+     */
+    public void avisModifies(Long etablissementId) {
+        datasetVersions.bump(DatasetVersions.Dataset.AVIS);
+        evict(AVIS_ETABLISSEMENT, etablissementId);
+        etablissementModifie(etablissementId);
+    }
+
+    public List<CacheStatsDTO> statistiques() {
+        List<CacheStatsDTO> statistiques = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof TwoTierCache twoTier) {
+                CacheStats local = twoTier.localStats();
+                statistiques.add(new CacheStatsDTO(name, twoTier.localSize(), local.hitCount(), local.missCount(),
+                        local.evictionCount(), twoTier.l2Hits(), twoTier.l2Misses()));
+            }
+        }
+        return statistiques;
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache Spring à deux niveaux : Caffeine en local, borné en taille et en durée,
+ * puis le {@link L2CacheStore} éventuel. Une valeur trouvée en second niveau
+ * est recopiée en local.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final L2CacheStore l2;
+    private final Duration ttl;
+
+    private final AtomicLong l2Hits = new AtomicLong();
+    private final AtomicLong l2Misses = new AtomicLong();
+
+    public TwoTierCache(String name, Cache<Object, Object> local, L2CacheStore l2, Duration ttl) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.l2 = l2;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null || l2 == null) {
+            return value;
+        }
+        value = l2.get(name, key);
+        if (value == null) {
+            l2Misses.incrementAndGet();
+            return null;
+        }
+        l2Hits.incrementAndGet();
+        local.put(key, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = local.get(key, k -> {
+            if (l2 != null) {
+                Object shared = l2.get(name, k);
+                if (shared != null) {
+                    l2Hits.incrementAndGet();
+                    return shared;
+                }
+                l2Misses.incrementAndGet();
+            }
+            try {
+                Object loaded = toStoreValue(valueLoader.call());
+                if (l2 != null) {
+                    l2.put(name, k, loaded, ttl);
+                }
+                return loaded;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+        });
+        return (T) fromStoreValue(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stored = toStoreValue(value);
+        local.put(key, stored);
+        if (l2 != null) {
+            l2.put(name, key, stored, ttl);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (l2 != null) {
+            l2.evict(name, key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (l2 != null) {
+            l2.clear(name);
+        }
+    }
+
+    public CacheStats localStats() {
+        return local.stats();
+    }
+
+    public long localSize() {
+        return local.estimatedSize();
+    }
+
+    public long l2Hits() {
+        return l2Hits.get();
+    }
+
+    public long l2Misses() {
+        return l2Misses.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.dic1.projet.hospitalFind.config;
+
+import com.dic1.projet.hospitalFind.cache.L2CacheStore;
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
+import com.dic1.projet.hospitalFind.cache.TwoTierCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Value("${cache.etablissements.ttl:60s}")
+    private Duration etablissementsTtl;
+
+    @Value("${cache.etablissement.ttl:5m}")
+    private Duration etablissementTtl;
+
+    @Value("${cache.etablissement.max-size:10000}")
+    private long etablissementMaxSize;
+
+    @Value("${cache.services.ttl:10m}")
+    private Duration servicesTtl;
+
+    @Value("${cache.avis.ttl:30s}")
+    private Duration avisTtl;
+
+    @Value("${cache.avis.max-size:10000}")
+    private long avisMaxSize;
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<L2CacheStore> l2CacheStore) {
+        L2CacheStore l2 = l2CacheStore.getIfAvailable();
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                cache(PublicCaches.ETABLISSEMENTS_PUBLICS, etablissementsTtl, 16, l2),
+                cache(PublicCaches.ETABLISSEMENT_PUBLIC, etablissementTtl, etablissementMaxSize, l2),
+                cache(PublicCaches.SERVICES, servicesTtl, 1, l2),
+                cache(PublicCaches.SERVICE, servicesTtl, 1000, l2),
+                cache(PublicCaches.AVIS_ETABLISSEMENT, avisTtl, avisMaxSize, l2)
+        ));
+        return cacheManager;
+    }
+
+    private static Cache cache(String name, Duration ttl, long maxSize, L2CacheStore l2) {
+        return new TransactionAwareCacheDecorator(new TwoTierCache(
+                name,
+                Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).recordStats().build(),
+                l2,
+                ttl));
+    }
+}
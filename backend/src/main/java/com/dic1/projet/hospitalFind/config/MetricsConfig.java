@@ -0,0 +1,66 @@
+package com.dic1.projet.hospitalFind.config;
+
+import com.dic1.projet.hospitalFind.cache.TwoTierCache;
+import com.dic1.projet.hospitalFind.stream.EventBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métriques propres à l'application. Les requêtes HTTP ({@code http.server.requests}),
+ * les dépôts Spring Data ({@code spring.data.repository.invocations}), le pool
+ * HikariCP ({@code hikaricp.*}) et les statistiques Hibernate ({@code hibernate.*})
+ * sont instrumentés par Spring Boot ; on y ajoute les caches à deux niveaux et le
+ * flux SSE.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Spring Boot n'instrumente que les caches qu'il connaît : celui-ci expose le niveau
+     * Caffeine de chaque {@link TwoTierCache} ({@code cache.gets}, {@code cache.size}...)
+     * et les lectures du second niveau.
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return new TwoTierCacheMeterBinderProvider();
+    }
+
+    @Bean
+    public MeterBinder eventBusMetrics(EventBus eventBus) {
+        return registry -> {
+            Gauge.builder("stream.subscribers", eventBus, EventBus::subscriberCount)
+                    .description("Abonnés SSE connectés")
+                    .register(registry);
+            FunctionCounter.builder("stream.subscribers.dropped", eventBus, EventBus::droppedSubscribers)
+                    .description("Abonnés SSE déconnectés car trop lents")
+                    .register(registry);
+        };
+    }
+
+    static class TwoTierCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoTierCache> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public MeterBinder getMeterBinder(TwoTierCache cache, Iterable<Tag> tags) {
+            return registry -> {
+                new CaffeineCacheMetrics<>((Cache<Object, Object>) cache.getNativeCache(), cache.getName(), tags)
+                        .bindTo(registry);
+                Tags l2Tags = Tags.of(tags).and("cache", cache.getName());
+                FunctionCounter.builder("cache.l2.gets", cache, TwoTierCache::l2Hits)
+                        .tags(l2Tags.and("result", "hit"))
+                        .register(registry);
+                FunctionCounter.builder("cache.l2.gets", cache, TwoTierCache::l2Misses)
+                        .tags(l2Tags.and("result", "miss"))
+                        .register(registry);
+            };
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package com.dic1.projet.hospitalFind.controller;
 
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
+import com.dic1.projet.hospitalFind.dto.CacheStatsDTO;
 import com.dic1.projet.hospitalFind.dto.EtablissementAdminDTO;
 import com.dic1.projet.hospitalFind.dto.ErrorResponse;
+import com.dic1.projet.hospitalFind.dto.ImportStatusDTO;
 import com.dic1.projet.hospitalFind.dto.SuccessResponse;
+import com.dic1.projet.hospitalFind.importer.ImportService;
 import com.dic1.projet.hospitalFind.service.AvisService;
 import com.dic1.projet.hospitalFind.service.EtablissementService;
+import com.dic1.projet.hospitalFind.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -22,6 +34,18 @@ public class AdminController {
     @Autowired
     private AvisService avisService;
 
+    @Autowired
+    private PublicCaches publicCaches;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ExportService exportService;
+
+    /** Délai propre aux exports ; les autres requêtes asynchrones gardent celui par défaut. */
+    @Value("${export.timeout:1h}")
+    private Duration exportTimeout;
 
 
     @DeleteMapping("/avis/{id}")
@@ -35,4 +59,69 @@ public class AdminController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(publicCaches.statistiques());
+    }
+
+    /**
+     * Import en masse depuis un fichier envoyé ({@code file}) ou déposé dans
+     * {@code import.directory} ({@code path}). L'import tourne en tâche de fond ;
+     * son avancement se suit sur {@code GET /admin/import/{id}}.
+     */
+    @PostMapping("/import/etablissements")
+    public ResponseEntity<?> importEtablissements(@RequestParam(value = "file", required = false) MultipartFile file,
+                                                  @RequestParam(required = false) String path,
+                                                  @RequestParam(required = false) String format,
+                                                  @RequestParam(defaultValue = "VALIDE") String statut,
+                                                  @RequestParam(defaultValue = "false") boolean creerServices) {
+        try {
+            ImportStatusDTO status = importService.demarrer(file, path, format, statut, creerServices).toDTO();
+            return ResponseEntity.accepted().body(status);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/import/{id}")
+    public ResponseEntity<?> getImport(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(importService.getJob(id).toDTO());
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    /**
+     * Export complet des établissements ou des avis anonymisés, écrit au fil de la
+     * lecture en base. Formats : {@code ndjson}, {@code csv}, {@code geojson}
+     * (établissements seulement) ; {@code gzip=true} compresse la réponse.
+     * L'export s'écrit directement dans la réponse, hors du thread de requête,
+     * avec son propre délai ({@code export.timeout}).
+     */
+    @GetMapping("/export/{jeu}")
+    public WebAsyncTask<ResponseEntity<?>> export(@PathVariable String jeu,
+                                                  @RequestParam(defaultValue = "ndjson") String format,
+                                                  @RequestParam(required = false) String statut,
+                                                  @RequestParam(defaultValue = "false") boolean gzip,
+                                                  HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            ExportService.Export export;
+            try {
+                export = exportService.preparer(jeu, format, statut, gzip);
+            } catch (Exception e) {
+                ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            response.setContentType(export.contentType().toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(export.nomFichier()).build().toString());
+            exportService.ecrire(export, response.getOutputStream());
+            response.flushBuffer();
+            return ResponseEntity.ok().build();
+        });
+    }
+}
@@ -4,14 +4,21 @@ import com.dic1.projet.hospitalFind.dto.CreateUtilisateurRequest;
 import com.dic1.projet.hospitalFind.dto.ErrorResponse;
 import com.dic1.projet.hospitalFind.dto.LoginRequest;
 import com.dic1.projet.hospitalFind.dto.LoginResponse;
+import com.dic1.projet.hospitalFind.dto.RefreshRequest;
 import com.dic1.projet.hospitalFind.dto.SuccessResponse;
 import com.dic1.projet.hospitalFind.entity.Utilisateur;
+import com.dic1.projet.hospitalFind.security.AuthenticationThrottledException;
 import com.dic1.projet.hospitalFind.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
@@ -32,14 +39,58 @@ public class AuthController {
         }
     }
 
+    /**
+     * La réponse est asynchrone : le thread de la requête est libéré pendant la
+     * vérification du mot de passe. Derrière un proxy de confiance,
+     * {@code getRemoteAddr()} renvoie déjà l'adresse du client lue dans
+     * X-Forwarded-For (voir {@code server.tomcat.remoteip.internal-proxies}).
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request,
+                                                      HttpServletRequest httpRequest) {
         try {
-            LoginResponse response = authService.login(request);
+            return authService.login(request, httpRequest.getRemoteAddr())
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(this::loginError);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(loginError(e));
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        try {
+            LoginResponse response = authService.refresh(request.getRefreshToken());
             return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "UNAUTHORIZED", 401);
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestBody(required = false) RefreshRequest request) {
+        try {
+            String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+            authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+            return ResponseEntity.ok(new SuccessResponse("Déconnexion réussie", "SUCCESS"));
         } catch (Exception e) {
             ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> loginError(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof AuthenticationThrottledException throttled) {
+            ErrorResponse errorResponse = new ErrorResponse(cause.getMessage(),
+                    throttled.getStatus().name(), throttled.getStatus().value());
+            return ResponseEntity.status(throttled.getStatus())
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(throttled.getRetryAfterSeconds()))
+                    .body(errorResponse);
+        }
+        ErrorResponse errorResponse = new ErrorResponse(cause.getMessage(), "BAD_REQUEST", 400);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
@@ -1,17 +1,20 @@
 package com.dic1.projet.hospitalFind.controller;
 
+import com.dic1.projet.hospitalFind.cache.DatasetVersions;
 import com.dic1.projet.hospitalFind.dto.AvisDto;
+import com.dic1.projet.hospitalFind.dto.AvisPageDTO;
 import com.dic1.projet.hospitalFind.dto.CreateAvisRequest;
 import com.dic1.projet.hospitalFind.dto.ErrorResponse;
 import com.dic1.projet.hospitalFind.entity.Avis;
 import com.dic1.projet.hospitalFind.service.AvisService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @RestController
@@ -22,6 +25,9 @@ public class AvisController {
     @Autowired
     private AvisService avisService;
 
+    @Autowired
+    private DatasetVersions datasetVersions;
+
     @PostMapping
     public ResponseEntity<?> createAvis(@RequestBody CreateAvisRequest request, Authentication authentication) {
         try {
@@ -35,13 +41,40 @@ public class AvisController {
     }
 
     @GetMapping("/etablissement/{etablissementId}")
-    public ResponseEntity<List<AvisDto>> getAvisByEtablissement(@PathVariable Long etablissementId) {
-        List<Avis> avis = avisService.getAvisByEtablissement(etablissementId);
-
-        List<AvisDto> avisDto = avis.stream()
-                .map(AvisDto::new)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<AvisDto>> getAvisByEtablissement(@PathVariable Long etablissementId,
+                                                                @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String etag = datasetVersions.etag(DatasetVersions.Dataset.AVIS);
+        if (DatasetVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        List<AvisDto> avisDto = avisService.getAvisDtoByEtablissement(etablissementId);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(datasetVersions.lastModified(DatasetVersions.Dataset.AVIS))
+                .cacheControl(CacheControl.noCache())
+                .body(avisDto);
+    }
 
-        return ResponseEntity.ok(avisDto);
+    @GetMapping("/etablissement/{etablissementId}/page")
+    public ResponseEntity<?> getAvisPage(@PathVariable Long etablissementId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") Integer size,
+                                         @RequestParam(defaultValue = "newest") String sort,
+                                         @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            String etag = datasetVersions.etag(DatasetVersions.Dataset.AVIS);
+            if (DatasetVersions.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            AvisPageDTO page = avisService.getAvisPage(etablissementId, cursor, size, sort);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .lastModified(datasetVersions.lastModified(DatasetVersions.Dataset.AVIS))
+                    .cacheControl(CacheControl.noCache())
+                    .body(page);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,20 @@
 package com.dic1.projet.hospitalFind.controller;
 
+import com.dic1.projet.hospitalFind.cache.DatasetVersions;
 import com.dic1.projet.hospitalFind.dto.EtablissementAdminDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementChangesDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementFilterDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementProcheDTO;
 import com.dic1.projet.hospitalFind.dto.EtablissementPublicDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementSearchResultDTO;
 import com.dic1.projet.hospitalFind.dto.ErrorResponse;
 import com.dic1.projet.hospitalFind.dto.SuccessResponse;
+import com.dic1.projet.hospitalFind.dto.SuggestionDTO;
+import com.dic1.projet.hospitalFind.dto.ViewportDTO;
 import com.dic1.projet.hospitalFind.service.EtablissementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,17 +28,121 @@ public class EtablissementController {
     @Autowired
     private EtablissementService etablissementService;
 
+    @Autowired
+    private DatasetVersions datasetVersions;
+
     @GetMapping
-    public ResponseEntity<List<EtablissementPublicDTO>> getAllEtablissements() {
-        List<EtablissementPublicDTO> etablissements = etablissementService.getAllEtablissementsPublic();
-        return ResponseEntity.ok(etablissements);
+    public ResponseEntity<?> getAllEtablissements(@RequestParam(required = false) String sort,
+                                                  @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            String etag = datasetVersions.etag(DatasetVersions.Dataset.ETABLISSEMENTS);
+            if (DatasetVersions.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            List<EtablissementPublicDTO> etablissements = etablissementService.getAllEtablissementsPublic(sort);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .lastModified(datasetVersions.lastModified(DatasetVersions.Dataset.ETABLISSEMENTS))
+                    .cacheControl(CacheControl.noCache())
+                    .body(etablissements);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getEtablissementsProches(@RequestParam Double lat,
+                                                      @RequestParam Double lon,
+                                                      @RequestParam(defaultValue = "50") Double radiusKm,
+                                                      @RequestParam(defaultValue = "10") Integer k) {
+        try {
+            List<EtablissementProcheDTO> etablissements = etablissementService.getEtablissementsProches(lat, lon, radiusKm, k);
+            return ResponseEntity.ok(etablissements);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/viewport")
+    public ResponseEntity<?> getViewport(@RequestParam Double minLat,
+                                         @RequestParam Double maxLat,
+                                         @RequestParam Double minLon,
+                                         @RequestParam Double maxLon,
+                                         @RequestParam Integer zoom) {
+        try {
+            ViewportDTO viewport = etablissementService.getViewport(minLat, maxLat, minLon, maxLon, zoom);
+            return ResponseEntity.ok(viewport);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> rechercherEtablissements(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "20") Integer limit) {
+        try {
+            List<EtablissementSearchResultDTO> resultats = etablissementService.rechercherEtablissements(q, limit);
+            return ResponseEntity.ok(resultats);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<?> getSuggestions(@RequestParam String prefix,
+                                            @RequestParam(defaultValue = "10") Integer limit) {
+        try {
+            List<SuggestionDTO> suggestions = etablissementService.getSuggestions(prefix, limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterEtablissements(@RequestParam(required = false) List<Long> services,
+                                                  @RequestParam(required = false) List<String> types,
+                                                  @RequestParam(required = false) String bbox) {
+        try {
+            EtablissementFilterDTO resultat = etablissementService.filtrerEtablissements(services, types, bbox);
+            return ResponseEntity.ok(resultat);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChangements(@RequestParam(defaultValue = "0") Long since,
+                                            @RequestParam(defaultValue = "500") Integer limit) {
+        try {
+            EtablissementChangesDTO changements = etablissementService.getChangements(since, limit);
+            return ResponseEntity.ok(changements);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EtablissementPublicDTO> getEtablissementById(@PathVariable Long id) {
+    public ResponseEntity<EtablissementPublicDTO> getEtablissementById(@PathVariable Long id,
+                                                                       @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
+            String etag = datasetVersions.etag(DatasetVersions.Dataset.ETABLISSEMENTS);
+            if (DatasetVersions.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             EtablissementPublicDTO etablissement = etablissementService.getEtablissementPublicById(id);
-            return ResponseEntity.ok(etablissement);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .lastModified(datasetVersions.lastModified(DatasetVersions.Dataset.ETABLISSEMENTS))
+                    .cacheControl(CacheControl.noCache())
+                    .body(etablissement);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -1,5 +1,6 @@
 package com.dic1.projet.hospitalFind.controller;
 
+import com.dic1.projet.hospitalFind.cache.DatasetVersions;
 import com.dic1.projet.hospitalFind.dto.CreateServiceRequest;
 import com.dic1.projet.hospitalFind.dto.ErrorResponse;
 import com.dic1.projet.hospitalFind.dto.ServiceDTO;
@@ -7,6 +8,8 @@ import com.dic1.projet.hospitalFind.dto.SuccessResponse;
 import com.dic1.projet.hospitalFind.entity.Service;
 import com.dic1.projet.hospitalFind.service.ServiceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,17 +23,37 @@ public class ServiceController {
     @Autowired
     private ServiceService serviceService;
 
+    @Autowired
+    private DatasetVersions datasetVersions;
+
     @GetMapping
-    public ResponseEntity<List<ServiceDTO>> getAllServices() {
+    public ResponseEntity<List<ServiceDTO>> getAllServices(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String etag = datasetVersions.etag(DatasetVersions.Dataset.SERVICES);
+        if (DatasetVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<ServiceDTO> services = serviceService.getAllServices();
-        return ResponseEntity.ok(services);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(datasetVersions.lastModified(DatasetVersions.Dataset.SERVICES))
+                .cacheControl(CacheControl.noCache())
+                .body(services);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ServiceDTO> getServiceById(@PathVariable Long id) {
+    public ResponseEntity<ServiceDTO> getServiceById(@PathVariable Long id,
+                                                     @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
+            String etag = datasetVersions.etag(DatasetVersions.Dataset.SERVICES);
+            if (DatasetVersions.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             ServiceDTO service = serviceService.getServiceById(id);
-            return ResponseEntity.ok(service);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .lastModified(datasetVersions.lastModified(DatasetVersions.Dataset.SERVICES))
+                    .cacheControl(CacheControl.noCache())
+                    .body(service);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,26 @@
+package com.dic1.projet.hospitalFind.controller;
+
+import com.dic1.projet.hospitalFind.stream.EventBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/stream")
+@CrossOrigin(origins = "*")
+public class StreamController {
+
+    @Autowired
+    private EventBus eventBus;
+
+    @GetMapping(value = "/etablissements", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEtablissements() {
+        return eventBus.subscribe(EventBus.ETABLISSEMENTS);
+    }
+
+    @GetMapping(value = "/avis/{etablissementId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvis(@PathVariable Long etablissementId) {
+        return eventBus.subscribe(EventBus.avis(etablissementId));
+    }
+}
@@ -0,0 +1,44 @@
+package com.dic1.projet.hospitalFind.controller;
+
+import com.dic1.projet.hospitalFind.cache.DatasetVersions;
+import com.dic1.projet.hospitalFind.dto.ErrorResponse;
+import com.dic1.projet.hospitalFind.index.TileCache;
+import com.dic1.projet.hospitalFind.service.VectorTileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/tiles")
+@CrossOrigin(origins = "*")
+public class TileController {
+
+    private static final MediaType MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    @Autowired
+    private VectorTileService vectorTileService;
+
+    @GetMapping("/{z}/{x}/{y}.mvt")
+    public ResponseEntity<?> getTile(@PathVariable int z,
+                                     @PathVariable int x,
+                                     @PathVariable int y,
+                                     @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        try {
+            TileCache.CachedTile tile = vectorTileService.getTile(z, x, y);
+            if (DatasetVersions.matches(ifNoneMatch, tile.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tile.etag()).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MVT)
+                    .eTag(tile.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(tile.data());
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.dic1.projet.hospitalFind.controller;
 
+import com.dic1.projet.hospitalFind.dto.ErrorResponse;
+import com.dic1.projet.hospitalFind.dto.SuccessResponse;
 import com.dic1.projet.hospitalFind.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -34,4 +36,15 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    @PutMapping("/{id}/actif")
+    public ResponseEntity<?> setActif(@PathVariable Long id, @RequestParam boolean actif) {
+        try {
+            userService.setActif(id, actif);
+            return ResponseEntity.ok(new SuccessResponse(actif ? "Compte activé" : "Compte désactivé", "SUCCESS"));
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(e.getMessage(), "BAD_REQUEST", 400);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvisPageDTO {
+    private List<AvisDto> avis;
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStatsDTO {
+    private String nom;
+    private Long taille;
+    private Long hitsLocaux;
+    private Long missesLocaux;
+    private Long evictions;
+    private Long hitsL2;
+    private Long missesL2;
+}
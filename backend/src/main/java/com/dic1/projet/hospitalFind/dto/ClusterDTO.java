@@ -0,0 +1,14 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClusterDTO {
+    private Integer count;
+    private Double latitude;
+    private Double longitude;
+}
@@ -0,0 +1,16 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EtablissementChangesDTO {
+    private Long seq;
+    private Boolean hasMore;
+    private List<EtablissementPublicDTO> upserts;
+    private List<Long> tombstones;
+}
@@ -0,0 +1,14 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EtablissementEventDTO {
+    private Long id;
+    private String nom;
+    private String statut;
+}
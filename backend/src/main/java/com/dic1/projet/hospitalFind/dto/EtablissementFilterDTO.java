@@ -0,0 +1,17 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EtablissementFilterDTO {
+    private Integer total;
+    private List<EtablissementMarkerDTO> etablissements;
+    private Map<Long, Integer> serviceCounts;
+    private Map<String, Integer> typeCounts;
+}
@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -18,4 +19,6 @@ public class EtablissementPublicDTO {
     private Double latitude;
     private Double longitude;
     private List<ServiceDTO> services;
+    private NoteDTO note;
+    private Map<Long, NoteDTO> notesParService;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EtablissementSearchResultDTO {
+    private Long id;
+    private String nom;
+    private String localisation;
+    private String type;
+    private Double latitude;
+    private Double longitude;
+    private Double score;
+}
@@ -0,0 +1,13 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErreurDTO {
+    private Integer ligne;
+    private String message;
+}
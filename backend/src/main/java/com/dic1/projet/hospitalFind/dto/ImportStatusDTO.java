@@ -0,0 +1,25 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportStatusDTO {
+    private String id;
+    private String fichier;
+    private String statut;
+    private Integer lignesLues;
+    private Integer importees;
+    private Integer rejetees;
+    private Integer servicesCrees;
+    private List<ImportErreurDTO> erreurs;
+    private LocalDateTime debut;
+    private LocalDateTime fin;
+    private String message;
+}
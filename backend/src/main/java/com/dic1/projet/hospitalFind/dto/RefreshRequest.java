@@ -0,0 +1,10 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    @NotBlank
+    private String refreshToken;
+}
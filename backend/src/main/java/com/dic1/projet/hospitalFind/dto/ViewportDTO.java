@@ -0,0 +1,15 @@
+package com.dic1.projet.hospitalFind.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ViewportDTO {
+    private Integer zoom;
+    private List<ClusterDTO> clusters;
+    private List<EtablissementMarkerDTO> etablissements;
+}
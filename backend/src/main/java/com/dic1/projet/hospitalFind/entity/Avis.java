@@ -9,7 +9,11 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "AVIS")
+@Table(name = "AVIS", indexes = {
+        @Index(name = "idx_avis_etablissement_date", columnList = "id_etablissement, date_creation, id_avis"),
+        @Index(name = "idx_avis_etablissement_note_date", columnList = "id_etablissement, note, date_creation, id_avis"),
+        @Index(name = "idx_avis_etablissement_note_date_desc", columnList = "id_etablissement, note, date_creation DESC, id_avis DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,46 @@
+package com.dic1.projet.hospitalFind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée du journal des modifications d'établissements ; {@code seq} sert de
+ * curseur aux clients qui se synchronisent par différence.
+ */
+@Entity
+@Table(name = "CHANGEMENT_ETABLISSEMENT", indexes = {
+        @Index(name = "idx_changement_etablissement", columnList = "id_etablissement, seq")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangementEtablissement {
+
+    public enum Operation {
+        UPSERT, SUPPRESSION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "id_etablissement", nullable = false)
+    private Long idEtablissement;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private Operation operation;
+
+    @Column(name = "date_changement", nullable = false)
+    private LocalDateTime dateChangement = LocalDateTime.now();
+
+    public ChangementEtablissement(Long idEtablissement, Operation operation) {
+        this.idEtablissement = idEtablissement;
+        this.operation = operation;
+    }
+}
@@ -21,7 +21,8 @@ import java.util.Set;
 public class Etablissement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "etablissement_seq")
+    @SequenceGenerator(name = "etablissement_seq", sequenceName = "etablissement_seq", allocationSize = 50)
     @Column(name = "id_etablissement")
     private Long idEtablissement;
 
@@ -0,0 +1,29 @@
+package com.dic1.projet.hospitalFind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agrégat des notes d'un établissement, tenu à jour à chaque avis
+ * pour ne jamais parcourir la table AVIS à la lecture.
+ */
+@Entity
+@Table(name = "NOTE_ETABLISSEMENT")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteEtablissement {
+
+    @Id
+    @Column(name = "id_etablissement")
+    private Long idEtablissement;
+
+    @Embedded
+    private StatistiquesNotes statistiques = new StatistiquesNotes();
+
+    public NoteEtablissement(Long idEtablissement) {
+        this.idEtablissement = idEtablissement;
+    }
+}
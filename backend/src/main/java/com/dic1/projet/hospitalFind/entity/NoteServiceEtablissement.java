@@ -0,0 +1,42 @@
+package com.dic1.projet.hospitalFind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Agrégat des notes données à un service dans un établissement.
+ */
+@Entity
+@Table(name = "NOTE_SERVICE_ETABLISSEMENT")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteServiceEtablissement {
+
+    @EmbeddedId
+    private Cle cle;
+
+    @Embedded
+    private StatistiquesNotes statistiques = new StatistiquesNotes();
+
+    public NoteServiceEtablissement(Long idEtablissement, Long idService) {
+        this.cle = new Cle(idEtablissement, idService);
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cle implements Serializable {
+
+        @Column(name = "id_etablissement")
+        private Long idEtablissement;
+
+        @Column(name = "id_service")
+        private Long idService;
+    }
+}
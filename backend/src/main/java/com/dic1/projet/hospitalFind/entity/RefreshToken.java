@@ -0,0 +1,44 @@
+package com.dic1.projet.hospitalFind.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Jeton de rafraîchissement, conservé uniquement sous forme d'empreinte SHA-256.
+ * Chaque rafraîchissement le marque comme utilisé et en émet un nouveau dans la
+ * même famille ; présenter un jeton déjà utilisé révoque toute la famille.
+ */
+@Entity
+@Table(name = "REFRESH_TOKEN", indexes = {
+        @Index(name = "idx_refresh_token_famille", columnList = "famille"),
+        @Index(name = "idx_refresh_token_utilisateur", columnList = "id_utilisateur")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_refresh_token")
+    private Long idRefreshToken;
+
+    @Column(name = "empreinte", nullable = false, unique = true, length = 44)
+    private String empreinte;
+
+    @Column(name = "id_utilisateur", nullable = false)
+    private Long idUtilisateur;
+
+    @Column(name = "famille", nullable = false, length = 36)
+    private String famille;
+
+    @Column(name = "date_expiration", nullable = false)
+    private LocalDateTime dateExpiration;
+
+    @Column(name = "utilise", nullable = false)
+    private Boolean utilise = false;
+}
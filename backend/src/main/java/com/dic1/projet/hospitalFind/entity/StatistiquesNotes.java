@@ -0,0 +1,62 @@
+package com.dic1.projet.hospitalFind.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre, somme et répartition des notes (1 à 5) d'un ensemble d'avis.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatistiquesNotes {
+
+    @Column(name = "nombre_avis", nullable = false)
+    private long nombreAvis;
+
+    @Column(name = "somme_notes", nullable = false)
+    private long sommeNotes;
+
+    @Column(name = "nombre_notes_1", nullable = false)
+    private long nombreNotes1;
+
+    @Column(name = "nombre_notes_2", nullable = false)
+    private long nombreNotes2;
+
+    @Column(name = "nombre_notes_3", nullable = false)
+    private long nombreNotes3;
+
+    @Column(name = "nombre_notes_4", nullable = false)
+    private long nombreNotes4;
+
+    @Column(name = "nombre_notes_5", nullable = false)
+    private long nombreNotes5;
+
+    /**
+     * Ajoute ({@code delta} positif) ou retire des avis portant la note donnée.
+     */
+    public void ajouter(int note, long delta) {
+        switch (note) {
+            case 1 -> nombreNotes1 += delta;
+            case 2 -> nombreNotes2 += delta;
+            case 3 -> nombreNotes3 += delta;
+            case 4 -> nombreNotes4 += delta;
+            case 5 -> nombreNotes5 += delta;
+            default -> throw new RuntimeException("La note doit être comprise entre 1 et 5");
+        }
+        nombreAvis += delta;
+        sommeNotes += note * delta;
+    }
+
+    public long[] histogramme() {
+        return new long[]{nombreNotes1, nombreNotes2, nombreNotes3, nombreNotes4, nombreNotes5};
+    }
+
+    public Double moyenne() {
+        return nombreAvis > 0 ? (double) sommeNotes / nombreAvis : null;
+    }
+}
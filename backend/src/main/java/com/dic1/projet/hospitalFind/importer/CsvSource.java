@@ -0,0 +1,133 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV avec ligne d'en-tête (RFC 4180 : champs entre guillemets, guillemets doublés,
+ * retours à la ligne dans un champ). Le séparateur (virgule, point-virgule ou
+ * tabulation) est déduit de l'en-tête ; les colonnes inconnues sont ignorées.
+ */
+public class CsvSource implements SourceImport {
+
+    private static final int MAX_HEADER_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final char separateur;
+    private final String[] colonnes;
+    private int ligne;
+    private int debut;
+
+    public CsvSource(Reader input) throws IOException {
+        this.reader = new BufferedReader(input, 64 * 1024);
+        this.separateur = detecterSeparateur();
+
+        List<String> entete = lireEnregistrement();
+        if (entete == null) {
+            throw new IOException("Fichier CSV vide");
+        }
+        colonnes = new String[entete.size()];
+        for (int i = 0; i < entete.size(); i++) {
+            String nom = entete.get(i);
+            colonnes[i] = LigneImport.champ(i == 0 ? nom.replace("\uFEFF", "") : nom);
+        }
+    }
+
+    @Override
+    public LigneImport suivante() throws IOException {
+        while (true) {
+            List<String> valeurs = lireEnregistrement();
+            if (valeurs == null) {
+                return null;
+            }
+            if (valeurs.size() == 1 && valeurs.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> champs = new HashMap<>();
+            for (int i = 0; i < Math.min(valeurs.size(), colonnes.length); i++) {
+                if (colonnes[i] != null) {
+                    champs.put(colonnes[i], valeurs.get(i));
+                }
+            }
+            return new LigneImport(debut, champs);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private char detecterSeparateur() throws IOException {
+        reader.mark(MAX_HEADER_LENGTH);
+        int virgules = 0;
+        int pointsVirgules = 0;
+        int tabulations = 0;
+        for (int i = 0, c = reader.read(); c >= 0 && c != '\n' && i < MAX_HEADER_LENGTH - 1; i++, c = reader.read()) {
+            switch (c) {
+                case ',' -> virgules++;
+                case ';' -> pointsVirgules++;
+                case '\t' -> tabulations++;
+                default -> {
+                }
+            }
+        }
+        reader.reset();
+        if (pointsVirgules > virgules && pointsVirgules >= tabulations) {
+            return ';';
+        }
+        return tabulations > virgules ? '\t' : ',';
+    }
+
+    /**
+     * Lit un enregistrement complet, éventuellement sur plusieurs lignes physiques.
+     */
+    private List<String> lireEnregistrement() throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        debut = ++ligne;
+        List<String> valeurs = new ArrayList<>();
+        StringBuilder valeur = new StringBuilder();
+        boolean entreGuillemets = false;
+        while (c >= 0) {
+            if (entreGuillemets) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int suivant = reader.read();
+                    if (suivant == '"') {
+                        valeur.append('"');
+                    } else {
+                        entreGuillemets = false;
+                        if (suivant >= 0) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        ligne++;
+                    }
+                    valeur.append((char) c);
+                }
+            } else if (c == '"' && valeur.isEmpty()) {
+                entreGuillemets = true;
+            } else if (c == separateur) {
+                valeurs.add(valeur.toString());
+                valeur.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                valeur.append((char) c);
+            }
+            c = reader.read();
+        }
+        valeurs.add(valeur.toString());
+        return valeurs;
+    }
+}
@@ -0,0 +1,104 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * FeatureCollection GeoJSON lue en flux : seul l'objet {@code Feature} courant est
+ * en mémoire. Les propriétés reconnues donnent les champs ; la géométrie
+ * {@code Point} donne la position, et une liste de services peut être un tableau.
+ */
+public class GeoJsonSource implements SourceImport {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private int numero;
+
+    public GeoJsonSource(Reader input, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(input);
+        positionnerSurFeatures();
+    }
+
+    @Override
+    public LigneImport suivante() throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token != null && token != JsonToken.END_ARRAY && token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            token = parser.nextToken();
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return null;
+        }
+        numero++;
+        JsonNode feature = objectMapper.readTree(parser);
+
+        Map<String, String> champs = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> proprietes = feature.path("properties").fields();
+        while (proprietes.hasNext()) {
+            Map.Entry<String, JsonNode> propriete = proprietes.next();
+            String champ = LigneImport.champ(propriete.getKey());
+            if (champ != null) {
+                champs.put(champ, texte(propriete.getValue()));
+            }
+        }
+
+        JsonNode geometrie = feature.path("geometry");
+        JsonNode coordonnees = geometrie.path("coordinates");
+        if ("Point".equals(geometrie.path("type").asText()) && coordonnees.size() >= 2) {
+            champs.putIfAbsent(LigneImport.LONGITUDE, coordonnees.get(0).asText());
+            champs.putIfAbsent(LigneImport.LATITUDE, coordonnees.get(1).asText());
+        }
+        return new LigneImport(numero, champs);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /**
+     * Avance jusqu'au tableau {@code features} d'une FeatureCollection, ou accepte
+     * directement un tableau de features.
+     */
+    private void positionnerSurFeatures() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("GeoJSON invalide : FeatureCollection attendue");
+        }
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String nom = parser.getCurrentName();
+            token = parser.nextToken();
+            if ("features".equals(nom) && token == JsonToken.START_ARRAY) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw new IOException("GeoJSON invalide : tableau \"features\" absent");
+    }
+
+    private static String texte(JsonNode valeur) {
+        if (valeur.isArray()) {
+            StringBuilder texte = new StringBuilder();
+            for (JsonNode element : valeur) {
+                if (!texte.isEmpty()) {
+                    texte.append('|');
+                }
+                texte.append(element.asText());
+            }
+            return texte.toString();
+        }
+        return valeur.isNull() ? null : valeur.asText();
+    }
+}
@@ -0,0 +1,87 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import com.dic1.projet.hospitalFind.dto.ImportErreurDTO;
+import com.dic1.projet.hospitalFind.dto.ImportStatusDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Avancement d'un import, lu par {@code GET /admin/import/{id}} pendant qu'il tourne.
+ * Seules les {@link #MAX_ERREURS} premières erreurs sont détaillées.
+ */
+public class ImportJob {
+
+    public enum Statut {
+        EN_COURS, TERMINE, ECHEC
+    }
+
+    static final int MAX_ERREURS = 1000;
+
+    private final String id = UUID.randomUUID().toString();
+    private final String fichier;
+    private final LocalDateTime debut = LocalDateTime.now();
+    private volatile LocalDateTime fin;
+    private volatile Statut statut = Statut.EN_COURS;
+    private volatile String message;
+
+    private final AtomicInteger lignesLues = new AtomicInteger();
+    private final AtomicInteger importees = new AtomicInteger();
+    private final AtomicInteger rejetees = new AtomicInteger();
+    private final AtomicInteger servicesCrees = new AtomicInteger();
+    private final AtomicInteger erreursDetaillees = new AtomicInteger();
+    private final ConcurrentLinkedQueue<ImportErreurDTO> erreurs = new ConcurrentLinkedQueue<>();
+
+    public ImportJob(String fichier) {
+        this.fichier = fichier;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    void lues(int count) {
+        lignesLues.addAndGet(count);
+    }
+
+    void importees(int count) {
+        importees.addAndGet(count);
+    }
+
+    void servicesCrees(int count) {
+        servicesCrees.addAndGet(count);
+    }
+
+    void rejetee(int ligne, String message) {
+        rejetees.incrementAndGet();
+        if (erreursDetaillees.incrementAndGet() <= MAX_ERREURS) {
+            erreurs.add(new ImportErreurDTO(ligne, message));
+        }
+    }
+
+    void rejetees(int count, int premiereLigne, String message) {
+        rejetees.addAndGet(count);
+        if (erreursDetaillees.incrementAndGet() <= MAX_ERREURS) {
+            erreurs.add(new ImportErreurDTO(premiereLigne, count + " lignes rejetées : " + message));
+        }
+    }
+
+    void terminer() {
+        fin = LocalDateTime.now();
+        statut = Statut.TERMINE;
+    }
+
+    void echouer(String message) {
+        this.message = message;
+        fin = LocalDateTime.now();
+        statut = Statut.ECHEC;
+    }
+
+    public ImportStatusDTO toDTO() {
+        return new ImportStatusDTO(id, fichier, statut.name(), lignesLues.get(), importees.get(), rejetees.get(),
+                servicesCrees.get(), List.copyOf(erreurs), debut, fin, message);
+    }
+}
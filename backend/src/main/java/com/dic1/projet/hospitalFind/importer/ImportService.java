@@ -0,0 +1,462 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
+import com.dic1.projet.hospitalFind.entity.ChangementEtablissement;
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.entity.Service;
+import com.dic1.projet.hospitalFind.index.EtablissementIndexer;
+import com.dic1.projet.hospitalFind.index.EtablissementSnapshot;
+import com.dic1.projet.hospitalFind.index.TextNormalizer;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import com.dic1.projet.hospitalFind.repository.ServiceRepository;
+import com.dic1.projet.hospitalFind.service.ChangementService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Import en masse d'établissements depuis un CSV ou un GeoJSON. Le fichier est lu en
+ * flux par lots de {@link #TAILLE_LOT} lignes ; chaque lot est validé en parallèle
+ * puis écrit dans une seule transaction par insertions JDBC groupées (établissements,
+ * services) avec des identifiants réservés d'un bloc ; le journal des modifications
+ * passe par {@link ChangementService}, qui numérote les entrées dans l'ordre des validations.
+ * Un lot validé reste en base même si un lot suivant échoue.
+ */
+@org.springframework.stereotype.Service
+public class ImportService {
+
+    public enum Format {
+        CSV, GEOJSON
+    }
+
+    static final int TAILLE_LOT = 2000;
+
+    private static final int MAX_TEXTE = 255;
+    private static final int MAX_DESCRIPTION = 20000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern SEPARATEUR_SERVICES = Pattern.compile("[|;]");
+
+    private static final String INSERT_ETABLISSEMENT = "INSERT INTO etablissement (id_etablissement, nom, adresse, "
+            + "localisation, telephone, email, description, type_etablissement, latitude, longitude, statut) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SERVICE = "INSERT INTO service (id_service, nom) VALUES (?, ?)";
+    private static final String INSERT_ETABLISSEMENT_SERVICE =
+            "INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)";
+
+    /** Types reconnus par leur nom ("CENTRE_SANTE") ou leur libellé ("Centre de santé"). */
+    private static final Map<String, Etablissement.TypeEtablissement> TYPES = new HashMap<>();
+
+    static {
+        for (Etablissement.TypeEtablissement type : Etablissement.TypeEtablissement.values()) {
+            TYPES.put(TextNormalizer.normalizePhrase(type.name().replace('_', ' ')), type);
+            TYPES.put(TextNormalizer.normalizePhrase(type.getDisplayName()), type);
+        }
+    }
+
+    private record ServiceRef(long id, String nom) {
+    }
+
+    private record Candidat(int ligne, String nom, String adresse, String localisation, String telephone,
+                            String email, String description, Etablissement.TypeEtablissement type,
+                            Double latitude, Double longitude, List<String> services) {
+    }
+
+    private record Validation(Candidat candidat, int ligne, String erreur) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ChangementService changementService;
+
+    @Autowired
+    private EtablissementIndexer etablissementIndexer;
+
+    @Autowired
+    private PublicCaches publicCaches;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    /** Répertoire dont les fichiers peuvent être importés par chemin ; vide, l'import par chemin est désactivé. */
+    @Value("${import.directory:}")
+    private String importDirectory;
+
+    private final Cache<String, ImportJob> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(6))
+            .maximumSize(100)
+            .build();
+
+    private final AtomicBoolean enCours = new AtomicBoolean();
+
+    /**
+     * Démarre l'import en tâche de fond et renvoie aussitôt son suivi. Un fichier envoyé
+     * est d'abord copié, car Tomcat le supprime à la fin de la requête.
+     */
+    public ImportJob demarrer(MultipartFile fichier, String chemin, String format, String statut,
+                              boolean creerServices) throws IOException {
+        Etablissement.Statut statutImport;
+        try {
+            statutImport = Etablissement.Statut.valueOf(statut.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Statut invalide: " + statut);
+        }
+
+        String nomFichier;
+        Path source;
+        boolean temporaire;
+        if (fichier != null && !fichier.isEmpty()) {
+            nomFichier = fichier.getOriginalFilename();
+            source = Files.createTempFile("import-etablissements-", ".tmp");
+            fichier.transferTo(source);
+            temporaire = true;
+        } else if (chemin != null && !chemin.isBlank()) {
+            nomFichier = chemin;
+            source = resoudre(chemin);
+            temporaire = false;
+        } else {
+            throw new RuntimeException("Fichier ou chemin obligatoire");
+        }
+
+        try {
+            Format formatImport = format(format, nomFichier);
+            if (!enCours.compareAndSet(false, true)) {
+                throw new RuntimeException("Un import est déjà en cours");
+            }
+
+            ImportJob job = new ImportJob(nomFichier);
+            jobs.put(job.getId(), job);
+            try {
+                taskExecutor.execute(() -> {
+                    try {
+                        executer(job, source, formatImport, statutImport, creerServices);
+                    } catch (Exception e) {
+                        job.echouer(e.getMessage());
+                    } finally {
+                        enCours.set(false);
+                        if (temporaire) {
+                            supprimer(source);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                enCours.set(false);
+                throw new RuntimeException("Import impossible pour le moment, réessayez");
+            }
+            return job;
+        } catch (RuntimeException e) {
+            if (temporaire) {
+                supprimer(source);
+            }
+            throw e;
+        }
+    }
+
+    public ImportJob getJob(String id) {
+        ImportJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new RuntimeException("Import non trouvé");
+        }
+        return job;
+    }
+
+    private void executer(ImportJob job, Path source, Format format, Etablissement.Statut statut,
+                          boolean creerServices) throws IOException {
+        Map<String, ServiceRef> dictionnaire = new ConcurrentHashMap<>();
+        for (Service service : serviceRepository.findAll()) {
+            dictionnaire.putIfAbsent(TextNormalizer.normalizePhrase(service.getNom()),
+                    new ServiceRef(service.getIdService(), service.getNom()));
+        }
+
+        try (SourceImport lignes = ouvrir(source, format)) {
+            List<LigneImport> lot = new ArrayList<>(TAILLE_LOT);
+            for (LigneImport ligne = lignes.suivante(); ligne != null; ligne = lignes.suivante()) {
+                lot.add(ligne);
+                if (lot.size() == TAILLE_LOT) {
+                    traiterLot(job, lot, dictionnaire, statut, creerServices);
+                    lot = new ArrayList<>(TAILLE_LOT);
+                }
+            }
+            if (!lot.isEmpty()) {
+                traiterLot(job, lot, dictionnaire, statut, creerServices);
+            }
+        }
+        job.terminer();
+    }
+
+    private void traiterLot(ImportJob job, List<LigneImport> lot, Map<String, ServiceRef> dictionnaire,
+                            Etablissement.Statut statut, boolean creerServices) {
+        List<Validation> validations = lot.parallelStream()
+                .map(ligne -> valider(ligne, dictionnaire, creerServices))
+                .toList();
+        job.lues(lot.size());
+
+        List<Candidat> candidats = new ArrayList<>(validations.size());
+        for (Validation validation : validations) {
+            if (validation.erreur() != null) {
+                job.rejetee(validation.ligne(), validation.erreur());
+            } else {
+                candidats.add(validation.candidat());
+            }
+        }
+        if (candidats.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, ServiceRef> nouveaux = ecrire(candidats, dictionnaire, statut);
+            dictionnaire.putAll(nouveaux);
+            job.importees(candidats.size());
+            job.servicesCrees(nouveaux.size());
+        } catch (DataAccessException e) {
+            job.rejetees(candidats.size(), candidats.get(0).ligne(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Écrit un lot validé et renvoie les services créés pour lui, à ajouter au
+     * dictionnaire seulement une fois la transaction validée.
+     */
+    private Map<String, ServiceRef> ecrire(List<Candidat> candidats, Map<String, ServiceRef> dictionnaire,
+                                           Etablissement.Statut statut) {
+        Map<String, String> manquants = new LinkedHashMap<>();
+        for (Candidat candidat : candidats) {
+            for (String service : candidat.services()) {
+                String cle = TextNormalizer.normalizePhrase(service);
+                if (!dictionnaire.containsKey(cle)) {
+                    manquants.putIfAbsent(cle, service);
+                }
+            }
+        }
+
+        Map<String, ServiceRef> nouveaux = new HashMap<>();
+        if (!manquants.isEmpty()) {
+            long id = sequenceRepository.allouer(SequenceRepository.Sequence.SERVICE, manquants.size());
+            for (Map.Entry<String, String> manquant : manquants.entrySet()) {
+                nouveaux.put(manquant.getKey(), new ServiceRef(id++, manquant.getValue()));
+            }
+        }
+        long premierId = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, candidats.size());
+
+        List<Object[]> etablissements = new ArrayList<>(candidats.size());
+        List<Object[]> liens = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(candidats.size());
+        List<EtablissementSnapshot> snapshots = new ArrayList<>(candidats.size());
+        for (int i = 0; i < candidats.size(); i++) {
+            Candidat candidat = candidats.get(i);
+            long id = premierId + i;
+            etablissements.add(new Object[]{id, candidat.nom(), candidat.adresse(), candidat.localisation(),
+                    candidat.telephone(), candidat.email(), candidat.description(), candidat.type().name(),
+                    candidat.latitude(), candidat.longitude(), statut.name()});
+            ids.add(id);
+
+            Map<Long, ServiceRef> services = new HashMap<>();
+            for (String service : candidat.services()) {
+                String cle = TextNormalizer.normalizePhrase(service);
+                ServiceRef ref = dictionnaire.getOrDefault(cle, nouveaux.get(cle));
+                services.putIfAbsent(ref.id(), ref);
+            }
+            List<ServiceRef> tries = new ArrayList<>(services.values());
+            tries.sort(Comparator.comparingLong(ServiceRef::id));
+            List<Long> serviceIds = new ArrayList<>(tries.size());
+            List<String> serviceNoms = new ArrayList<>(tries.size());
+            for (ServiceRef ref : tries) {
+                liens.add(new Object[]{ref.id(), id});
+                serviceIds.add(ref.id());
+                serviceNoms.add(ref.nom());
+            }
+            snapshots.add(new EtablissementSnapshot(id, candidat.nom(), candidat.localisation(),
+                    candidat.description(), candidat.type(), statut, candidat.latitude(), candidat.longitude(),
+                    List.copyOf(serviceIds), List.copyOf(serviceNoms)));
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (!nouveaux.isEmpty()) {
+                List<Object[]> services = new ArrayList<>(nouveaux.size());
+                for (ServiceRef ref : nouveaux.values()) {
+                    services.add(new Object[]{ref.id(), ref.nom()});
+                }
+                jdbcTemplate.batchUpdate(INSERT_SERVICE, services);
+                publicCaches.serviceCree();
+            }
+            jdbcTemplate.batchUpdate(INSERT_ETABLISSEMENT, etablissements);
+            if (!liens.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ETABLISSEMENT_SERVICE, liens);
+            }
+            changementService.enregistrer(ids, ChangementEtablissement.Operation.UPSERT);
+            etablissementIndexer.indexAll(snapshots);
+            publicCaches.etablissementsImportes();
+        });
+        return nouveaux;
+    }
+
+    private static Validation valider(LigneImport ligne, Map<String, ServiceRef> dictionnaire, boolean creerServices) {
+        String nom = ligne.get(LigneImport.NOM);
+        if (nom == null) {
+            return erreur(ligne, "Nom obligatoire");
+        }
+        String adresse = ligne.get(LigneImport.ADRESSE);
+        String localisation = ligne.get(LigneImport.LOCALISATION);
+        if (adresse == null && localisation == null) {
+            return erreur(ligne, "L'adresse ou la localisation est obligatoire");
+        }
+        adresse = adresse != null ? adresse : localisation;
+        localisation = localisation != null ? localisation : adresse;
+        String telephone = ligne.get(LigneImport.TELEPHONE);
+        String email = ligne.get(LigneImport.EMAIL);
+        for (String texte : new String[]{nom, adresse, localisation, telephone, email}) {
+            if (texte != null && texte.length() > MAX_TEXTE) {
+                return erreur(ligne, "Valeur trop longue (" + MAX_TEXTE + " caractères au plus): " + texte.substring(0, 40) + "...");
+            }
+        }
+        if (email != null && !EMAIL.matcher(email).matches()) {
+            return erreur(ligne, "Email invalide: " + email);
+        }
+        String description = ligne.get(LigneImport.DESCRIPTION);
+        if (description != null && description.length() > MAX_DESCRIPTION) {
+            return erreur(ligne, "Description trop longue");
+        }
+
+        String type = ligne.get(LigneImport.TYPE);
+        if (type == null) {
+            return erreur(ligne, "Type d'établissement obligatoire");
+        }
+        Etablissement.TypeEtablissement typeEtablissement = TYPES.get(TextNormalizer.normalizePhrase(type.replace('_', ' ')));
+        if (typeEtablissement == null) {
+            return erreur(ligne, "Type d'établissement invalide: " + type);
+        }
+
+        String latitudeTexte = ligne.get(LigneImport.LATITUDE);
+        String longitudeTexte = ligne.get(LigneImport.LONGITUDE);
+        Double latitude = null;
+        Double longitude = null;
+        if (latitudeTexte != null || longitudeTexte != null) {
+            if (latitudeTexte == null || longitudeTexte == null) {
+                return erreur(ligne, "Latitude et longitude vont ensemble");
+            }
+            try {
+                latitude = Double.parseDouble(latitudeTexte.replace(',', '.'));
+                longitude = Double.parseDouble(longitudeTexte.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                return erreur(ligne, "Coordonnées invalides: " + latitudeTexte + ", " + longitudeTexte);
+            }
+            if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+                return erreur(ligne, "Coordonnées hors limites: " + latitude + ", " + longitude);
+            }
+        }
+
+        Set<String> services = new LinkedHashSet<>();
+        String listeServices = ligne.get(LigneImport.SERVICES);
+        if (listeServices != null) {
+            for (String service : SEPARATEUR_SERVICES.split(listeServices)) {
+                service = service.trim();
+                if (service.isEmpty()) {
+                    continue;
+                }
+                if (!dictionnaire.containsKey(TextNormalizer.normalizePhrase(service))) {
+                    if (!creerServices) {
+                        return erreur(ligne, "Service inconnu: " + service);
+                    }
+                    if (service.length() < 2 || service.length() > 100) {
+                        return erreur(ligne, "Le nom d'un service doit contenir entre 2 et 100 caractères: " + service);
+                    }
+                }
+                services.add(service);
+            }
+        }
+
+        return new Validation(new Candidat(ligne.numero(), nom, adresse, localisation, telephone, email, description,
+                typeEtablissement, latitude, longitude, List.copyOf(services)), ligne.numero(), null);
+    }
+
+    private static Validation erreur(LigneImport ligne, String message) {
+        return new Validation(null, ligne.numero(), message);
+    }
+
+    private SourceImport ouvrir(Path source, Format format) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvSource(Files.newBufferedReader(source, StandardCharsets.UTF_8));
+            case GEOJSON -> new GeoJsonSource(Files.newBufferedReader(source, StandardCharsets.UTF_8), objectMapper);
+        };
+    }
+
+    private Path resoudre(String chemin) {
+        if (importDirectory == null || importDirectory.isBlank()) {
+            throw new RuntimeException("Import depuis le disque désactivé (import.directory)");
+        }
+        Path base = Paths.get(importDirectory).toAbsolutePath().normalize();
+        Path fichier = base.resolve(chemin).normalize();
+        if (!fichier.startsWith(base) || !Files.isRegularFile(fichier)) {
+            throw new RuntimeException("Fichier introuvable: " + chemin);
+        }
+        return fichier;
+    }
+
+    private static Format format(String format, String nomFichier) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return Format.valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Format invalide: " + format);
+            }
+        }
+        String nom = nomFichier == null ? "" : nomFichier.toLowerCase(Locale.ROOT);
+        if (nom.endsWith(".csv")) {
+            return Format.CSV;
+        }
+        if (nom.endsWith(".geojson") || nom.endsWith(".json")) {
+            return Format.GEOJSON;
+        }
+        throw new RuntimeException("Format non reconnu, préciser format=csv ou format=geojson");
+    }
+
+    private static void supprimer(Path fichier) {
+        try {
+            Files.deleteIfExists(fichier);
+        } catch (IOException ignored) {
+        }
+    }
+}
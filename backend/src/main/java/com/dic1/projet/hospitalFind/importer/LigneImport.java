@@ -0,0 +1,56 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import com.dic1.projet.hospitalFind.index.TextNormalizer;
+
+import java.util.Map;
+
+/**
+ * Ligne brute d'un fichier d'import, avant validation : valeurs textuelles indexées
+ * par nom de champ canonique ({@code nom}, {@code type}, {@code latitude}...).
+ */
+public record LigneImport(int numero, Map<String, String> champs) {
+
+    public static final String NOM = "nom";
+    public static final String ADRESSE = "adresse";
+    public static final String LOCALISATION = "localisation";
+    public static final String TELEPHONE = "telephone";
+    public static final String EMAIL = "email";
+    public static final String DESCRIPTION = "description";
+    public static final String TYPE = "type";
+    public static final String LATITUDE = "latitude";
+    public static final String LONGITUDE = "longitude";
+    public static final String SERVICES = "services";
+
+    private static final Map<String, String> ALIAS = Map.ofEntries(
+            Map.entry("nom", NOM), Map.entry("name", NOM),
+            Map.entry("adresse", ADRESSE), Map.entry("address", ADRESSE),
+            Map.entry("localisation", LOCALISATION), Map.entry("ville", LOCALISATION), Map.entry("commune", LOCALISATION),
+            Map.entry("telephone", TELEPHONE), Map.entry("tel", TELEPHONE), Map.entry("phone", TELEPHONE),
+            Map.entry("email", EMAIL), Map.entry("mail", EMAIL), Map.entry("courriel", EMAIL),
+            Map.entry("description", DESCRIPTION),
+            Map.entry("type", TYPE), Map.entry("typeetablissement", TYPE),
+            Map.entry("latitude", LATITUDE), Map.entry("lat", LATITUDE),
+            Map.entry("longitude", LONGITUDE), Map.entry("lon", LONGITUDE), Map.entry("lng", LONGITUDE),
+            Map.entry("services", SERVICES)
+    );
+
+    /**
+     * Nom canonique d'une colonne ou d'une propriété, sans tenir compte de la casse,
+     * des accents ni des séparateurs ; {@code null} si elle n'est pas reconnue.
+     */
+    public static String champ(String nom) {
+        return ALIAS.get(TextNormalizer.normalizePhrase(nom).replace(" ", ""));
+    }
+
+    /**
+     * Valeur du champ sans espaces superflus, ou {@code null} si elle est vide.
+     */
+    public String get(String champ) {
+        String valeur = champs.get(champ);
+        if (valeur == null) {
+            return null;
+        }
+        valeur = valeur.trim();
+        return valeur.isEmpty() ? null : valeur;
+    }
+}
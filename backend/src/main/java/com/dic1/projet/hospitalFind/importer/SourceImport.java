@@ -0,0 +1,15 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lecture en flux d'un fichier d'import, une ligne à la fois.
+ */
+public interface SourceImport extends Closeable {
+
+    /**
+     * La ligne suivante, ou {@code null} à la fin du fichier.
+     */
+    LigneImport suivante() throws IOException;
+}
@@ -0,0 +1,151 @@
+package com.dic1.projet.hospitalFind.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Agrégats de marqueurs pré-calculés pour chaque niveau de zoom de 0 à {@link #MAX_CLUSTER_ZOOM}.
+ * À un zoom donné, la carte est découpée en cases de 64 px (4 x 4 cases par tuile de 256 px) ;
+ * chaque case garde le nombre d'établissements VALIDE et la somme de leurs coordonnées.
+ */
+@Component
+public class ClusterPyramid implements EtablissementIndex {
+
+    public static final int MAX_CLUSTER_ZOOM = 14;
+
+    /** 2^2 cases de 64 px par côté de tuile. */
+    private static final int CELLS_PER_TILE_SHIFT = 2;
+
+    public record Cluster(int count, double latitude, double longitude) {
+    }
+
+    private static final class Bucket {
+        private int count;
+        private double sumLat;
+        private double sumLon;
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Bucket>[] levels = new Map[MAX_CLUSTER_ZOOM + 1];
+
+    public ClusterPyramid() {
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            levels[zoom] = new HashMap<>();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<EtablissementSnapshot> snapshots) {
+        lock.writeLock().lock();
+        try {
+            for (Map<Long, Bucket> level : levels) {
+                level.clear();
+            }
+            for (EtablissementSnapshot snapshot : snapshots) {
+                if (isIndexable(snapshot)) {
+                    add(snapshot.latitude(), snapshot.longitude(), 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(EtablissementSnapshot previous, EtablissementSnapshot current) {
+        boolean wasIndexed = previous != null && isIndexable(previous);
+        boolean isIndexed = current != null && isIndexable(current);
+        if (wasIndexed && isIndexed
+                && previous.latitude().equals(current.latitude())
+                && previous.longitude().equals(current.longitude())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (wasIndexed) {
+                add(previous.latitude(), previous.longitude(), -1);
+            }
+            if (isIndexed) {
+                add(current.latitude(), current.longitude(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Cluster> clusters(double minLat, double maxLat, double minLon, double maxLon, int zoom) {
+        int level = Math.min(Math.max(zoom, 0), MAX_CLUSTER_ZOOM);
+        int gridLevel = level + CELLS_PER_TILE_SHIFT;
+        int fromX = WebMercator.cell(WebMercator.x(minLon), gridLevel);
+        int toX = WebMercator.cell(WebMercator.x(maxLon), gridLevel);
+        int fromY = WebMercator.cell(WebMercator.y(maxLat), gridLevel);
+        int toY = WebMercator.cell(WebMercator.y(minLat), gridLevel);
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Bucket> buckets = levels[level];
+            List<Cluster> clusters = new ArrayList<>();
+            long cellsInView = (long) (toX - fromX + 1) * (toY - fromY + 1);
+
+            if (cellsInView > buckets.size()) {
+                for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+                    int x = (int) (entry.getKey() >>> 32);
+                    int y = (int) (long) entry.getKey();
+                    if (x >= fromX && x <= toX && y >= fromY && y <= toY) {
+                        clusters.add(toCluster(entry.getValue()));
+                    }
+                }
+            } else {
+                for (int x = fromX; x <= toX; x++) {
+                    for (int y = fromY; y <= toY; y++) {
+                        Bucket bucket = buckets.get(key(x, y));
+                        if (bucket != null) {
+                            clusters.add(toCluster(bucket));
+                        }
+                    }
+                }
+            }
+            return clusters;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isIndexable(EtablissementSnapshot snapshot) {
+        return snapshot.isValide() && snapshot.isLocalise();
+    }
+
+    private void add(double lat, double lon, int delta) {
+        double x = WebMercator.x(lon);
+        double y = WebMercator.y(lat);
+        for (int zoom = 0; zoom <= MAX_CLUSTER_ZOOM; zoom++) {
+            int gridLevel = zoom + CELLS_PER_TILE_SHIFT;
+            long key = key(WebMercator.cell(x, gridLevel), WebMercator.cell(y, gridLevel));
+            Map<Long, Bucket> buckets = levels[zoom];
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            bucket.count += delta;
+            bucket.sumLat += delta * lat;
+            bucket.sumLon += delta * lon;
+            if (bucket.count <= 0) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private static Cluster toCluster(Bucket bucket) {
+        return new Cluster(bucket.count, bucket.sumLat / bucket.count, bucket.sumLon / bucket.count);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+}
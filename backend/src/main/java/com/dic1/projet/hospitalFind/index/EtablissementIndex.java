@@ -0,0 +1,17 @@
+package com.dic1.projet.hospitalFind.index;
+
+import java.util.Collection;
+
+/**
+ * Index en mémoire alimenté par {@link EtablissementIndexer}.
+ */
+public interface EtablissementIndex {
+
+    void rebuild(Collection<EtablissementSnapshot> snapshots);
+
+    /**
+     * Applique un changement unitaire. {@code previous} est null pour une création,
+     * {@code current} est null pour une suppression.
+     */
+    void update(EtablissementSnapshot previous, EtablissementSnapshot current);
+}
@@ -0,0 +1,125 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.repository.EtablissementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Point d'entrée unique des index en mémoire : garde la dernière copie de chaque
+ * établissement et propage chaque modification à tous les {@link EtablissementIndex},
+ * une fois la transaction validée.
+ */
+@Component
+public class EtablissementIndexer {
+
+    @Autowired
+    private EtablissementRepository etablissementRepository;
+
+    /** Dans l'ordre de leurs {@code @Order} : les index avant les caches qui en dérivent. */
+    @Autowired
+    private List<EtablissementIndex> indexes;
+
+    private final Map<Long, EtablissementSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<EtablissementSnapshot> loaded = new ArrayList<>();
+        for (Etablissement etablissement : etablissementRepository.findAllWithTuteurAndServices()) {
+            loaded.add(EtablissementSnapshot.from(etablissement));
+        }
+
+        writeLock.lock();
+        try {
+            snapshots.clear();
+            for (EtablissementSnapshot snapshot : loaded) {
+                snapshots.put(snapshot.id(), snapshot);
+            }
+            for (EtablissementIndex index : indexes) {
+                index.rebuild(loaded);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void index(Etablissement etablissement) {
+        EtablissementSnapshot snapshot = EtablissementSnapshot.from(etablissement);
+        AfterCommit.run(() -> apply(snapshot.id(), snapshot));
+    }
+
+    /**
+     * Établissements créés en masse (import), dont les copies sont construites sans
+     * passer par l'entité.
+     */
+    public void indexAll(List<EtablissementSnapshot> created) {
+        AfterCommit.run(() -> {
+            writeLock.lock();
+            try {
+                for (EtablissementSnapshot snapshot : created) {
+                    apply(snapshot.id(), snapshot);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    public void remove(Long etablissementId) {
+        AfterCommit.run(() -> apply(etablissementId, null));
+    }
+
+    /**
+     * Retire un service supprimé de tous les établissements qui le proposaient.
+     */
+    public void removeService(Long serviceId) {
+        AfterCommit.run(() -> {
+            writeLock.lock();
+            try {
+                for (EtablissementSnapshot snapshot : List.copyOf(snapshots.values())) {
+                    if (snapshot.serviceIds().contains(serviceId)) {
+                        apply(snapshot.id(), snapshot.withoutService(serviceId));
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    public EtablissementSnapshot get(Long etablissementId) {
+        return snapshots.get(etablissementId);
+    }
+
+    public Collection<EtablissementSnapshot> getAll() {
+        return snapshots.values();
+    }
+
+    private void apply(Long etablissementId, EtablissementSnapshot current) {
+        writeLock.lock();
+        try {
+            EtablissementSnapshot previous = current == null
+                    ? snapshots.remove(etablissementId)
+                    : snapshots.put(etablissementId, current);
+            if (previous == null && current == null) {
+                return;
+            }
+            for (EtablissementIndex index : indexes) {
+                index.update(previous, current);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
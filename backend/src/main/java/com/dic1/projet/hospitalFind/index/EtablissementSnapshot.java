@@ -0,0 +1,75 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.entity.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Copie immuable d'un établissement, partagée par les index en mémoire.
+ * Elle doit être construite pendant que les services de l'entité sont chargés.
+ */
+public record EtablissementSnapshot(
+        Long id,
+        String nom,
+        String localisation,
+        String description,
+        Etablissement.TypeEtablissement type,
+        Etablissement.Statut statut,
+        Double latitude,
+        Double longitude,
+        List<Long> serviceIds,
+        List<String> serviceNoms
+) {
+
+    public static EtablissementSnapshot from(Etablissement etablissement) {
+        List<Service> services = new ArrayList<>(etablissement.getServices());
+        services.sort(Comparator.comparing(Service::getIdService));
+
+        List<Long> serviceIds = new ArrayList<>(services.size());
+        List<String> serviceNoms = new ArrayList<>(services.size());
+        for (Service service : services) {
+            serviceIds.add(service.getIdService());
+            serviceNoms.add(service.getNom());
+        }
+
+        return new EtablissementSnapshot(
+                etablissement.getIdEtablissement(),
+                etablissement.getNom(),
+                etablissement.getLocalisation(),
+                etablissement.getDescription(),
+                etablissement.getTypeEtablissement(),
+                etablissement.getStatut(),
+                etablissement.getLatitude(),
+                etablissement.getLongitude(),
+                List.copyOf(serviceIds),
+                List.copyOf(serviceNoms)
+        );
+    }
+
+    /**
+     * La même copie sans le service donné, après sa suppression.
+     */
+    public EtablissementSnapshot withoutService(Long serviceId) {
+        int position = serviceIds.indexOf(serviceId);
+        if (position < 0) {
+            return this;
+        }
+        List<Long> ids = new ArrayList<>(serviceIds);
+        List<String> noms = new ArrayList<>(serviceNoms);
+        ids.remove(position);
+        noms.remove(position);
+        return new EtablissementSnapshot(id, nom, localisation, description, type, statut,
+                latitude, longitude, List.copyOf(ids), List.copyOf(noms));
+    }
+
+    public boolean isValide() {
+        return statut == Etablissement.Statut.VALIDE;
+    }
+
+    public boolean isLocalise() {
+        return latitude != null && longitude != null;
+    }
+}
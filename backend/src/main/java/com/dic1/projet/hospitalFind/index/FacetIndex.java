@@ -0,0 +1,233 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filtres à facettes par bitsets : chaque établissement reçoit un numéro de document
+ * dense, et chaque service, type et statut a son {@link BitSet}. Un filtre n'est
+ * qu'une suite d'unions et d'intersections, sans requête SQL.
+ */
+@Component
+public class FacetIndex implements EtablissementIndex {
+
+    /**
+     * Résultat d'un filtrage. Les compteurs d'une facette sont calculés avec tous les
+     * autres filtres mais sans la sélection de cette facette, pour que le panneau
+     * indique combien d'établissements chaque case cochée en plus apporterait.
+     */
+    public record Result(List<Long> ids,
+                         Map<Long, Integer> serviceCounts,
+                         Map<Etablissement.TypeEtablissement, Integer> typeCounts) {
+    }
+
+    public record BoundingBox(double minLat, double maxLat, double minLon, double maxLon) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> documentsById = new HashMap<>();
+    private long[] ids = new long[64];
+    private double[] lats = new double[64];
+    private double[] lons = new double[64];
+    private final BitSet located = new BitSet();
+    private int documentCount;
+    private int[] freeDocuments = new int[16];
+    private int freeCount;
+
+    private final Map<Long, BitSet> byService = new HashMap<>();
+    private final Map<Etablissement.TypeEtablissement, BitSet> byType = new EnumMap<>(Etablissement.TypeEtablissement.class);
+    private final Map<Etablissement.Statut, BitSet> byStatut = new EnumMap<>(Etablissement.Statut.class);
+
+    @Override
+    public void rebuild(Collection<EtablissementSnapshot> snapshots) {
+        lock.writeLock().lock();
+        try {
+            documentsById.clear();
+            ids = new long[64];
+            lats = new double[64];
+            lons = new double[64];
+            located.clear();
+            documentCount = 0;
+            freeCount = 0;
+            byService.clear();
+            byType.clear();
+            byStatut.clear();
+            for (EtablissementSnapshot snapshot : snapshots) {
+                add(snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(EtablissementSnapshot previous, EtablissementSnapshot current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                remove(previous);
+            }
+            if (current != null) {
+                add(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Établissements du statut donné qui proposent au moins un des services demandés
+     * et sont d'un des types demandés (une liste vide ne filtre pas), dans la zone.
+     */
+    public Result filter(Etablissement.Statut statut,
+                         Collection<Long> serviceIds,
+                         Collection<Etablissement.TypeEtablissement> types,
+                         BoundingBox bbox) {
+        lock.readLock().lock();
+        try {
+            BitSet base = copy(byStatut.get(statut));
+            if (bbox != null) {
+                base.and(withinBounds(bbox));
+            }
+
+            BitSet serviceFilter = serviceIds.isEmpty() ? null : union(byService, serviceIds);
+            BitSet typeFilter = types.isEmpty() ? null : union(byType, types);
+
+            BitSet forServiceCounts = copy(base);
+            if (typeFilter != null) {
+                forServiceCounts.and(typeFilter);
+            }
+            BitSet forTypeCounts = copy(base);
+            if (serviceFilter != null) {
+                forTypeCounts.and(serviceFilter);
+            }
+            BitSet matches = copy(forServiceCounts);
+            if (serviceFilter != null) {
+                matches.and(serviceFilter);
+            }
+
+            List<Long> result = new ArrayList<>(matches.cardinality());
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                result.add(ids[doc]);
+            }
+            return new Result(result, counts(byService, forServiceCounts), counts(byType, forTypeCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet withinBounds(BoundingBox bbox) {
+        BitSet inside = new BitSet(documentCount);
+        for (int doc = located.nextSetBit(0); doc >= 0; doc = located.nextSetBit(doc + 1)) {
+            if (lats[doc] >= bbox.minLat() && lats[doc] <= bbox.maxLat()
+                    && lons[doc] >= bbox.minLon() && lons[doc] <= bbox.maxLon()) {
+                inside.set(doc);
+            }
+        }
+        return inside;
+    }
+
+    private void add(EtablissementSnapshot snapshot) {
+        int doc = allocateDocument();
+        documentsById.put(snapshot.id(), doc);
+        ids[doc] = snapshot.id();
+        if (snapshot.isLocalise()) {
+            lats[doc] = snapshot.latitude();
+            lons[doc] = snapshot.longitude();
+            located.set(doc);
+        }
+        for (Long serviceId : snapshot.serviceIds()) {
+            byService.computeIfAbsent(serviceId, id -> new BitSet()).set(doc);
+        }
+        if (snapshot.type() != null) {
+            byType.computeIfAbsent(snapshot.type(), t -> new BitSet()).set(doc);
+        }
+        if (snapshot.statut() != null) {
+            byStatut.computeIfAbsent(snapshot.statut(), s -> new BitSet()).set(doc);
+        }
+    }
+
+    private void remove(EtablissementSnapshot snapshot) {
+        Integer doc = documentsById.remove(snapshot.id());
+        if (doc == null) {
+            return;
+        }
+        located.clear(doc);
+        for (Long serviceId : snapshot.serviceIds()) {
+            clear(byService, serviceId, doc);
+        }
+        if (snapshot.type() != null) {
+            clear(byType, snapshot.type(), doc);
+        }
+        if (snapshot.statut() != null) {
+            clear(byStatut, snapshot.statut(), doc);
+        }
+        if (freeCount == freeDocuments.length) {
+            freeDocuments = Arrays.copyOf(freeDocuments, freeCount * 2);
+        }
+        freeDocuments[freeCount++] = doc;
+    }
+
+    private int allocateDocument() {
+        if (freeCount > 0) {
+            return freeDocuments[--freeCount];
+        }
+        if (documentCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+            lons = Arrays.copyOf(lons, capacity);
+        }
+        return documentCount++;
+    }
+
+    private static <K> void clear(Map<K, BitSet> bitsets, K key, int doc) {
+        BitSet bits = bitsets.get(key);
+        if (bits != null) {
+            bits.clear(doc);
+            if (bits.isEmpty()) {
+                bitsets.remove(key);
+            }
+        }
+    }
+
+    private static <K> BitSet union(Map<K, BitSet> bitsets, Collection<K> keys) {
+        BitSet union = new BitSet();
+        for (K key : keys) {
+            BitSet bits = bitsets.get(key);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private static <K> Map<K, Integer> counts(Map<K, BitSet> bitsets, BitSet filter) {
+        Map<K, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<K, BitSet> entry : bitsets.entrySet()) {
+            BitSet intersection = copy(entry.getValue());
+            intersection.and(filter);
+            int count = intersection.cardinality();
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    private static BitSet copy(BitSet bits) {
+        return bits == null ? new BitSet() : (BitSet) bits.clone();
+    }
+}
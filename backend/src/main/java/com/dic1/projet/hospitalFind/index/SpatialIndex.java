@@ -0,0 +1,329 @@
+package com.dic1.projet.hospitalFind.index;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grille régulière en degrés (cellules de 0,1°, environ 11 km) sur les établissements
+ * VALIDE géolocalisés. Les coordonnées sont rangées dans des tableaux de doubles
+ * indexés par slot ; chaque cellule ne contient que des numéros de slot.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SpatialIndex implements EtablissementIndex {
+
+    public record Neighbor(long id, double distanceKm) {
+    }
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double CELL_DEGREES = 0.1;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[64];
+    private double[] lats = new double[64];
+    private double[] lons = new double[64];
+    private int[] positionsInCell = new int[64];
+    private int slotCount;
+
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE;
+    private int maxCol = Integer.MIN_VALUE;
+
+    private static final class Cell {
+        private int[] slots = new int[4];
+        private int size;
+    }
+
+    @Override
+    public void rebuild(Collection<EtablissementSnapshot> snapshots) {
+        lock.writeLock().lock();
+        try {
+            ids = new long[64];
+            lats = new double[64];
+            lons = new double[64];
+            positionsInCell = new int[64];
+            slotCount = 0;
+            freeCount = 0;
+            slotsById.clear();
+            cells.clear();
+            minRow = Integer.MAX_VALUE;
+            maxRow = Integer.MIN_VALUE;
+            minCol = Integer.MAX_VALUE;
+            maxCol = Integer.MIN_VALUE;
+            for (EtablissementSnapshot snapshot : snapshots) {
+                if (isIndexable(snapshot)) {
+                    insert(snapshot.id(), snapshot.latitude(), snapshot.longitude());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(EtablissementSnapshot previous, EtablissementSnapshot current) {
+        boolean wasIndexed = previous != null && isIndexable(previous);
+        boolean isIndexed = current != null && isIndexable(current);
+        if (wasIndexed && isIndexed
+                && previous.latitude().equals(current.latitude())
+                && previous.longitude().equals(current.longitude())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (wasIndexed) {
+                delete(previous.id());
+            }
+            if (isIndexed) {
+                insert(current.id(), current.latitude(), current.longitude());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Les {@code k} établissements les plus proches à moins de {@code radiusKm},
+     * triés par distance croissante. La recherche parcourt les cellules en anneaux
+     * concentriques et s'arrête dès qu'aucun anneau suivant ne peut faire mieux.
+     */
+    public List<Neighbor> nearest(double lat, double lon, double radiusKm, int k) {
+        lock.readLock().lock();
+        try {
+            if (slotsById.isEmpty() || k <= 0) {
+                return List.of();
+            }
+
+            long[] bestIds = new long[k];
+            double[] bestDistances = new double[k];
+            int found = 0;
+
+            int row = row(lat);
+            int col = col(lon);
+            int maxRing = Math.max(
+                    Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)),
+                    Math.max(Math.abs(col - minCol), Math.abs(col - maxCol)));
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                double lowerBound = ringLowerBoundKm(lat, ring);
+                if (lowerBound > radiusKm) {
+                    break;
+                }
+                if (found == k && lowerBound >= bestDistances[k - 1]) {
+                    break;
+                }
+
+                int fromRow = Math.max(row - ring, minRow);
+                int toRow = Math.min(row + ring, maxRow);
+                for (int r = fromRow; r <= toRow; r++) {
+                    boolean edgeRow = r == row - ring || r == row + ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int c = col - ring; c <= col + ring; c += step) {
+                        if (c < minCol || c > maxCol) {
+                            continue;
+                        }
+                        Cell cell = cells.get(key(r, c));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < cell.size; i++) {
+                            int slot = cell.slots[i];
+                            double distance = haversineKm(lat, lon, lats[slot], lons[slot]);
+                            if (distance > radiusKm || (found == k && distance >= bestDistances[k - 1])) {
+                                continue;
+                            }
+                            int position = found < k ? found++ : k - 1;
+                            while (position > 0 && bestDistances[position - 1] > distance) {
+                                bestDistances[position] = bestDistances[position - 1];
+                                bestIds[position] = bestIds[position - 1];
+                                position--;
+                            }
+                            bestDistances[position] = distance;
+                            bestIds[position] = ids[slot];
+                        }
+                    }
+                }
+            }
+
+            List<Neighbor> neighbors = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                neighbors.add(new Neighbor(bestIds[i], bestDistances[i]));
+            }
+            return neighbors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Identifiants des établissements situés dans le rectangle donné (bornes incluses).
+     */
+    public List<Long> withinBounds(double minLat, double maxLat, double minLon, double maxLon) {
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>();
+            if (slotsById.isEmpty()) {
+                return result;
+            }
+            int fromRow = Math.max(row(minLat), minRow);
+            int toRow = Math.min(row(maxLat), maxRow);
+            int fromCol = Math.max(col(minLon), minCol);
+            int toCol = Math.min(col(maxLon), maxCol);
+            if (fromRow > toRow || fromCol > toCol) {
+                return result;
+            }
+
+            long cellsInBounds = (long) (toRow - fromRow + 1) * (toCol - fromCol + 1);
+            if (cellsInBounds > cells.size()) {
+                for (Cell cell : cells.values()) {
+                    collectWithin(cell, minLat, maxLat, minLon, maxLon, result);
+                }
+            } else {
+                for (int r = fromRow; r <= toRow; r++) {
+                    for (int c = fromCol; c <= toCol; c++) {
+                        Cell cell = cells.get(key(r, c));
+                        if (cell != null) {
+                            collectWithin(cell, minLat, maxLat, minLon, maxLon, result);
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectWithin(Cell cell, double minLat, double maxLat, double minLon, double maxLon, List<Long> result) {
+        for (int i = 0; i < cell.size; i++) {
+            int slot = cell.slots[i];
+            if (lats[slot] >= minLat && lats[slot] <= maxLat && lons[slot] >= minLon && lons[slot] <= maxLon) {
+                result.add(ids[slot]);
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static boolean isIndexable(EtablissementSnapshot snapshot) {
+        return snapshot.isValide() && snapshot.isLocalise();
+    }
+
+    /**
+     * Distance minimale entre le point de requête et une cellule de l'anneau {@code ring}
+     * ou au-delà : on retire une cellule entière de marge car le point peut se trouver
+     * n'importe où dans sa propre cellule.
+     */
+    private static double ringLowerBoundKm(double lat, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double farthestLat = Math.min(89.9, Math.abs(lat) + (ring + 1) * CELL_DEGREES);
+        double cellKm = CELL_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLat));
+        return (ring - 1) * cellKm;
+    }
+
+    private void insert(long id, double lat, double lon) {
+        int slot = allocateSlot();
+        ids[slot] = id;
+        lats[slot] = lat;
+        lons[slot] = lon;
+        slotsById.put(id, slot);
+
+        int r = row(lat);
+        int c = col(lon);
+        Cell cell = cells.computeIfAbsent(key(r, c), k -> new Cell());
+        if (cell.size == cell.slots.length) {
+            cell.slots = Arrays.copyOf(cell.slots, cell.size * 2);
+        }
+        positionsInCell[slot] = cell.size;
+        cell.slots[cell.size++] = slot;
+
+        minRow = Math.min(minRow, r);
+        maxRow = Math.max(maxRow, r);
+        minCol = Math.min(minCol, c);
+        maxCol = Math.max(maxCol, c);
+    }
+
+    private void delete(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        long cellKey = key(row(lats[slot]), col(lons[slot]));
+        Cell cell = cells.get(cellKey);
+        int position = positionsInCell[slot];
+        int last = cell.slots[--cell.size];
+        cell.slots[position] = last;
+        positionsInCell[last] = position;
+        if (cell.size == 0) {
+            cells.remove(cellKey);
+        }
+
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+            lons = Arrays.copyOf(lons, capacity);
+            positionsInCell = Arrays.copyOf(positionsInCell, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static int row(double lat) {
+        return (int) Math.floor((lat + 90.0) / CELL_DEGREES);
+    }
+
+    private static int col(double lon) {
+        return (int) Math.floor((lon + 180.0) / CELL_DEGREES);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
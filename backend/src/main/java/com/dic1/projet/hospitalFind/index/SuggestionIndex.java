@@ -0,0 +1,305 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.NoteEtablissement;
+import com.dic1.projet.hospitalFind.repository.NoteEtablissementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Autocomplétion sur les noms d'établissements, les localisations et les services.
+ * <p>
+ * Les suggestions sont compilées dans un arbre radix immuable dont chaque nœud garde
+ * déjà ses {@link #MAX_SUGGESTIONS} meilleures suggestions : une requête ne fait que
+ * descendre le préfixe. Chaque mot d'un libellé est aussi un point d'entrée, pour que
+ * "princ" propose "Hôpital Principal". Les modifications marquent l'arbre comme périmé
+ * et il est recompilé en tâche de fond.
+ */
+@Component
+public class SuggestionIndex implements EtablissementIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    public enum Kind {
+        ETABLISSEMENT, LOCALISATION, SERVICE
+    }
+
+    public record Suggestion(String label, Kind kind, Long etablissementId, double weight) {
+    }
+
+    /** Note moyenne supposée tant qu'un établissement a peu d'avis. */
+    private static final double PRIOR_NOTE = 3.0;
+    private static final double PRIOR_WEIGHT = 5.0;
+
+    private static final Comparator<Suggestion> BY_WEIGHT =
+            Comparator.comparingDouble(Suggestion::weight).reversed().thenComparing(Suggestion::label);
+
+    @Autowired
+    private NoteEtablissementRepository noteEtablissementRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, EtablissementSnapshot> visibles = new HashMap<>();
+    private final Map<Long, long[]> notes = new HashMap<>();
+
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private volatile Trie trie = new Trie(new Node(new char[0], new String[0], new Node[0], new int[0]), new Suggestion[0]);
+
+    /**
+     * Arbre compilé ; les nœuds ne stockent que des rangs dans {@code ranked},
+     * qui est trié par poids décroissant.
+     */
+    private record Trie(Node root, Suggestion[] ranked) {
+    }
+
+    private static final class Node {
+        private final char[] firstChars;
+        private final String[] edges;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(char[] firstChars, String[] edges, Node[] children, int[] top) {
+            this.firstChars = firstChars;
+            this.edges = edges;
+            this.children = children;
+            this.top = top;
+        }
+    }
+
+    private record Entry(String key, int rank) {
+    }
+
+    @Override
+    public void rebuild(Collection<EtablissementSnapshot> snapshots) {
+        Map<Long, long[]> loadedNotes = new HashMap<>();
+        for (NoteEtablissement note : noteEtablissementRepository.findAll()) {
+            loadedNotes.put(note.getIdEtablissement(),
+                    new long[]{note.getStatistiques().getNombreAvis(), note.getStatistiques().getSommeNotes()});
+        }
+
+        lock.lock();
+        try {
+            visibles.clear();
+            for (EtablissementSnapshot snapshot : snapshots) {
+                if (snapshot.isValide()) {
+                    visibles.put(snapshot.id(), snapshot);
+                }
+            }
+            notes.clear();
+            notes.putAll(loadedNotes);
+        } finally {
+            lock.unlock();
+        }
+        stale.set(false);
+        trie = compile();
+    }
+
+    @Override
+    public void update(EtablissementSnapshot previous, EtablissementSnapshot current) {
+        lock.lock();
+        try {
+            if (previous != null) {
+                visibles.remove(previous.id());
+            }
+            if (current != null && current.isValide()) {
+                visibles.put(current.id(), current);
+            }
+        } finally {
+            lock.unlock();
+        }
+        stale.set(true);
+    }
+
+    /**
+     * Ajoute ({@code countDelta} positif) ou retire des avis dans le poids d'un établissement.
+     */
+    public void adjustNotes(Long etablissementId, int countDelta, int noteDelta) {
+        lock.lock();
+        try {
+            long[] stats = notes.computeIfAbsent(etablissementId, id -> new long[2]);
+            stats[0] += countDelta;
+            stats[1] += noteDelta;
+            if (stats[0] <= 0) {
+                notes.remove(etablissementId);
+            }
+        } finally {
+            lock.unlock();
+        }
+        stale.set(true);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = TextNormalizer.normalizePhrase(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Trie current = trie;
+        Node node = current.root();
+        int position = 0;
+        while (position < key.length()) {
+            int child = Arrays.binarySearch(node.firstChars, key.charAt(position));
+            if (child < 0) {
+                return List.of();
+            }
+            String edge = node.edges[child];
+            int common = Math.min(edge.length(), key.length() - position);
+            if (!key.regionMatches(position, edge, 0, common)) {
+                return List.of();
+            }
+            position += common;
+            node = node.children[child];
+        }
+        int size = Math.min(limit, node.top.length);
+        List<Suggestion> suggestions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            suggestions.add(current.ranked()[node.top[i]]);
+        }
+        return suggestions;
+    }
+
+    @Scheduled(fixedDelayString = "${suggestions.refresh-delay-ms:2000}")
+    public void refresh() {
+        if (stale.getAndSet(false)) {
+            trie = compile();
+        }
+    }
+
+    private Trie compile() {
+        List<Suggestion> suggestions = new ArrayList<>();
+        lock.lock();
+        try {
+            Map<String, Suggestion> localisations = new HashMap<>();
+            Map<String, Suggestion> services = new HashMap<>();
+            for (EtablissementSnapshot snapshot : visibles.values()) {
+                double weight = weight(notes.get(snapshot.id()));
+                suggestions.add(new Suggestion(snapshot.nom(), Kind.ETABLISSEMENT, snapshot.id(), weight));
+                accumulate(localisations, snapshot.localisation(), Kind.LOCALISATION, weight);
+                for (String service : snapshot.serviceNoms()) {
+                    accumulate(services, service, Kind.SERVICE, weight);
+                }
+            }
+            suggestions.addAll(localisations.values());
+            suggestions.addAll(services.values());
+        } finally {
+            lock.unlock();
+        }
+
+        suggestions.sort(BY_WEIGHT);
+        List<Entry> entries = new ArrayList<>();
+        for (int rank = 0; rank < suggestions.size(); rank++) {
+            addEntries(entries, suggestions.get(rank).label(), rank);
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+        return new Trie(build(entries, 0, entries.size(), 0), suggestions.toArray(new Suggestion[0]));
+    }
+
+    /**
+     * Poids d'un établissement : 1 sans avis, puis croît avec le nombre d'avis et
+     * avec une moyenne lissée vers {@link #PRIOR_NOTE} quand les avis sont rares.
+     */
+    private static double weight(long[] stats) {
+        if (stats == null || stats[0] <= 0) {
+            return 1.0;
+        }
+        double smoothed = (stats[1] + PRIOR_NOTE * PRIOR_WEIGHT) / (stats[0] + PRIOR_WEIGHT);
+        return 1.0 + Math.log1p(stats[0]) * smoothed / 5.0;
+    }
+
+    private static void accumulate(Map<String, Suggestion> byKey, String label, Kind kind, double weight) {
+        String key = TextNormalizer.normalizePhrase(label);
+        if (key.isEmpty()) {
+            return;
+        }
+        byKey.merge(key, new Suggestion(label, kind, null, weight),
+                (a, b) -> new Suggestion(a.label(), kind, null, a.weight() + b.weight()));
+    }
+
+    private static void addEntries(List<Entry> entries, String label, int rank) {
+        String key = TextNormalizer.normalizePhrase(label);
+        if (key.isEmpty()) {
+            return;
+        }
+        entries.add(new Entry(key, rank));
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            entries.add(new Entry(key.substring(i + 1), rank));
+        }
+    }
+
+    /**
+     * Construit le sous-arbre des entrées [from, to), toutes égales sur leurs
+     * {@code depth} premiers caractères.
+     */
+    private static Node build(List<Entry> entries, int from, int to, int depth) {
+        int start = from;
+        while (start < to && entries.get(start).key().length() == depth) {
+            start++;
+        }
+        int[] candidates = new int[start - from];
+        for (int i = from; i < start; i++) {
+            candidates[i - from] = entries.get(i).rank();
+        }
+        int candidateCount = candidates.length;
+
+        List<Character> firstCharList = new ArrayList<>();
+        List<String> edgeList = new ArrayList<>();
+        List<Node> childList = new ArrayList<>();
+        int groupStart = start;
+        while (groupStart < to) {
+            char first = entries.get(groupStart).key().charAt(depth);
+            int groupEnd = groupStart + 1;
+            while (groupEnd < to && entries.get(groupEnd).key().charAt(depth) == first) {
+                groupEnd++;
+            }
+            String firstKey = entries.get(groupStart).key();
+            String lastKey = entries.get(groupEnd - 1).key();
+            int common = depth;
+            int maxCommon = Math.min(firstKey.length(), lastKey.length());
+            while (common < maxCommon && firstKey.charAt(common) == lastKey.charAt(common)) {
+                common++;
+            }
+            Node child = build(entries, groupStart, groupEnd, common);
+            firstCharList.add(first);
+            edgeList.add(firstKey.substring(depth, common));
+            childList.add(child);
+            if (candidateCount + child.top.length > candidates.length) {
+                candidates = Arrays.copyOf(candidates, Math.max(candidates.length * 2, candidateCount + child.top.length));
+            }
+            System.arraycopy(child.top, 0, candidates, candidateCount, child.top.length);
+            candidateCount += child.top.length;
+            groupStart = groupEnd;
+        }
+
+        char[] firstChars = new char[firstCharList.size()];
+        for (int i = 0; i < firstChars.length; i++) {
+            firstChars[i] = firstCharList.get(i);
+        }
+        return new Node(firstChars, edgeList.toArray(new String[0]), childList.toArray(new Node[0]),
+                top(candidates, candidateCount));
+    }
+
+    /**
+     * Les meilleures suggestions distinctes : une même suggestion peut remonter
+     * par plusieurs mots de son libellé.
+     */
+    private static int[] top(int[] ranks, int count) {
+        Arrays.sort(ranks, 0, count);
+        int[] top = new int[Math.min(MAX_SUGGESTIONS, count)];
+        int size = 0;
+        for (int i = 0; i < count && size < top.length; i++) {
+            if (size == 0 || top[size - 1] != ranks[i]) {
+                top[size++] = ranks[i];
+            }
+        }
+        return size == top.length ? top : Arrays.copyOf(top, size);
+    }
+}
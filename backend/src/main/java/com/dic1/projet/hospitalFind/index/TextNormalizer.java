@@ -0,0 +1,51 @@
+package com.dic1.projet.hospitalFind.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation commune aux index texte : minuscules, accents retirés
+ * ("Hôpital de Thiès" devient "hopital de thies") et découpage en mots.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private TextNormalizer() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Texte normalisé dont les mots sont séparés par une seule espace, sans filtrage
+     * de longueur : sert aux préfixes saisis lettre par lettre.
+     */
+    public static String normalizePhrase(String text) {
+        return SEPARATORS.matcher(fold(text)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Mots normalisés d'au moins deux caractères, dans l'ordre du texte.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (token.length() >= 2) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,291 @@
+package com.dic1.projet.hospitalFind.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé sur le nom, la localisation, la description et les services des
+ * établissements VALIDE, classé par BM25 avec des poids par champ.
+ * Chaque mot de la requête peut correspondre exactement, comme préfixe, ou à une faute
+ * de frappe près (retrouvée grâce à un dictionnaire des mots privés d'une lettre).
+ */
+@Component
+public class TextSearchIndex implements EtablissementIndex {
+
+    public record Hit(long id, double score) {
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float BOOST_NOM = 3.0f;
+    private static final float BOOST_SERVICE = 1.5f;
+    private static final float BOOST_LOCALISATION = 1.0f;
+    private static final float BOOST_DESCRIPTION = 0.5f;
+
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double FUZZY_WEIGHT = 0.6;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Mot -> (établissement -> fréquence pondérée par champ). */
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    /** Mot privé d'une lettre -> mots du dictionnaire qui le produisent. */
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private double totalLength;
+
+    @Override
+    public void rebuild(Collection<EtablissementSnapshot> snapshots) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            deletions.clear();
+            documentLengths.clear();
+            totalLength = 0;
+            for (EtablissementSnapshot snapshot : snapshots) {
+                if (snapshot.isValide()) {
+                    addDocument(snapshot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(EtablissementSnapshot previous, EtablissementSnapshot current) {
+        boolean wasIndexed = previous != null && previous.isValide();
+        boolean isIndexed = current != null && current.isValide();
+        if (wasIndexed && isIndexed && sameText(previous, current)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (wasIndexed) {
+                removeDocument(previous);
+            }
+            if (isIndexed) {
+                addDocument(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = totalLength / documentCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Double> expansion : expand(token).entrySet()) {
+                    Map<Long, Float> documents = postings.get(expansion.getKey());
+                    double idf = Math.log(1 + (documentCount - documents.size() + 0.5) / (documents.size() + 0.5));
+                    for (Map.Entry<Long, Float> posting : documents.entrySet()) {
+                        double tf = posting.getValue();
+                        double norm = K1 * (1 - B + B * documentLengths.get(posting.getKey()) / averageLength);
+                        double score = expansion.getValue() * idf * tf * (K1 + 1) / (tf + norm);
+                        tokenScores.merge(posting.getKey(), score, Math::max);
+                    }
+                }
+                tokenScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+            hits.sort((a, b) -> Double.compare(b.score(), a.score()));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mots du dictionnaire retenus pour un mot de la requête, avec leur poids :
+     * correspondance exacte, puis préfixe, puis une faute de frappe.
+     */
+    private Map<String, Double> expand(String token) {
+        Map<String, Double> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(token)) {
+            expansions.put(token, 1.0);
+        }
+
+        int prefixCount = 0;
+        for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+            if (prefixCount++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expansions.putIfAbsent(term, PREFIX_WEIGHT);
+        }
+
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            Set<String> candidates = new HashSet<>(deletions.getOrDefault(token, Set.of()));
+            for (String variant : deletionsOf(token)) {
+                if (postings.containsKey(variant)) {
+                    candidates.add(variant);
+                }
+                candidates.addAll(deletions.getOrDefault(variant, Set.of()));
+            }
+            for (String candidate : candidates) {
+                if (isOneEditAway(token, candidate)) {
+                    expansions.putIfAbsent(candidate, FUZZY_WEIGHT);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private void addDocument(EtablissementSnapshot snapshot) {
+        Map<String, Float> frequencies = termFrequencies(snapshot);
+        float length = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            length += entry.getValue();
+            Map<Long, Float> documents = postings.get(entry.getKey());
+            if (documents == null) {
+                documents = new HashMap<>();
+                postings.put(entry.getKey(), documents);
+                registerDeletions(entry.getKey());
+            }
+            documents.put(snapshot.id(), entry.getValue());
+        }
+        documentLengths.put(snapshot.id(), length);
+        totalLength += length;
+    }
+
+    private void removeDocument(EtablissementSnapshot snapshot) {
+        Float length = documentLengths.remove(snapshot.id());
+        if (length == null) {
+            return;
+        }
+        totalLength -= length;
+        for (String term : termFrequencies(snapshot).keySet()) {
+            Map<Long, Float> documents = postings.get(term);
+            if (documents == null) {
+                continue;
+            }
+            documents.remove(snapshot.id());
+            if (documents.isEmpty()) {
+                postings.remove(term);
+                unregisterDeletions(term);
+            }
+        }
+    }
+
+    private static Map<String, Float> termFrequencies(EtablissementSnapshot snapshot) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, snapshot.nom(), BOOST_NOM);
+        addField(frequencies, snapshot.localisation(), BOOST_LOCALISATION);
+        addField(frequencies, snapshot.description(), BOOST_DESCRIPTION);
+        for (String service : snapshot.serviceNoms()) {
+            addField(frequencies, service, BOOST_SERVICE);
+        }
+        return frequencies;
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float boost) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            frequencies.merge(token, boost, Float::sum);
+        }
+    }
+
+    private void registerDeletions(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return;
+        }
+        for (String variant : deletionsOf(term)) {
+            deletions.computeIfAbsent(variant, v -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void unregisterDeletions(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return;
+        }
+        for (String variant : deletionsOf(term)) {
+            Set<String> terms = deletions.get(variant);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    deletions.remove(variant);
+                }
+            }
+        }
+    }
+
+    private static Set<String> deletionsOf(String term) {
+        Set<String> variants = new HashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * Vrai si les deux mots diffèrent d'une insertion, suppression, substitution
+     * ou inversion de deux lettres voisines.
+     */
+    static boolean isOneEditAway(String a, String b) {
+        if (a.equals(b)) {
+            return true;
+        }
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        if (lengthDifference != 0) {
+            String longer = lengthDifference > 0 ? a : b;
+            String shorter = lengthDifference > 0 ? b : a;
+            int i = 0;
+            while (i < shorter.length() && longer.charAt(i) == shorter.charAt(i)) {
+                i++;
+            }
+            return longer.substring(i + 1).equals(shorter.substring(i));
+        }
+        int first = 0;
+        while (a.charAt(first) == b.charAt(first)) {
+            first++;
+        }
+        if (a.substring(first + 1).equals(b.substring(first + 1))) {
+            return true;
+        }
+        return first + 1 < a.length()
+                && a.charAt(first) == b.charAt(first + 1)
+                && a.charAt(first + 1) == b.charAt(first)
+                && a.substring(first + 2).equals(b.substring(first + 2));
+    }
+
+    private static boolean sameText(EtablissementSnapshot a, EtablissementSnapshot b) {
+        return Objects.equals(a.nom(), b.nom())
+                && Objects.equals(a.localisation(), b.localisation())
+                && Objects.equals(a.description(), b.description())
+                && Objects.equals(a.serviceNoms(), b.serviceNoms());
+    }
+}
@@ -0,0 +1,141 @@
+package com.dic1.projet.hospitalFind.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache LRU des tuiles vectorielles déjà encodées, borné en octets.
+ * Une modification d'établissement n'invalide que les tuiles qui contiennent
+ * son ancienne ou sa nouvelle position, à chaque niveau de zoom.
+ * <p>
+ * Mis à jour après {@link SpatialIndex} : une tuile calculée sur l'ancienne grille
+ * doit l'avoir été avant l'incrément de {@link #stamp}, sans quoi elle serait
+ * mise en cache sous le nouveau.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class TileCache implements EtablissementIndex {
+
+    public static final int MAX_TILE_ZOOM = 18;
+
+    public record CachedTile(byte[] data, String etag) {
+    }
+
+    @Value("${tiles.cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LinkedHashMap<Long, CachedTile> tiles = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long currentBytes;
+
+    /**
+     * Incrémenté à chaque invalidation : une tuile calculée avant une modification
+     * ne doit pas être mise en cache après celle-ci.
+     */
+    private long stamp;
+
+    @Override
+    public void rebuild(Collection<EtablissementSnapshot> snapshots) {
+        lock.lock();
+        try {
+            tiles.clear();
+            currentBytes = 0;
+            stamp++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void update(EtablissementSnapshot previous, EtablissementSnapshot current) {
+        boolean wasVisible = previous != null && previous.isValide() && previous.isLocalise();
+        boolean isVisible = current != null && current.isValide() && current.isLocalise();
+        if (!wasVisible && !isVisible) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            stamp++;
+            if (wasVisible) {
+                invalidate(previous.latitude(), previous.longitude());
+            }
+            if (isVisible) {
+                invalidate(current.latitude(), current.longitude());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CachedTile get(int z, int x, int y) {
+        lock.lock();
+        try {
+            return tiles.get(key(z, x, y));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long stamp() {
+        lock.lock();
+        try {
+            return stamp;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Met la tuile en cache, sauf si une invalidation a eu lieu depuis {@code computedAt}.
+     */
+    public void put(int z, int x, int y, CachedTile tile, long computedAt) {
+        if (tile.data().length > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (computedAt != stamp) {
+                return;
+            }
+            CachedTile replaced = tiles.put(key(z, x, y), tile);
+            if (replaced != null) {
+                currentBytes -= replaced.data().length;
+            }
+            currentBytes += tile.data().length;
+
+            Iterator<Map.Entry<Long, CachedTile>> eldest = tiles.entrySet().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                currentBytes -= eldest.next().getValue().data().length;
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invalidate(double lat, double lon) {
+        double x = WebMercator.x(lon);
+        double y = WebMercator.y(lat);
+        for (int z = 0; z <= MAX_TILE_ZOOM; z++) {
+            CachedTile removed = tiles.remove(key(z, WebMercator.cell(x, z), WebMercator.cell(y, z)));
+            if (removed != null) {
+                currentBytes -= removed.data().length;
+            }
+        }
+    }
+
+    private static long key(int z, int x, int y) {
+        return ((long) z << 48) | ((long) x << 24) | y;
+    }
+}
@@ -0,0 +1,152 @@
+package com.dic1.projet.hospitalFind.index;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Encodeur Mapbox Vector Tile (spécification 2.1) limité aux couches de points,
+ * écrit directement en protobuf pour éviter une dépendance de plus.
+ */
+public class VectorTileEncoder {
+
+    public static final int EXTENT = 4096;
+
+    private static final int GEOM_TYPE_POINT = 1;
+    private static final int CMD_MOVE_TO = 1;
+
+    private final String layerName;
+    private final List<Feature> features = new ArrayList<>();
+    private final Map<String, Integer> keys = new LinkedHashMap<>();
+    private final Map<Object, Integer> values = new LinkedHashMap<>();
+
+    private record Feature(long id, int x, int y, int[] tags) {
+    }
+
+    public VectorTileEncoder(String layerName) {
+        this.layerName = layerName;
+    }
+
+    /**
+     * Ajoute un point exprimé en coordonnées de tuile (0 à {@link #EXTENT}).
+     * Les attributs null sont ignorés ; les valeurs doivent être des String ou des Long.
+     */
+    public void addPoint(long id, int x, int y, Map<String, Object> attributes) {
+        Map<String, Object> present = new TreeMap<>();
+        attributes.forEach((key, value) -> {
+            if (value != null) {
+                present.put(key, value);
+            }
+        });
+        int[] tags = new int[present.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, Object> attribute : present.entrySet()) {
+            tags[i++] = keys.computeIfAbsent(attribute.getKey(), k -> keys.size());
+            tags[i++] = values.computeIfAbsent(attribute.getValue(), v -> values.size());
+        }
+        features.add(new Feature(id, x, y, tags));
+    }
+
+    public boolean isEmpty() {
+        return features.isEmpty();
+    }
+
+    public byte[] encode() {
+        if (features.isEmpty()) {
+            return new byte[0];
+        }
+
+        ProtoWriter layer = new ProtoWriter();
+        layer.writeUInt32(15, 2);
+        layer.writeString(1, layerName);
+        for (Feature feature : features) {
+            ProtoWriter encoded = new ProtoWriter();
+            encoded.writeUInt64(1, feature.id());
+            encoded.writePackedUInt32(2, feature.tags());
+            encoded.writeUInt32(3, GEOM_TYPE_POINT);
+            encoded.writePackedUInt32(4, new int[]{
+                    (CMD_MOVE_TO & 0x7) | (1 << 3),
+                    zigZag(feature.x()),
+                    zigZag(feature.y())
+            });
+            layer.writeMessage(2, encoded);
+        }
+        for (String key : keys.keySet()) {
+            layer.writeString(3, key);
+        }
+        for (Object value : values.keySet()) {
+            ProtoWriter encoded = new ProtoWriter();
+            if (value instanceof Long number) {
+                encoded.writeUInt64(5, number);
+            } else {
+                encoded.writeString(1, value.toString());
+            }
+            layer.writeMessage(4, encoded);
+        }
+        layer.writeUInt32(5, EXTENT);
+
+        ProtoWriter tile = new ProtoWriter();
+        tile.writeMessage(3, layer);
+        return tile.toByteArray();
+    }
+
+    private static int zigZag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    private static final class ProtoWriter {
+
+        private static final int WIRE_VARINT = 0;
+        private static final int WIRE_LENGTH_DELIMITED = 2;
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeUInt32(int field, int value) {
+            writeVarint(((long) field << 3) | WIRE_VARINT);
+            writeVarint(value & 0xffffffffL);
+        }
+
+        void writeUInt64(int field, long value) {
+            writeVarint(((long) field << 3) | WIRE_VARINT);
+            writeVarint(value);
+        }
+
+        void writeString(int field, String value) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeMessage(int field, ProtoWriter message) {
+            writeBytes(field, message.toByteArray());
+        }
+
+        void writePackedUInt32(int field, int[] values) {
+            ProtoWriter packed = new ProtoWriter();
+            for (int value : values) {
+                packed.writeVarint(value & 0xffffffffL);
+            }
+            writeBytes(field, packed.toByteArray());
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        private void writeBytes(int field, byte[] bytes) {
+            writeVarint(((long) field << 3) | WIRE_LENGTH_DELIMITED);
+            writeVarint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                out.write((int) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
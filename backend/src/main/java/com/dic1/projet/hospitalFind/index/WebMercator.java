@@ -0,0 +1,40 @@
+package com.dic1.projet.hospitalFind.index;
+
+/**
+ * Projection Web Mercator normalisée : x et y sont dans [0, 1), origine en haut à gauche,
+ * comme les tuiles des fonds de carte.
+ */
+public final class WebMercator {
+
+    public static final double MAX_LATITUDE = 85.05112878;
+
+    private WebMercator() {
+    }
+
+    public static double x(double lon) {
+        double x = (lon + 180.0) / 360.0;
+        return Math.min(Math.max(x, 0.0), Math.nextDown(1.0));
+    }
+
+    public static double y(double lat) {
+        double clamped = Math.min(Math.max(lat, -MAX_LATITUDE), MAX_LATITUDE);
+        double sin = Math.sin(Math.toRadians(clamped));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return Math.min(Math.max(y, 0.0), Math.nextDown(1.0));
+    }
+
+    public static double lon(double x) {
+        return x * 360.0 - 180.0;
+    }
+
+    public static double lat(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+
+    /**
+     * Numéro de colonne (ou de ligne) dans une grille de {@code 2^level} cases par côté.
+     */
+    public static int cell(double normalized, int level) {
+        return (int) (normalized * (1L << level));
+    }
+}
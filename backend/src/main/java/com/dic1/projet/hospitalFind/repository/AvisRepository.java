@@ -1,11 +1,13 @@
 package com.dic1.projet.hospitalFind.repository;
 
 import com.dic1.projet.hospitalFind.entity.Avis;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -31,4 +33,60 @@ public interface AvisRepository extends JpaRepository<Avis, Long> {
 
     @Query("SELECT a FROM Avis a LEFT JOIN FETCH a.utilisateur WHERE a.utilisateur.idUtilisateur = :utilisateurId")
     List<Avis> findByUtilisateur_IdUtilisateur(@Param("utilisateurId") Long utilisateurId);
-}
\ No newline at end of file
+
+
+    @Query("SELECT a.etablissement.idEtablissement, s.idService, a.note, COUNT(a) FROM Avis a " +
+            "LEFT JOIN a.service s " +
+            "WHERE a.note IS NOT NULL " +
+            "GROUP BY a.etablissement.idEtablissement, s.idService, a.note")
+    List<Object[]> countByEtablissementServiceAndNote();
+
+
+    // Pages d'avis par curseur (date_creation, id_avis) : chaque requête suit un index de AVIS.
+
+    @Query("SELECT a FROM Avis a LEFT JOIN FETCH a.utilisateur " +
+            "WHERE a.etablissement.idEtablissement = :etablissementId " +
+            "ORDER BY a.dateCreation DESC, a.idAvis DESC")
+    List<Avis> findNewestPage(@Param("etablissementId") Long etablissementId, Pageable pageable);
+
+    @Query("SELECT a FROM Avis a LEFT JOIN FETCH a.utilisateur " +
+            "WHERE a.etablissement.idEtablissement = :etablissementId " +
+            "AND (a.dateCreation < :dateCreation OR (a.dateCreation = :dateCreation AND a.idAvis < :idAvis)) " +
+            "ORDER BY a.dateCreation DESC, a.idAvis DESC")
+    List<Avis> findNewestPageAfter(@Param("etablissementId") Long etablissementId,
+                                   @Param("dateCreation") LocalDateTime dateCreation,
+                                   @Param("idAvis") Long idAvis,
+                                   Pageable pageable);
+
+    @Query("SELECT a FROM Avis a LEFT JOIN FETCH a.utilisateur " +
+            "WHERE a.etablissement.idEtablissement = :etablissementId AND a.note IS NOT NULL " +
+            "ORDER BY a.note DESC, a.dateCreation DESC, a.idAvis DESC")
+    List<Avis> findBestPage(@Param("etablissementId") Long etablissementId, Pageable pageable);
+
+    @Query("SELECT a FROM Avis a LEFT JOIN FETCH a.utilisateur " +
+            "WHERE a.etablissement.idEtablissement = :etablissementId AND a.note IS NOT NULL " +
+            "AND (a.note < :note OR (a.note = :note AND (a.dateCreation < :dateCreation " +
+            "OR (a.dateCreation = :dateCreation AND a.idAvis < :idAvis)))) " +
+            "ORDER BY a.note DESC, a.dateCreation DESC, a.idAvis DESC")
+    List<Avis> findBestPageAfter(@Param("etablissementId") Long etablissementId,
+                                 @Param("note") Integer note,
+                                 @Param("dateCreation") LocalDateTime dateCreation,
+                                 @Param("idAvis") Long idAvis,
+                                 Pageable pageable);
+
+    @Query("SELECT a FROM Avis a LEFT JOIN FETCH a.utilisateur " +
+            "WHERE a.etablissement.idEtablissement = :etablissementId AND a.note IS NOT NULL " +
+            "ORDER BY a.note ASC, a.dateCreation DESC, a.idAvis DESC")
+    List<Avis> findWorstPage(@Param("etablissementId") Long etablissementId, Pageable pageable);
+
+    @Query("SELECT a FROM Avis a LEFT JOIN FETCH a.utilisateur " +
+            "WHERE a.etablissement.idEtablissement = :etablissementId AND a.note IS NOT NULL " +
+            "AND (a.note > :note OR (a.note = :note AND (a.dateCreation < :dateCreation " +
+            "OR (a.dateCreation = :dateCreation AND a.idAvis < :idAvis)))) " +
+            "ORDER BY a.note ASC, a.dateCreation DESC, a.idAvis DESC")
+    List<Avis> findWorstPageAfter(@Param("etablissementId") Long etablissementId,
+                                  @Param("note") Integer note,
+                                  @Param("dateCreation") LocalDateTime dateCreation,
+                                  @Param("idAvis") Long idAvis,
+                                  Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package com.dic1.projet.hospitalFind.repository;
+
+import com.dic1.projet.hospitalFind.entity.ChangementEtablissement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangementEtablissementRepository extends JpaRepository<ChangementEtablissement, Long> {
+
+    @Query("SELECT c.idEtablissement, MAX(c.seq) FROM ChangementEtablissement c " +
+            "WHERE c.seq > :since " +
+            "GROUP BY c.idEtablissement " +
+            "ORDER BY MAX(c.seq)")
+    List<Object[]> findDerniersChangements(@Param("since") Long since, Pageable pageable);
+
+    @Query("SELECT c.idEtablissement, MAX(c.seq) FROM ChangementEtablissement c " +
+            "GROUP BY c.idEtablissement " +
+            "HAVING COUNT(c) > 1")
+    List<Object[]> findEtablissementsACompacter();
+
+    @Modifying
+    @Query("DELETE FROM ChangementEtablissement c WHERE c.idEtablissement = :etablissementId AND c.seq < :seq")
+    int deleteAnterieurs(@Param("etablissementId") Long etablissementId, @Param("seq") Long seq);
+}
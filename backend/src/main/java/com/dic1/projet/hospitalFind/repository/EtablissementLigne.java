@@ -0,0 +1,22 @@
+package com.dic1.projet.hospitalFind.repository;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+
+/**
+ * Colonnes d'un établissement et de son tuteur lues pour les DTO publics et admin,
+ * sans charger les entités ni leurs collections.
+ */
+public record EtablissementLigne(
+        Long id,
+        String nom,
+        String localisation,
+        Etablissement.Statut statut,
+        Double latitude,
+        Double longitude,
+        Long tuteurId,
+        String tuteurNom,
+        String tuteurPrenom,
+        String tuteurEmail,
+        Boolean tuteurActif
+) {
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +18,46 @@ public interface EtablissementRepository extends JpaRepository<Etablissement, Lo
     @Query("SELECT e FROM Etablissement e LEFT JOIN FETCH e.tuteur LEFT JOIN FETCH e.services")
     List<Etablissement> findAllWithTuteurAndServices();
 
-    @Query("SELECT e FROM Etablissement e LEFT JOIN FETCH e.tuteur LEFT JOIN FETCH e.services WHERE e.idEtablissement = :id")
-    Optional<Etablissement> findByIdWithTuteurAndServices(@Param("id") Long id);
+    @Query("SELECT e.idEtablissement FROM Etablissement e")
+    List<Long> findAllIds();
 
-
-    @Query("SELECT e FROM Etablissement e LEFT JOIN FETCH e.tuteur LEFT JOIN FETCH e.services WHERE e.statut = :statut")
-    List<Etablissement> findByStatutWithTuteurAndServices(@Param("statut") Etablissement.Statut statut);
+    @Query("SELECT e.idEtablissement FROM Etablissement e JOIN e.services s WHERE s.idService = :serviceId")
+    List<Long> findIdsByServiceId(@Param("serviceId") Long serviceId);
 
     Optional<Etablissement> findByTuteurIdUtilisateur(Long tuteurId);
 
-    @Query("SELECT e FROM Etablissement e LEFT JOIN FETCH e.tuteur LEFT JOIN FETCH e.services WHERE e.tuteur.idUtilisateur = :tuteurId")
-    Optional<Etablissement> findByTuteurIdUtilisateurWithTuteurAndServices(@Param("tuteurId") Long tuteurId);
+    String SELECT_LIGNE = "SELECT new com.dic1.projet.hospitalFind.repository.EtablissementLigne("
+            + "e.idEtablissement, e.nom, e.localisation, e.statut, e.latitude, e.longitude, "
+            + "t.idUtilisateur, t.nom, t.prenom, t.email, t.estActif) "
+            + "FROM Etablissement e LEFT JOIN e.tuteur t ";
+
+    String SELECT_SERVICE_LIEN = "SELECT new com.dic1.projet.hospitalFind.repository.ServiceLien("
+            + "e.idEtablissement, s.idService, s.nom, s.description) "
+            + "FROM Service s JOIN s.etablissements e ";
+
+    @Query(SELECT_LIGNE)
+    List<EtablissementLigne> findAllLignes();
+
+    @Query(SELECT_LIGNE + "WHERE e.statut = :statut")
+    List<EtablissementLigne> findLignesByStatut(@Param("statut") Etablissement.Statut statut);
+
+    @Query(SELECT_LIGNE + "WHERE e.idEtablissement = :id")
+    Optional<EtablissementLigne> findLigneById(@Param("id") Long id);
+
+    @Query(SELECT_LIGNE + "WHERE e.idEtablissement IN :ids")
+    List<EtablissementLigne> findLignesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_LIGNE + "WHERE t.idUtilisateur = :tuteurId")
+    Optional<EtablissementLigne> findLigneByTuteurId(@Param("tuteurId") Long tuteurId);
+
+    @Query(SELECT_SERVICE_LIEN)
+    List<ServiceLien> findAllServiceLiens();
+
+    @Query(SELECT_SERVICE_LIEN + "WHERE e.statut = :statut")
+    List<ServiceLien> findServiceLiensByStatut(@Param("statut") Etablissement.Statut statut);
+
+    @Query(SELECT_SERVICE_LIEN + "WHERE e.idEtablissement IN :ids")
+    List<ServiceLien> findServiceLiensByIds(@Param("ids") Collection<Long> ids);
 
     @Modifying
     @Query(value = "DELETE FROM etablissement WHERE id_tuteur = :tuteurId", nativeQuery = true)
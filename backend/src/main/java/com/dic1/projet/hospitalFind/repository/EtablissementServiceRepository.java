@@ -0,0 +1,55 @@
+package com.dic1.projet.hospitalFind.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Table de liaison {@code etablissement_service}. Elle appartient au côté
+ * {@code Service.etablissements} : la modifier par JPA oblige à charger la collection
+ * de chaque service concerné. Les liens d'un établissement sont donc réécrits ici en
+ * une suppression et une insertion groupées.
+ */
+@Repository
+public class EtablissementServiceRepository {
+
+    private static final String SELECT_SERVICES =
+            "SELECT id_service FROM etablissement_service WHERE id_etablissement = ?";
+    private static final String INSERT_LIEN =
+            "INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<Long> findServiceIds(Long etablissementId) {
+        return jdbcTemplate.queryForList(SELECT_SERVICES, Long.class, etablissementId);
+    }
+
+    public void lier(Long etablissementId, Collection<Long> serviceIds) {
+        if (serviceIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> liens = new ArrayList<>(serviceIds.size());
+        for (Long serviceId : serviceIds) {
+            liens.add(new Object[]{serviceId, etablissementId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LIEN, liens);
+    }
+
+    public void delier(Long etablissementId, Collection<Long> serviceIds) {
+        if (serviceIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(serviceIds.size(), "?"));
+        List<Object> parametres = new ArrayList<>(serviceIds.size() + 1);
+        parametres.add(etablissementId);
+        parametres.addAll(serviceIds);
+        jdbcTemplate.update("DELETE FROM etablissement_service WHERE id_etablissement = ? AND id_service IN ("
+                + placeholders + ")", parametres.toArray());
+    }
+}
@@ -0,0 +1,50 @@
+package com.dic1.projet.hospitalFind.repository;
+
+import com.dic1.projet.hospitalFind.entity.NoteEtablissement;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NoteEtablissementRepository extends JpaRepository<NoteEtablissement, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM NoteEtablissement n WHERE n.idEtablissement = :etablissementId")
+    Optional<NoteEtablissement> findForUpdate(@Param("etablissementId") Long etablissementId);
+
+    /**
+     * Ajoute ({@code delta} positif) ou retire des avis portant la note donnée, en une
+     * seule instruction : la ligne est créée au premier avis, sans fenêtre entre la
+     * lecture et l'insertion où deux premiers avis simultanés se gêneraient.
+     */
+    default void ajouter(Long etablissementId, int note, int delta) {
+        upsert(etablissementId, delta, (long) note * delta,
+                note == 1 ? delta : 0, note == 2 ? delta : 0, note == 3 ? delta : 0,
+                note == 4 ? delta : 0, note == 5 ? delta : 0);
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO note_etablissement (id_etablissement, nombre_avis, somme_notes, "
+            + "nombre_notes_1, nombre_notes_2, nombre_notes_3, nombre_notes_4, nombre_notes_5) "
+            + "VALUES (:etablissementId, :nombre, :somme, :n1, :n2, :n3, :n4, :n5) "
+            + "ON DUPLICATE KEY UPDATE nombre_avis = nombre_avis + VALUES(nombre_avis), "
+            + "somme_notes = somme_notes + VALUES(somme_notes), "
+            + "nombre_notes_1 = nombre_notes_1 + VALUES(nombre_notes_1), "
+            + "nombre_notes_2 = nombre_notes_2 + VALUES(nombre_notes_2), "
+            + "nombre_notes_3 = nombre_notes_3 + VALUES(nombre_notes_3), "
+            + "nombre_notes_4 = nombre_notes_4 + VALUES(nombre_notes_4), "
+            + "nombre_notes_5 = nombre_notes_5 + VALUES(nombre_notes_5)", nativeQuery = true)
+    void upsert(@Param("etablissementId") Long etablissementId, @Param("nombre") long nombre,
+                @Param("somme") long somme, @Param("n1") long n1, @Param("n2") long n2,
+                @Param("n3") long n3, @Param("n4") long n4, @Param("n5") long n5);
+
+    @Modifying
+    @Query("DELETE FROM NoteEtablissement n WHERE n.idEtablissement = :etablissementId AND n.statistiques.nombreAvis <= 0")
+    void supprimerSiVide(@Param("etablissementId") Long etablissementId);
+}
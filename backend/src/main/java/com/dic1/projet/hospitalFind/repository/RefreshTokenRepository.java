@@ -0,0 +1,35 @@
+package com.dic1.projet.hospitalFind.repository;
+
+import com.dic1.projet.hospitalFind.entity.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RefreshToken r WHERE r.empreinte = :empreinte")
+    Optional<RefreshToken> findForUpdate(@Param("empreinte") String empreinte);
+
+    Optional<RefreshToken> findByEmpreinte(String empreinte);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.famille = :famille")
+    int deleteByFamille(@Param("famille") String famille);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.idUtilisateur = :idUtilisateur")
+    int deleteByUtilisateur(@Param("idUtilisateur") Long idUtilisateur);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.dateExpiration < :date")
+    int deleteExpires(@Param("date") LocalDateTime date);
+}
@@ -0,0 +1,74 @@
+package com.dic1.projet.hospitalFind.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Séquences des identifiants d'établissements et de services. MySQL n'ayant pas de
+ * séquences, Hibernate les simule par une table à une ligne contenant le prochain
+ * identifiant libre (optimiseur {@code pooled-lo}) ; les imports en masse y
+ * réservent leurs blocs de la même manière.
+ */
+@Repository
+public class SequenceRepository {
+
+    public enum Sequence {
+        ETABLISSEMENT("etablissement_seq", "etablissement", "id_etablissement"),
+        SERVICE("service_seq", "service", "id_service");
+
+        private final String table;
+        private final String entityTable;
+        private final String idColumn;
+
+        Sequence(String table, String entityTable, String idColumn) {
+            this.table = table;
+            this.entityTable = entityTable;
+            this.idColumn = idColumn;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Garantit que le schéma a été créé ou mis à jour par Hibernate avant l'alignement. */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Les identifiants existants ont été attribués par AUTO_INCREMENT : chaque séquence
+     * est avancée au-delà du plus grand avant la première insertion.
+     */
+    @PostConstruct
+    void aligner() {
+        for (Sequence sequence : Sequence.values()) {
+            Long next = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + sequence.idColumn + "), 0) + 1 FROM " + sequence.entityTable, Long.class);
+            jdbcTemplate.update("INSERT INTO " + sequence.table + " (next_val) SELECT ? FROM DUAL "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM " + sequence.table + ")", next);
+            jdbcTemplate.update("UPDATE " + sequence.table + " SET next_val = ? WHERE next_val < ?", next, next);
+        }
+    }
+
+    /**
+     * Réserve {@code count} identifiants consécutifs et renvoie le premier. La réservation
+     * est validée aussitôt, dans sa propre transaction, pour ne pas bloquer la séquence.
+     */
+    public long allouer(Sequence sequence, int count) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction.execute(status -> {
+            Long next = jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence.table + " FOR UPDATE", Long.class);
+            jdbcTemplate.update("UPDATE " + sequence.table + " SET next_val = ?", next + count);
+            return next;
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package com.dic1.projet.hospitalFind.repository;
+
+/**
+ * Un service proposé par un établissement, lu depuis la table de liaison.
+ */
+public record ServiceLien(Long etablissementId, Long serviceId, String nom, String description) {
+}
@@ -14,4 +14,7 @@ public interface TuteurRepository extends JpaRepository<Tuteur, Long> {
     
     @Query("SELECT t FROM Tuteur t LEFT JOIN FETCH t.etablissement")
     List<Tuteur> findAllWithEtablissement();
+
+    @Query("SELECT t.idUtilisateur FROM Tuteur t WHERE t.estActif = false")
+    List<Long> findInactifIds();
 }
\ No newline at end of file
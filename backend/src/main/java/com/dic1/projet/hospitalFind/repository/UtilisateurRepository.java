@@ -2,7 +2,11 @@ package com.dic1.projet.hospitalFind.repository;
 
 import com.dic1.projet.hospitalFind.entity.Utilisateur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,9 @@ import java.util.Optional;
 public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long> {
     Optional<Utilisateur> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Utilisateur u SET u.motDePasse = :motDePasse WHERE u.idUtilisateur = :id")
+    int updateMotDePasse(@Param("id") Long id, @Param("motDePasse") String motDePasse);
 }
\ No newline at end of file
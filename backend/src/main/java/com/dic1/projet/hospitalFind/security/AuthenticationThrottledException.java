@@ -0,0 +1,27 @@
+package com.dic1.projet.hospitalFind.security;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Tentative de connexion refusée avant toute vérification du mot de passe : trop
+ * de tentatives (429) ou file de hachage pleine (503).
+ */
+public class AuthenticationThrottledException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public AuthenticationThrottledException(String message, HttpStatus status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,8 @@
 package com.dic1.projet.hospitalFind.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +16,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -20,6 +24,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer valides;
+    private Timer invalides;
+    private Timer revoques;
+
+    /** Durée de vérification d'un jeton (cache, signature et liste de révocation), par issue. */
+    @PostConstruct
+    void init() {
+        valides = verificationTimer("valid");
+        invalides = verificationTimer("invalid");
+        revoques = verificationTimer("revoked");
+    }
+
+    private Timer verificationTimer(String result) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Vérification d'un jeton d'accès")
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -29,15 +59,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtUtil.isTokenValid(token)) {
-                String email = jwtUtil.extractEmail(token);
-                String role = jwtUtil.extractRole(token);
-                Long userId = jwtUtil.extractUserId(token);
-
+            long start = System.nanoTime();
+            JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+            boolean revoked = verified != null && revocationList.isRevoked(verified);
+            (verified == null ? invalides : revoked ? revoques : valides).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (verified != null && !revoked) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        email, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                        verified.email(), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + verified.role()))
                 );
-                authentication.setDetails(userId);
+                authentication.setDetails(verified.userId());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
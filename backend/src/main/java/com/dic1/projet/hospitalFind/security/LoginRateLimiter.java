@@ -0,0 +1,79 @@
+package com.dic1.projet.hospitalFind.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limite les tentatives de connexion par adresse IP et par email avec des seaux à
+ * jetons, avant toute lecture en base ou tout hachage. Le seau d'un compte ne dépend
+ * pas de l'adresse : changer d'IP à chaque essai ne contourne pas sa limite. Les
+ * seaux inactifs sont oubliés au bout de {@link #IDLE_EXPIRY}, quand ils seraient de
+ * toute façon pleins.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(15);
+    private static final long MAX_BUCKETS = 100_000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${auth.rate-limit.ip.per-minute:10}")
+    private int ipPerMinute;
+
+    @Value("${auth.rate-limit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${auth.rate-limit.email.per-minute:3}")
+    private int emailPerMinute;
+
+    private final Cache<String, TokenBucket> byIp = Caffeine.newBuilder()
+            .maximumSize(MAX_BUCKETS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
+
+    private final Cache<String, TokenBucket> byEmail = Caffeine.newBuilder()
+            .maximumSize(MAX_BUCKETS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
+
+    private Counter ipRejections;
+    private Counter emailRejections;
+
+    @PostConstruct
+    void init() {
+        ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        emailRejections = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+    }
+
+    public void verifier(String adresseIp, String email) {
+        long retryAfter = byIp.get(adresseIp, key -> new TokenBucket(ipCapacity, ipPerMinute / 60.0)).tryConsume();
+        if (retryAfter > 0) {
+            ipRejections.increment();
+            throw new AuthenticationThrottledException("Trop de tentatives de connexion, réessayez plus tard",
+                    HttpStatus.TOO_MANY_REQUESTS, retryAfter);
+        }
+
+        String cle = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        retryAfter = byEmail.get(cle, key -> new TokenBucket(emailCapacity, emailPerMinute / 60.0)).tryConsume();
+        if (retryAfter > 0) {
+            emailRejections.increment();
+            throw new AuthenticationThrottledException("Trop de tentatives de connexion pour ce compte, réessayez plus tard",
+                    HttpStatus.TOO_MANY_REQUESTS, retryAfter);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.dic1.projet.hospitalFind.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Vérification des mots de passe sur un pool dédié, borné en threads et en file
+ * d'attente : une rafale de connexions ne monopolise ni les threads Tomcat ni le CPU
+ * des autres requêtes, et une file pleine est refusée tout de suite plutôt que
+ * d'allonger l'attente de tout le monde.
+ */
+@Component
+public class PasswordHasher {
+
+    /**
+     * Résultat d'une vérification ; {@code rehash} est le nouveau hachage à enregistrer
+     * quand le mot de passe est correct mais haché avec un autre facteur de coût.
+     */
+    public record Verification(boolean matches, String rehash) {
+    }
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int strength;
+
+    /**
+     * 0 : la moitié des cœurs (au moins un), pour qu'une rafale de connexions laisse
+     * toujours du CPU aux autres requêtes.
+     */
+    @Value("${auth.hash.threads:0}")
+    private int threads;
+
+    @Value("${auth.hash.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private Timer hashTimer;
+    private Counter rejections;
+    private Counter rehashes;
+
+    @PostConstruct
+    void start() {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        hashTimer = Timer.builder("auth.password.hash")
+                .description("Durée d'une vérification de mot de passe")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        rejections = Counter.builder("auth.password.rejected")
+                .description("Vérifications refusées, file pleine")
+                .register(meterRegistry);
+        rehashes = Counter.builder("auth.password.rehashed").register(meterRegistry);
+        Gauge.builder("auth.password.queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<Verification> verify(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(() -> {
+                if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                    return new Verification(false, null);
+                }
+                if (!needsRehash(encodedPassword)) {
+                    return new Verification(true, null);
+                }
+                rehashes.increment();
+                return new Verification(true, passwordEncoder.encode(rawPassword));
+            }), executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new AuthenticationThrottledException("Serveur occupé, réessayez dans un instant",
+                    HttpStatus.SERVICE_UNAVAILABLE, 1);
+        }
+    }
+
+    private boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
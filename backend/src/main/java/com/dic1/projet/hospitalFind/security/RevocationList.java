@@ -0,0 +1,137 @@
+package com.dic1.projet.hospitalFind.security;
+
+import com.dic1.projet.hospitalFind.repository.TuteurRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sessions et utilisateurs révoqués, consultés à chaque requête authentifiée sans
+ * accès à la base. Un filtre de Bloom écarte en O(1) le cas courant (rien de
+ * révoqué) ; les ensembles exacts tranchent ses faux positifs. Une entrée n'a plus
+ * d'utilité quand tous les jetons d'accès qu'elle vise ont expiré : elle est alors
+ * purgée et le filtre reconstruit.
+ */
+@Component
+public class RevocationList {
+
+    private static final String SESSION_PREFIX = "s:";
+    private static final String USER_PREFIX = "u:";
+
+    @Autowired
+    private TuteurRepository tuteurRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.revocation.expected-entries:10000}")
+    private long expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /** Session (famille de jetons de rafraîchissement) -> fin de validité de ses jetons d'accès. */
+    private final Map<String, Long> revokedSessions = new ConcurrentHashMap<>();
+
+    /**
+     * Utilisateur -> date de révocation ; seuls les jetons émis avant sont refusés,
+     * si bien qu'un compte réactivé peut se reconnecter aussitôt.
+     */
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile BloomFilter filter;
+
+    @PostConstruct
+    void init() {
+        filter = newFilter();
+    }
+
+    /**
+     * Les tuteurs désactivés ne peuvent plus obtenir de jeton, mais ceux émis avant
+     * un redémarrage restent valides jusqu'à leur expiration : on les révoque tous.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        long now = System.currentTimeMillis();
+        for (Long userId : tuteurRepository.findInactifIds()) {
+            revokeUser(userId, now);
+        }
+    }
+
+    public boolean isRevoked(JwtUtil.VerifiedToken token) {
+        BloomFilter current = filter;
+        if (token.sessionId() != null
+                && current.mightContain(SESSION_PREFIX + token.sessionId())
+                && revokedSessions.containsKey(token.sessionId())) {
+            return true;
+        }
+        if (token.userId() != null && current.mightContain(USER_PREFIX + token.userId())) {
+            Long revokedAt = revokedUsers.get(token.userId());
+            return revokedAt != null && token.issuedAt() <= revokedAt;
+        }
+        return false;
+    }
+
+    public void revokeSession(String sessionId) {
+        writeLock.lock();
+        try {
+            revokedSessions.put(sessionId, System.currentTimeMillis() + jwtUtil.getExpiration());
+            filter.add(SESSION_PREFIX + sessionId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void revokeUser(Long userId) {
+        revokeUser(userId, System.currentTimeMillis());
+    }
+
+    public int size() {
+        return revokedSessions.size() + revokedUsers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-ms:60000}")
+    public void purger() {
+        writeLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            long accessLifetime = jwtUtil.getExpiration();
+            int before = size();
+            revokedSessions.values().removeIf(until -> until < now);
+            revokedUsers.values().removeIf(revokedAt -> revokedAt + accessLifetime < now);
+            if (size() == before) {
+                return;
+            }
+            BloomFilter rebuilt = newFilter();
+            revokedSessions.keySet().forEach(sessionId -> rebuilt.add(SESSION_PREFIX + sessionId));
+            revokedUsers.keySet().forEach(userId -> rebuilt.add(USER_PREFIX + userId));
+            filter = rebuilt;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void revokeUser(Long userId, long revokedAt) {
+        writeLock.lock();
+        try {
+            revokedUsers.put(userId, revokedAt);
+            filter.add(USER_PREFIX + userId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(Math.max(expectedEntries, 2L * size()), falsePositiveRate);
+    }
+}
@@ -1,16 +1,21 @@
 package com.dic1.projet.hospitalFind.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -25,9 +30,25 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${management.server.port:}")
+    private String managementPort;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Le point de collecte Prometheus n'est ouvert sans jeton que sur le port
+     * d'administration ({@code management.server.port}, lié à {@code management.server.address}) :
+     * derrière un proxy inverse, toutes les requêtes du port public viennent de la boucle locale.
+     * Sans port séparé, il reste réservé aux administrateurs.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> collecteurPrometheus() {
+        if (managementPort.isBlank()) {
+            return AuthorityAuthorizationManager.hasAuthority("ROLE_ADMIN");
+        }
+        return (authentication, context) -> new AuthorizationDecision(true);
     }
 
     @Bean
@@ -49,6 +70,9 @@ public class SecurityConfig {
                                 "/api/v3/api-docs/**"
                         ).permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers("GET", "/actuator/health").permitAll()
+                        .requestMatchers("GET", "/actuator/prometheus").access(collecteurPrometheus())
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
 
                         .requestMatchers("/etablissements/admin/en-attente").permitAll()
 
@@ -61,10 +85,19 @@ public class SecurityConfig {
                         .requestMatchers("DELETE", "/services/{id}/delete").hasAuthority("ROLE_ADMIN")
 
                         .requestMatchers("GET", "/etablissements").permitAll()
+                        .requestMatchers("GET", "/etablissements/nearby").permitAll()
+                        .requestMatchers("GET", "/etablissements/viewport").permitAll()
+                        .requestMatchers("GET", "/etablissements/search").permitAll()
+                        .requestMatchers("GET", "/etablissements/suggest").permitAll()
+                        .requestMatchers("GET", "/etablissements/filter").permitAll()
+                        .requestMatchers("GET", "/etablissements/changes").permitAll()
+                        .requestMatchers("GET", "/stream/**").permitAll()
                         .requestMatchers("GET", "/etablissements/{id}").permitAll()
 
                         .requestMatchers("GET", "/avis/etablissement/**").permitAll()
 
+                        .requestMatchers("GET", "/tiles/**").permitAll()
+
                         .requestMatchers("/user/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/etablissements/admin/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/admin/**").hasAuthority("ROLE_ADMIN")
@@ -0,0 +1,52 @@
+package com.dic1.projet.hospitalFind.security;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Seau à jetons : {@code capacity} tentatives d'affilée au plus, puis
+ * {@code refillPerSecond} tentatives par seconde.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoTime;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    /** {@code nanoTime} remplace {@link System#nanoTime()} dans les tests. */
+    TokenBucket(double capacity, double refillPerSecond, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.nanoTime = nanoTime;
+        this.tokens = capacity;
+        this.lastRefill = nanoTime.getAsLong();
+    }
+
+    /**
+     * Prend un jeton ; renvoie 0 en cas de succès, sinon le nombre de secondes
+     * avant qu'un jeton soit de nouveau disponible.
+     */
+    long tryConsume() {
+        lock.lock();
+        try {
+            long now = nanoTime.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000.0));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -10,10 +10,20 @@ import com.dic1.projet.hospitalFind.repository.AdministrateurRepository;
 import com.dic1.projet.hospitalFind.repository.TuteurRepository;
 import com.dic1.projet.hospitalFind.repository.UtilisateurRepository;
 import com.dic1.projet.hospitalFind.security.JwtUtil;
+import com.dic1.projet.hospitalFind.security.LoginRateLimiter;
+import com.dic1.projet.hospitalFind.security.PasswordHasher;
+import com.dic1.projet.hospitalFind.security.RevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
 public class AuthService {
 
@@ -32,6 +42,25 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
     public Utilisateur register(CreateUtilisateurRequest request) {
         if (utilisateurRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email déjà utilisé");
@@ -68,20 +97,110 @@ public class AuthService {
         return utilisateurRepository.save(utilisateur);
     }
 
-    public LoginResponse login(LoginRequest request) {
+    /**
+     * Connexion en trois temps : limitation de débit et lecture de l'utilisateur sur le
+     * thread de la requête, vérification du mot de passe sur le pool de hachage, puis
+     * émission des jetons (et nouveau hachage si le facteur de coût a changé) sur le
+     * pool de tâches, pour que les threads de hachage ne fassent que hacher.
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request, String adresseIp) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<LoginResponse> connexion;
+        try {
+            connexion = verifier(request, adresseIp);
+        } catch (RuntimeException e) {
+            // Refus avant le hachage : limitation, email inconnu ou file de hachage pleine
+            arreter(sample, false);
+            throw e;
+        }
+        return connexion.whenComplete((reponse, erreur) -> arreter(sample, erreur == null));
+    }
+
+    private CompletableFuture<LoginResponse> verifier(LoginRequest request, String adresseIp) {
+        loginRateLimiter.verifier(adresseIp, request.getEmail());
+
         Utilisateur utilisateur = utilisateurRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
 
-        if (!passwordEncoder.matches(request.getMotDePasse(), utilisateur.getMotDePasse())) {
-            throw new RuntimeException("Mot de passe incorrect");
+        return passwordHasher.verify(request.getMotDePasse(), utilisateur.getMotDePasse())
+                .thenApplyAsync(verification -> {
+                    if (!verification.matches()) {
+                        throw new RuntimeException("Mot de passe incorrect");
+                    }
+                    if (verification.rehash() != null) {
+                        utilisateurRepository.updateMotDePasse(utilisateur.getIdUtilisateur(), verification.rehash());
+                    }
+
+                    verifierActif(utilisateur);
+                    String famille = UUID.randomUUID().toString();
+                    String refreshToken = refreshTokenService.emettre(utilisateur.getIdUtilisateur(), famille);
+                    return reponse(utilisateur, famille, refreshToken);
+                }, taskExecutor);
+    }
+
+    private void arreter(Timer.Sample sample, boolean succes) {
+        sample.stop(Timer.builder("auth.login")
+                .description("Connexion complète : recherche, hachage et émission des jetons")
+                .tag("outcome", succes ? "success" : "failure")
+                .register(meterRegistry));
+    }
+
+    /**
+     * Échange un jeton de rafraîchissement contre une nouvelle paire de jetons. Un jeton
+     * déjà utilisé signale un vol probable : toute la session est révoquée.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.consommer(refreshToken);
+        if (rotation.reutilise()) {
+            revocationList.revokeSession(rotation.famille());
+            throw new RuntimeException("Jeton de rafraîchissement déjà utilisé, session révoquée");
+        }
+
+        Utilisateur utilisateur = utilisateurRepository.findById(rotation.idUtilisateur())
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+        try {
+            verifierActif(utilisateur);
+        } catch (RuntimeException e) {
+            refreshTokenService.revoquerFamille(rotation.famille());
+            revocationList.revokeSession(rotation.famille());
+            throw e;
         }
+        return reponse(utilisateur, rotation.famille(), rotation.refreshToken());
+    }
+
+    /**
+     * Ferme la session du jeton d'accès et celle du jeton de rafraîchissement, s'ils sont fournis.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            JwtUtil.VerifiedToken verified = jwtUtil.verify(accessToken);
+            if (verified != null && verified.sessionId() != null) {
+                refreshTokenService.revoquerFamille(verified.sessionId());
+                revocationList.revokeSession(verified.sessionId());
+            }
+        }
+        if (refreshToken != null) {
+            String famille = refreshTokenService.revoquer(refreshToken);
+            if (famille != null) {
+                revocationList.revokeSession(famille);
+            }
+        }
+    }
+
+    private void verifierActif(Utilisateur utilisateur) {
+        if (utilisateur instanceof Tuteur tuteur && Boolean.FALSE.equals(tuteur.getEstActif())) {
+            throw new RuntimeException("Compte désactivé");
+        }
+    }
 
+    private LoginResponse reponse(Utilisateur utilisateur, String famille, String refreshToken) {
         String token = jwtUtil.generateToken(
                 utilisateur.getEmail(),
                 utilisateur.getRole().name(),
-                utilisateur.getIdUtilisateur()
+                utilisateur.getIdUtilisateur(),
+                famille
         );
 
-        return new LoginResponse(token, utilisateur.getRole().name(), utilisateur.getIdUtilisateur());
+        return new LoginResponse(token, refreshToken, utilisateur.getRole().name(), utilisateur.getIdUtilisateur());
     }
 }
\ No newline at end of file
@@ -1,18 +1,32 @@
 package com.dic1.projet.hospitalFind.service;
 
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
+import com.dic1.projet.hospitalFind.dto.AvisDto;
+import com.dic1.projet.hospitalFind.dto.AvisPageDTO;
 import com.dic1.projet.hospitalFind.dto.CreateAvisRequest;
 import com.dic1.projet.hospitalFind.entity.Avis;
+import com.dic1.projet.hospitalFind.entity.ChangementEtablissement;
 import com.dic1.projet.hospitalFind.entity.Etablissement;
 import com.dic1.projet.hospitalFind.entity.Service;
 import com.dic1.projet.hospitalFind.entity.Utilisateur;
+import com.dic1.projet.hospitalFind.index.AfterCommit;
 import com.dic1.projet.hospitalFind.repository.AvisRepository;
 import com.dic1.projet.hospitalFind.repository.EtablissementRepository;
 import com.dic1.projet.hospitalFind.repository.ServiceRepository;
 import com.dic1.projet.hospitalFind.repository.UtilisateurRepository;
+import com.dic1.projet.hospitalFind.stream.EventBus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
 @Transactional(readOnly = true)
@@ -32,6 +46,20 @@ public class AvisService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private NotationService notationService;
+
+    @Autowired
+    private PublicCaches publicCaches;
+
+    @Autowired
+    private ChangementService changementService;
+
+    @Autowired
+    private EventBus eventBus;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Transactional
     public Avis createAvis(CreateAvisRequest request, Long userId) {
 
@@ -52,23 +80,102 @@ public class AvisService {
         avis.setCommentaire(request.getCommentaire());
 
         Avis savedAvis = avisRepository.save(avis);
+        notationService.ajouterAvis(savedAvis);
+        changementService.enregistrer(etablissement.getIdEtablissement(), ChangementEtablissement.Operation.UPSERT);
+        publicCaches.avisModifies(etablissement.getIdEtablissement());
+        AvisDto event = new AvisDto(savedAvis);
+        AfterCommit.run(() -> eventBus.publish(EventBus.avis(event.getIdEtablissement()), "avis", event));
         return savedAvis;
     }
 
     public List<Avis> getAvisByEtablissement(Long etablissementId) {
         return avisRepository.findByEtablissementIdWithUser(etablissementId);
     }
+
+    @Cacheable(cacheNames = PublicCaches.AVIS_ETABLISSEMENT, key = "#etablissementId")
+    public List<AvisDto> getAvisDtoByEtablissement(Long etablissementId) {
+        return avisRepository.findByEtablissementIdWithUser(etablissementId).stream()
+                .map(AvisDto::new)
+                .collect(Collectors.toList());
+    }
+    /**
+     * Une page d'avis triée par {@code sort} ("newest", "best" ou "worst"). Le curseur
+     * renvoyé désigne le dernier avis de la page : la page suivante reprend juste après
+     * lui dans l'index, sans OFFSET.
+     */
+    public AvisPageDTO getAvisPage(Long etablissementId, String cursor, Integer size, String sort) {
+        if (size == null || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+        if (!"newest".equals(sort) && !"best".equals(sort) && !"worst".equals(sort)) {
+            throw new RuntimeException("Tri invalide: " + sort + " (newest, best ou worst)");
+        }
+
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Avis> avis;
+        if (cursor == null || cursor.isEmpty()) {
+            avis = switch (sort) {
+                case "best" -> avisRepository.findBestPage(etablissementId, pageable);
+                case "worst" -> avisRepository.findWorstPage(etablissementId, pageable);
+                default -> avisRepository.findNewestPage(etablissementId, pageable);
+            };
+        } else {
+            Curseur after = decodeCursor(cursor, sort);
+            avis = switch (sort) {
+                case "best" -> avisRepository.findBestPageAfter(etablissementId, after.note(), after.dateCreation(), after.idAvis(), pageable);
+                case "worst" -> avisRepository.findWorstPageAfter(etablissementId, after.note(), after.dateCreation(), after.idAvis(), pageable);
+                default -> avisRepository.findNewestPageAfter(etablissementId, after.dateCreation(), after.idAvis(), pageable);
+            };
+        }
+
+        String nextCursor = null;
+        if (avis.size() > size) {
+            avis = avis.subList(0, size);
+            nextCursor = encodeCursor(avis.get(size - 1), sort);
+        }
+        return new AvisPageDTO(avis.stream().map(AvisDto::new).collect(Collectors.toList()), nextCursor);
+    }
+
+    record Curseur(Integer note, LocalDateTime dateCreation, Long idAvis) {
+    }
+
+    static String encodeCursor(Avis avis, String sort) {
+        String valeur = sort + "|" + avis.getNote() + "|" + avis.getDateCreation() + "|" + avis.getIdAvis();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Curseur decodeCursor(String cursor, String sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 4 || !parts[0].equals(sort)) {
+                throw new RuntimeException("Curseur invalide");
+            }
+            Integer note = "null".equals(parts[1]) ? null : Integer.valueOf(parts[1]);
+            if (note == null && !"newest".equals(sort)) {
+                throw new RuntimeException("Curseur invalide");
+            }
+            return new Curseur(note, LocalDateTime.parse(parts[2]), Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new RuntimeException("Curseur invalide");
+        }
+    }
+
     public List<Avis> getAvisByEtablissementOld(Long etablissementId) {
         return avisRepository.findByEtablissement_IdEtablissement(etablissementId);
     }
 
     @Transactional
     public void deleteAvis(Long id) {
-        if (!avisRepository.existsById(id)) {
-            throw new RuntimeException("Avis non trouvé avec l'ID: " + id);
+        Avis avis = avisRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Avis non trouvé avec l'ID: " + id));
+
+        avisRepository.delete(avis);
+        notationService.retirerAvis(avis);
+        if (avis.getEtablissement() != null) {
+            Long etablissementId = avis.getEtablissement().getIdEtablissement();
+            changementService.enregistrer(etablissementId, ChangementEtablissement.Operation.UPSERT);
+            publicCaches.avisModifies(etablissementId);
         }
-
-        avisRepository.deleteById(id);
     }
 
     @Transactional
@@ -77,6 +184,9 @@ public class AvisService {
         if (!avis.isEmpty()) {
             avisRepository.deleteAll(avis);
         }
+        notationService.supprimerNotes(etablissementId);
+        changementService.enregistrer(etablissementId, ChangementEtablissement.Operation.UPSERT);
+        publicCaches.avisModifies(etablissementId);
     }
 
     public Avis getAvisById(Long avisId) {
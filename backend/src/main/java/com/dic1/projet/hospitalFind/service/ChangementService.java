@@ -0,0 +1,145 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.entity.ChangementEtablissement;
+import com.dic1.projet.hospitalFind.repository.ChangementEtablissementRepository;
+import com.dic1.projet.hospitalFind.repository.EtablissementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal des établissements modifiés. Il ne retient que l'identifiant : la réponse
+ * de synchronisation relit l'état courant, donc seule la dernière entrée de chaque
+ * établissement compte et la compaction supprime les autres. Le journal reste ainsi
+ * borné par le nombre d'établissements ayant existé.
+ * <p>
+ * Garantie de livraison : les numéros sont attribués dans l'ordre des validations.
+ * Les entrées d'une transaction sont écrites juste avant sa validation, sous un verrou
+ * gardé jusqu'à la fin de celle-ci ; un numéro visible n'est donc jamais suivi par
+ * la validation d'un numéro inférieur, et un client qui repart du dernier {@code seq}
+ * reçu ne manque aucune modification. Limites : la garantie ne vaut que pour les
+ * écritures faites par cette instance de l'application (comme les index en mémoire),
+ * pas pour un second serveur ni pour des modifications SQL directes ; et la compaction
+ * ne garde que la dernière entrée par établissement, ce qui suffit puisque la réponse
+ * relit l'état courant.
+ */
+@org.springframework.stereotype.Service
+@Transactional(readOnly = true)
+public class ChangementService {
+
+    private static final String INSERT_CHANGEMENT =
+            "INSERT INTO changement_etablissement (id_etablissement, operation, date_changement) VALUES (?, ?, ?)";
+
+    @Autowired
+    private ChangementEtablissementRepository changementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EtablissementRepository etablissementRepository;
+
+    /** Tenu de l'insertion des entrées jusqu'à la fin de la validation. */
+    private final ReentrantLock journal = new ReentrantLock();
+
+    /**
+     * Au premier démarrage, chaque établissement existant reçoit une entrée pour
+     * qu'une synchronisation depuis 0 renvoie tout le jeu de données.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialiser() {
+        if (changementRepository.count() == 0) {
+            enregistrer(etablissementRepository.findAllIds(), ChangementEtablissement.Operation.UPSERT);
+        }
+    }
+
+    @Transactional
+    public void enregistrer(Long etablissementId, ChangementEtablissement.Operation operation) {
+        enregistrer(List.of(etablissementId), operation);
+    }
+
+    /**
+     * Retient les changements jusqu'à la validation de la transaction courante ;
+     * seule la dernière opération de chaque établissement est écrite.
+     */
+    @Transactional
+    public void enregistrer(List<Long> etablissementIds, ChangementEtablissement.Operation operation) {
+        EnAttente enAttente = (EnAttente) TransactionSynchronizationManager.getResource(this);
+        if (enAttente == null) {
+            enAttente = new EnAttente();
+            TransactionSynchronizationManager.bindResource(this, enAttente);
+            TransactionSynchronizationManager.registerSynchronization(enAttente);
+        }
+        for (Long etablissementId : etablissementIds) {
+            enAttente.operations.remove(etablissementId);
+            enAttente.operations.put(etablissementId, operation);
+        }
+    }
+
+    /**
+     * Établissements modifiés après {@code since}, chacun avec son dernier numéro,
+     * par numéro croissant (au plus {@code limit}).
+     */
+    public Map<Long, Long> getDerniersChangements(Long since, int limit) {
+        Map<Long, Long> changements = new LinkedHashMap<>();
+        for (Object[] row : changementRepository.findDerniersChangements(since, PageRequest.of(0, limit))) {
+            changements.put((Long) row[0], (Long) row[1]);
+        }
+        return changements;
+    }
+
+    @Scheduled(cron = "${etablissements.changes.compaction-cron:0 0 3 * * *}")
+    @Transactional
+    public void compacter() {
+        for (Object[] row : changementRepository.findEtablissementsACompacter()) {
+            changementRepository.deleteAnterieurs((Long) row[0], (Long) row[1]);
+        }
+    }
+
+    /**
+     * Changements d'une transaction. Les écritures en attente sont envoyées avant de
+     * prendre le verrou : la transaction détient alors tous ses verrous de ligne, et
+     * attendre le journal ne peut pas bloquer une autre transaction qui le détient.
+     * Les entrées sont insérées par lot JDBC, un import pouvant en produire des milliers.
+     */
+    private final class EnAttente implements TransactionSynchronization {
+
+        private final Map<Long, ChangementEtablissement.Operation> operations = new LinkedHashMap<>();
+        private boolean verrouille;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            changementRepository.flush();
+            journal.lock();
+            verrouille = true;
+            Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> changements = new ArrayList<>(operations.size());
+            operations.forEach((id, operation) -> changements.add(new Object[]{id, operation.name(), maintenant}));
+            jdbcTemplate.batchUpdate(INSERT_CHANGEMENT, changements);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangementService.this);
+            if (verrouille) {
+                verrouille = false;
+                journal.unlock();
+            }
+        }
+    }
+}
@@ -1,16 +1,39 @@
 package com.dic1.projet.hospitalFind.service;
 
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
 import com.dic1.projet.hospitalFind.dto.*;
+import com.dic1.projet.hospitalFind.entity.ChangementEtablissement;
 import com.dic1.projet.hospitalFind.entity.Etablissement;
 import com.dic1.projet.hospitalFind.entity.Service;
 import com.dic1.projet.hospitalFind.entity.Tuteur;
+import com.dic1.projet.hospitalFind.index.AfterCommit;
+import com.dic1.projet.hospitalFind.index.ClusterPyramid;
+import com.dic1.projet.hospitalFind.index.EtablissementIndexer;
+import com.dic1.projet.hospitalFind.index.FacetIndex;
+import com.dic1.projet.hospitalFind.index.EtablissementSnapshot;
+import com.dic1.projet.hospitalFind.index.SpatialIndex;
+import com.dic1.projet.hospitalFind.index.SuggestionIndex;
+import com.dic1.projet.hospitalFind.index.TextSearchIndex;
+import com.dic1.projet.hospitalFind.repository.EtablissementLigne;
 import com.dic1.projet.hospitalFind.repository.EtablissementRepository;
+import com.dic1.projet.hospitalFind.repository.EtablissementServiceRepository;
+import com.dic1.projet.hospitalFind.repository.ServiceLien;
 import com.dic1.projet.hospitalFind.repository.ServiceRepository;
 import com.dic1.projet.hospitalFind.repository.TuteurRepository;
+import com.dic1.projet.hospitalFind.stream.EventBus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
@@ -22,67 +45,376 @@ public class EtablissementService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private EtablissementServiceRepository etablissementServiceRepository;
+
     @Autowired
     private TuteurRepository tuteurRepository;
 
     @Autowired
     private AvisService avisService;
 
-    public List<EtablissementPublicDTO> getAllEtablissementsPublic() {
-        List<Etablissement> etablissements = etablissementRepository.findAllWithTuteurAndServices();
-        return etablissements.stream()
-                .filter(e -> e.getStatut() == Etablissement.Statut.VALIDE)
-                .map(this::convertToPublicDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private EtablissementIndexer etablissementIndexer;
+
+    @Autowired
+    private SpatialIndex spatialIndex;
+
+    @Autowired
+    private ClusterPyramid clusterPyramid;
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private NotationService notationService;
+
+    @Autowired
+    private PublicCaches publicCaches;
+
+    @Autowired
+    private ChangementService changementService;
+
+    @Autowired
+    private EventBus eventBus;
+
+    private static final int MAX_NEARBY_RESULTS = 100;
+    private static final double MAX_NEARBY_RADIUS_KM = 1000;
+    private static final int MAX_ZOOM = 22;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_CHANGES = 1000;
+
+    /**
+     * {@code sort} vaut "note" (meilleure moyenne d'abord) ou "avis" (plus d'avis d'abord) ;
+     * les établissements sans avis viennent en dernier.
+     */
+    @Cacheable(cacheNames = PublicCaches.ETABLISSEMENTS_PUBLICS, key = "#sort ?: ''")
+    public List<EtablissementPublicDTO> getAllEtablissementsPublic(String sort) {
+        Comparator<EtablissementPublicDTO> ordre = ordrePublic(sort);
+        List<EtablissementLigne> lignes = etablissementRepository.findLignesByStatut(Etablissement.Statut.VALIDE);
+        Map<Long, List<ServiceDTO>> services = servicesParEtablissement(
+                etablissementRepository.findServiceLiensByStatut(Etablissement.Statut.VALIDE));
+        Map<Long, NoteDTO> notes = notationService.getToutesLesNotes();
+        Map<Long, Map<Long, NoteDTO>> notesParService = notationService.getToutesLesNotesParService();
+        List<EtablissementPublicDTO> dtos = new ArrayList<>(lignes.size());
+        for (EtablissementLigne ligne : lignes) {
+            dtos.add(convertToPublicDTO(ligne,
+                    services.getOrDefault(ligne.id(), List.of()),
+                    notes.get(ligne.id()),
+                    notesParService.getOrDefault(ligne.id(), Map.of())));
+        }
+        if (ordre != null) {
+            dtos.sort(ordre);
+        }
+        return dtos;
+    }
+
+    private static Comparator<EtablissementPublicDTO> ordrePublic(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return null;
+        }
+        Comparator<EtablissementPublicDTO> parNombreAvis =
+                Comparator.comparing(dto -> dto.getNote() != null ? dto.getNote().getNombreAvis() : 0L);
+        switch (sort) {
+            case "note":
+                return Comparator.<EtablissementPublicDTO, Double>comparing(
+                                dto -> dto.getNote() != null ? dto.getNote().getMoyenne() : null,
+                                Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(parNombreAvis)
+                        .reversed();
+            case "avis":
+                return parNombreAvis.reversed();
+            default:
+                throw new RuntimeException("Tri invalide: " + sort + " (note ou avis)");
+        }
     }
 
+    @Cacheable(cacheNames = PublicCaches.ETABLISSEMENT_PUBLIC, key = "#id")
     public EtablissementPublicDTO getEtablissementPublicById(Long id) {
-        Etablissement etablissement = etablissementRepository.findByIdWithTuteurAndServices(id)
+        EtablissementLigne ligne = etablissementRepository.findLigneById(id)
                 .orElseThrow(() -> new RuntimeException("Établissement non trouvé"));
         
-        if (etablissement.getStatut() != Etablissement.Statut.VALIDE) {
+        if (ligne.statut() != Etablissement.Statut.VALIDE) {
             throw new RuntimeException("Établissement non accessible");
         }
         
-        return convertToPublicDTO(etablissement);
+        return convertToPublicDTO(ligne, servicesDe(id), notationService.getNote(id), notationService.getNotesParService(id));
+    }
+
+    /**
+     * Établissements modifiés depuis le numéro {@code since} : ceux qui sont visibles
+     * en "upserts", ceux supprimés ou qui ne sont plus validés en "tombstones".
+     * Le client repart du {@code seq} renvoyé, tant que {@code hasMore} est vrai.
+     */
+    public EtablissementChangesDTO getChangements(Long since, Integer limit) {
+        if (since == null || since < 0) {
+            throw new RuntimeException("Le numéro de départ doit être positif");
+        }
+        if (limit == null || limit < 1 || limit > MAX_CHANGES) {
+            throw new RuntimeException("Le nombre de changements doit être compris entre 1 et " + MAX_CHANGES);
+        }
+
+        Map<Long, Long> changements = changementService.getDerniersChangements(since, limit + 1);
+        boolean hasMore = changements.size() > limit;
+        long seq = since;
+        List<Long> ids = new ArrayList<>(Math.min(changements.size(), limit));
+        for (Map.Entry<Long, Long> changement : changements.entrySet()) {
+            if (ids.size() == limit) {
+                break;
+            }
+            ids.add(changement.getKey());
+            seq = changement.getValue();
+        }
+
+        List<EtablissementPublicDTO> upserts = new ArrayList<>();
+        List<Long> tombstones = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            Map<Long, EtablissementLigne> lignes = new HashMap<>();
+            for (EtablissementLigne ligne : etablissementRepository.findLignesByIds(ids)) {
+                lignes.put(ligne.id(), ligne);
+            }
+            Map<Long, List<ServiceDTO>> services = servicesParEtablissement(etablissementRepository.findServiceLiensByIds(ids));
+            Map<Long, NoteDTO> notes = notationService.getNotes(ids);
+            Map<Long, Map<Long, NoteDTO>> notesParService = notationService.getNotesParService(ids);
+            for (Long id : ids) {
+                EtablissementLigne ligne = lignes.get(id);
+                if (ligne != null && ligne.statut() == Etablissement.Statut.VALIDE) {
+                    upserts.add(convertToPublicDTO(ligne, services.getOrDefault(id, List.of()),
+                            notes.get(id), notesParService.getOrDefault(id, Map.of())));
+                } else {
+                    tombstones.add(id);
+                }
+            }
+        }
+        return new EtablissementChangesDTO(seq, hasMore, upserts, tombstones);
     }
 
     public List<EtablissementAdminDTO> getAllEtablissementsAdmin() {
-        List<Etablissement> etablissements = etablissementRepository.findAllWithTuteurAndServices();
-        return etablissements.stream()
-                .map(this::convertToAdminDTO)
-                .collect(Collectors.toList());
+        return convertToAdminDTOs(etablissementRepository.findAllLignes(),
+                etablissementRepository.findAllServiceLiens());
     }
 
     public EtablissementAdminDTO getEtablissementAdminById(Long id) {
-        Etablissement etablissement = etablissementRepository.findByIdWithTuteurAndServices(id)
+        EtablissementLigne ligne = etablissementRepository.findLigneById(id)
                 .orElseThrow(() -> new RuntimeException("Établissement non trouvé"));
-        return convertToAdminDTO(etablissement);
+        return convertToAdminDTO(ligne, servicesDe(id));
     }
 
     public List<EtablissementAdminDTO> getEtablissementsEnAttente() {
-        List<Etablissement> etablissements = etablissementRepository.findByStatutWithTuteurAndServices(Etablissement.Statut.EN_ATTENTE);
-        return etablissements.stream()
-                .map(this::convertToAdminDTO)
+        return convertToAdminDTOs(etablissementRepository.findLignesByStatut(Etablissement.Statut.EN_ATTENTE),
+                etablissementRepository.findServiceLiensByStatut(Etablissement.Statut.EN_ATTENTE));
+    }
+
+    public List<EtablissementProcheDTO> getEtablissementsProches(Double lat, Double lon, Double radiusKm, Integer k) {
+        if (lat == null || lon == null || lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new RuntimeException("Coordonnées invalides");
+        }
+        if (radiusKm == null || radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new RuntimeException("Le rayon doit être compris entre 0 et " + (int) MAX_NEARBY_RADIUS_KM + " km");
+        }
+        if (k == null || k < 1 || k > MAX_NEARBY_RESULTS) {
+            throw new RuntimeException("Le nombre de résultats doit être compris entre 1 et " + MAX_NEARBY_RESULTS);
+        }
+
+        List<EtablissementProcheDTO> proches = new ArrayList<>();
+        for (SpatialIndex.Neighbor neighbor : spatialIndex.nearest(lat, lon, radiusKm, k)) {
+            EtablissementSnapshot snapshot = etablissementIndexer.get(neighbor.id());
+            if (snapshot != null) {
+                proches.add(new EtablissementProcheDTO(
+                        snapshot.id(),
+                        snapshot.nom(),
+                        snapshot.localisation(),
+                        snapshot.type() != null ? snapshot.type().name() : null,
+                        snapshot.latitude(),
+                        snapshot.longitude(),
+                        neighbor.distanceKm()
+                ));
+            }
+        }
+        return proches;
+    }
+
+    public ViewportDTO getViewport(Double minLat, Double maxLat, Double minLon, Double maxLon, Integer zoom) {
+        if (minLat == null || maxLat == null || minLon == null || maxLon == null
+                || minLat > maxLat || minLon > maxLon
+                || minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180) {
+            throw new RuntimeException("Zone d'affichage invalide");
+        }
+        if (zoom == null || zoom < 0 || zoom > MAX_ZOOM) {
+            throw new RuntimeException("Le zoom doit être compris entre 0 et " + MAX_ZOOM);
+        }
+
+        if (zoom <= ClusterPyramid.MAX_CLUSTER_ZOOM) {
+            List<ClusterDTO> clusters = clusterPyramid.clusters(minLat, maxLat, minLon, maxLon, zoom).stream()
+                    .map(c -> new ClusterDTO(c.count(), c.latitude(), c.longitude()))
+                    .collect(Collectors.toList());
+            return new ViewportDTO(zoom, clusters, List.of());
+        }
+
+        List<EtablissementMarkerDTO> etablissements = new ArrayList<>();
+        for (Long id : spatialIndex.withinBounds(minLat, maxLat, minLon, maxLon)) {
+            EtablissementSnapshot snapshot = etablissementIndexer.get(id);
+            if (snapshot != null) {
+                etablissements.add(new EtablissementMarkerDTO(
+                        snapshot.id(),
+                        snapshot.nom(),
+                        snapshot.localisation(),
+                        snapshot.type() != null ? snapshot.type().name() : null,
+                        snapshot.latitude(),
+                        snapshot.longitude()
+                ));
+            }
+        }
+        return new ViewportDTO(zoom, List.of(), etablissements);
+    }
+
+    public List<EtablissementSearchResultDTO> rechercherEtablissements(String q, Integer limit) {
+        if (q == null || q.trim().isEmpty()) {
+            throw new RuntimeException("Le texte de recherche est obligatoire");
+        }
+        if (limit == null || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new RuntimeException("Le nombre de résultats doit être compris entre 1 et " + MAX_SEARCH_RESULTS);
+        }
+
+        List<EtablissementSearchResultDTO> resultats = new ArrayList<>();
+        for (TextSearchIndex.Hit hit : textSearchIndex.search(q, limit)) {
+            EtablissementSnapshot snapshot = etablissementIndexer.get(hit.id());
+            if (snapshot != null) {
+                resultats.add(new EtablissementSearchResultDTO(
+                        snapshot.id(),
+                        snapshot.nom(),
+                        snapshot.localisation(),
+                        snapshot.type() != null ? snapshot.type().name() : null,
+                        snapshot.latitude(),
+                        snapshot.longitude(),
+                        hit.score()
+                ));
+            }
+        }
+        return resultats;
+    }
+
+    public List<SuggestionDTO> getSuggestions(String prefix, Integer limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return List.of();
+        }
+        if (limit == null || limit < 1 || limit > SuggestionIndex.MAX_SUGGESTIONS) {
+            throw new RuntimeException("Le nombre de suggestions doit être compris entre 1 et " + SuggestionIndex.MAX_SUGGESTIONS);
+        }
+        return suggestionIndex.suggest(prefix, limit).stream()
+                .map(s -> new SuggestionDTO(s.label(), s.kind().name(), s.etablissementId()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Filtre les établissements validés : au moins un des services et un des types
+     * demandés, dans la zone {@code bbox} ("minLon,minLat,maxLon,maxLat") si elle est fournie.
+     */
+    public EtablissementFilterDTO filtrerEtablissements(List<Long> serviceIds, List<String> types, String bbox) {
+        List<Etablissement.TypeEtablissement> typesDemandes = new ArrayList<>();
+        if (types != null) {
+            for (String type : types) {
+                try {
+                    typesDemandes.add(Etablissement.TypeEtablissement.valueOf(type.trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("Type d'établissement invalide: " + type);
+                }
+            }
+        }
+
+        FacetIndex.Result result = facetIndex.filter(
+                Etablissement.Statut.VALIDE,
+                serviceIds != null ? serviceIds : List.of(),
+                typesDemandes,
+                parseBoundingBox(bbox));
+
+        List<EtablissementMarkerDTO> etablissements = new ArrayList<>(result.ids().size());
+        for (Long id : result.ids()) {
+            EtablissementSnapshot snapshot = etablissementIndexer.get(id);
+            if (snapshot != null) {
+                etablissements.add(new EtablissementMarkerDTO(
+                        snapshot.id(),
+                        snapshot.nom(),
+                        snapshot.localisation(),
+                        snapshot.type() != null ? snapshot.type().name() : null,
+                        snapshot.latitude(),
+                        snapshot.longitude()
+                ));
+            }
+        }
+        Map<String, Integer> typeCounts = new LinkedHashMap<>();
+        result.typeCounts().forEach((type, count) -> typeCounts.put(type.name(), count));
+        return new EtablissementFilterDTO(etablissements.size(), etablissements, result.serviceCounts(), typeCounts);
+    }
+
+    private static FacetIndex.BoundingBox parseBoundingBox(String bbox) {
+        if (bbox == null || bbox.trim().isEmpty()) {
+            return null;
+        }
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new RuntimeException("La zone doit être au format minLon,minLat,maxLon,maxLat");
+        }
+        double minLon;
+        double minLat;
+        double maxLon;
+        double maxLat;
+        try {
+            minLon = Double.parseDouble(parts[0].trim());
+            minLat = Double.parseDouble(parts[1].trim());
+            maxLon = Double.parseDouble(parts[2].trim());
+            maxLat = Double.parseDouble(parts[3].trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("La zone doit être au format minLon,minLat,maxLon,maxLat");
+        }
+        if (minLat > maxLat || minLon > maxLon
+                || minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180) {
+            throw new RuntimeException("Zone d'affichage invalide");
+        }
+        return new FacetIndex.BoundingBox(minLat, maxLat, minLon, maxLon);
+    }
+
+    @Transactional
     public void validerEtablissement(Long id) {
         Etablissement etablissement = etablissementRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Établissement non trouvé"));
         etablissement.setStatut(Etablissement.Statut.VALIDE);
-        etablissementRepository.save(etablissement);
+        etablissementIndexer.index(etablissementRepository.save(etablissement));
+        changementService.enregistrer(id, ChangementEtablissement.Operation.UPSERT);
+        publicCaches.etablissementModifie(id);
+        publierStatut(etablissement);
     }
 
+    @Transactional
     public void rejeterEtablissement(Long id) {
         Etablissement etablissement = etablissementRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Établissement non trouvé"));
         etablissement.setStatut(Etablissement.Statut.REJETE);
-        etablissementRepository.save(etablissement);
+        etablissementIndexer.index(etablissementRepository.save(etablissement));
+        changementService.enregistrer(id, ChangementEtablissement.Operation.UPSERT);
+        publicCaches.etablissementModifie(id);
+        publierStatut(etablissement);
     }
 
+    private void publierStatut(Etablissement etablissement) {
+        EtablissementEventDTO event = new EtablissementEventDTO(
+                etablissement.getIdEtablissement(), etablissement.getNom(), etablissement.getStatut().name());
+        AfterCommit.run(() -> eventBus.publish(EventBus.ETABLISSEMENTS, "statut", event));
+    }
+
+    @Transactional
     public void deleteEtablissement(Long id) {
         etablissementRepository.deleteById(id);
+        notationService.supprimerNotes(id);
+        etablissementIndexer.remove(id);
+        changementService.enregistrer(id, ChangementEtablissement.Operation.SUPPRESSION);
+        publicCaches.etablissementSupprime(id);
     }
 
     @Transactional
@@ -104,14 +436,14 @@ public class EtablissementService {
                 existingEtablissement.setLatitude(request.getLatitude());
                 existingEtablissement.setLongitude(request.getLongitude());
                 existingEtablissement.setStatut(Etablissement.Statut.EN_ATTENTE);
-                existingEtablissement.getServices().clear();
-                for (Long serviceId : request.getServiceIds()) {
-                    Service service = serviceRepository.findById(serviceId)
-                            .orElseThrow(() -> new RuntimeException("Service non trouvé: " + serviceId));
-                    existingEtablissement.getServices().add(service);
-                }
-                
-                return etablissementRepository.save(existingEtablissement);
+                Set<Service> services = resoudreServices(request.getServiceIds());
+
+                Etablissement saved = etablissementRepository.save(existingEtablissement);
+                lierServices(saved, services, false);
+                etablissementIndexer.index(saved);
+                changementService.enregistrer(saved.getIdEtablissement(), ChangementEtablissement.Operation.UPSERT);
+                publicCaches.etablissementModifie(saved.getIdEtablissement());
+                return saved;
             } else {
                 throw new RuntimeException("Ce tuteur a déjà un établissement " + existingEtablissement.getStatut() + ". Utilisez la mise à jour pour modifier l'établissement existant.");
             }
@@ -139,17 +471,17 @@ public class EtablissementService {
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Type d'établissement invalide");
         }
-        if (request.getServiceIds() != null) {
-            for (Long serviceId : request.getServiceIds()) {
-                Service service = serviceRepository.findById(serviceId)
-                        .orElseThrow(() -> new RuntimeException("Service non trouvé: " + serviceId));
-                etablissement.addService(service);
-            }
-        }
+        Set<Service> services = resoudreServices(request.getServiceIds());
 
-        return etablissementRepository.save(etablissement);
+        Etablissement saved = etablissementRepository.saveAndFlush(etablissement);
+        lierServices(saved, services, true);
+        etablissementIndexer.index(saved);
+        changementService.enregistrer(saved.getIdEtablissement(), ChangementEtablissement.Operation.UPSERT);
+        publicCaches.etablissementModifie(saved.getIdEtablissement());
+        return saved;
     }
 
+    @Transactional
     public Etablissement updateEtablissement(Long etablissementId, CreateEtablissementRequest request, Long tuteurId) {
         Etablissement etablissement = etablissementRepository.findById(etablissementId)
                 .orElseThrow(() -> new RuntimeException("Établissement non trouvé"));
@@ -177,71 +509,125 @@ public class EtablissementService {
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Type d'établissement invalide");
         }
-        etablissement.getServices().clear();
-        if (request.getServiceIds() != null) {
-            for (Long serviceId : request.getServiceIds()) {
-                Service service = serviceRepository.findById(serviceId)
-                        .orElseThrow(() -> new RuntimeException("Service non trouvé: " + serviceId));
-                etablissement.addService(service);
-            }
+        Set<Service> services = resoudreServices(request.getServiceIds());
+
+        Etablissement saved = etablissementRepository.save(etablissement);
+        lierServices(saved, services, false);
+        etablissementIndexer.index(saved);
+        changementService.enregistrer(saved.getIdEtablissement(), ChangementEtablissement.Operation.UPSERT);
+        publicCaches.etablissementModifie(saved.getIdEtablissement());
+        return saved;
+    }
+
+    /**
+     * Charge les services demandés en une seule requête ; un identifiant absent
+     * de la base est signalé.
+     */
+    private Set<Service> resoudreServices(List<Long> serviceIds) {
+        if (serviceIds == null || serviceIds.isEmpty()) {
+            return new HashSet<>();
         }
+        Set<Long> ids = new LinkedHashSet<>(serviceIds);
+        Set<Service> services = new HashSet<>(serviceRepository.findAllById(ids));
+        if (services.size() != ids.size()) {
+            Set<Long> trouves = services.stream().map(Service::getIdService).collect(Collectors.toSet());
+            ids.removeAll(trouves);
+            throw new RuntimeException("Service non trouvé: " + ids.iterator().next());
+        }
+        return services;
+    }
+
+    /**
+     * Réécrit les liens de l'établissement par différence avec la table de liaison,
+     * et met à jour la collection en mémoire pour l'index et les DTO.
+     */
+    private void lierServices(Etablissement etablissement, Set<Service> services, boolean nouveau) {
+        Long id = etablissement.getIdEtablissement();
+        Set<Long> voulus = services.stream().map(Service::getIdService).collect(Collectors.toSet());
+        Set<Long> actuels = nouveau ? new HashSet<>() : new HashSet<>(etablissementServiceRepository.findServiceIds(id));
 
-        return etablissementRepository.save(etablissement);
+        Set<Long> retires = new HashSet<>(actuels);
+        retires.removeAll(voulus);
+        voulus.removeAll(actuels);
+        etablissementServiceRepository.delier(id, retires);
+        etablissementServiceRepository.lier(id, voulus);
+        etablissement.setServices(services);
     }
 
     public EtablissementPublicDTO getMyEtablissement(Long tuteurId) {
-        Etablissement etablissement = etablissementRepository.findByTuteurIdUtilisateurWithTuteurAndServices(tuteurId)
+        EtablissementLigne ligne = etablissementRepository.findLigneByTuteurId(tuteurId)
                 .orElseThrow(() -> new RuntimeException("Aucun établissement trouvé pour ce tuteur"));
-        return convertToPublicDTO(etablissement);
+        Long id = ligne.id();
+        return convertToPublicDTO(ligne, servicesDe(id), notationService.getNote(id), notationService.getNotesParService(id));
     }
 
-    private EtablissementPublicDTO convertToPublicDTO(Etablissement etablissement) {
-        EtablissementPublicDTO dto = new EtablissementPublicDTO();
-        dto.setId(etablissement.getIdEtablissement());
-        dto.setNom(etablissement.getNom());
-        dto.setLocalisation(etablissement.getLocalisation());
-        dto.setStatut(etablissement.getStatut().name());
-        dto.setLatitude(etablissement.getLatitude());
-        dto.setLongitude(etablissement.getLongitude());
-        
-        if (etablissement.getTuteur() != null) {
-            dto.setTuteurNom(etablissement.getTuteur().getNom());
-            dto.setTuteurPrenom(etablissement.getTuteur().getPrenom());
+    /**
+     * Les DTO sont construits à partir de projections : une requête pour les colonnes
+     * des établissements et de leur tuteur, une seconde pour leurs services, regroupés
+     * ici par établissement en une seule passe.
+     */
+    static Map<Long, List<ServiceDTO>> servicesParEtablissement(List<ServiceLien> liens) {
+        Map<Long, List<ServiceDTO>> services = new HashMap<>();
+        for (ServiceLien lien : liens) {
+            services.computeIfAbsent(lien.etablissementId(), id -> new ArrayList<>())
+                    .add(new ServiceDTO(lien.serviceId(), lien.nom(), lien.description()));
         }
-        
-        List<ServiceDTO> services = etablissement.getServices().stream()
-                .map(s -> new ServiceDTO(s.getIdService(), s.getNom(), s.getDescription()))
-                .collect(Collectors.toList());
+        return services;
+    }
+
+    private List<ServiceDTO> servicesDe(Long id) {
+        return servicesParEtablissement(etablissementRepository.findServiceLiensByIds(List.of(id)))
+                .getOrDefault(id, new ArrayList<>());
+    }
+
+    static List<EtablissementAdminDTO> convertToAdminDTOs(List<EtablissementLigne> lignes, List<ServiceLien> liens) {
+        Map<Long, List<ServiceDTO>> services = servicesParEtablissement(liens);
+        List<EtablissementAdminDTO> dtos = new ArrayList<>(lignes.size());
+        for (EtablissementLigne ligne : lignes) {
+            dtos.add(convertToAdminDTO(ligne, services.getOrDefault(ligne.id(), List.of())));
+        }
+        return dtos;
+    }
+
+    static EtablissementPublicDTO convertToPublicDTO(EtablissementLigne ligne, List<ServiceDTO> services,
+                                                     NoteDTO note, Map<Long, NoteDTO> notesParService) {
+        EtablissementPublicDTO dto = new EtablissementPublicDTO();
+        dto.setId(ligne.id());
+        dto.setNom(ligne.nom());
+        dto.setLocalisation(ligne.localisation());
+        dto.setStatut(ligne.statut().name());
+        dto.setLatitude(ligne.latitude());
+        dto.setLongitude(ligne.longitude());
+        dto.setTuteurNom(ligne.tuteurNom());
+        dto.setTuteurPrenom(ligne.tuteurPrenom());
         dto.setServices(services);
+        dto.setNote(note);
+        dto.setNotesParService(notesParService);
         
         return dto;
     }
 
-    private EtablissementAdminDTO convertToAdminDTO(Etablissement etablissement) {
+    static EtablissementAdminDTO convertToAdminDTO(EtablissementLigne ligne, List<ServiceDTO> services) {
         EtablissementAdminDTO dto = new EtablissementAdminDTO();
-        dto.setId(etablissement.getIdEtablissement());
-        dto.setNom(etablissement.getNom());
-        dto.setLocalisation(etablissement.getLocalisation());
-        dto.setStatut(etablissement.getStatut().name());
-        dto.setLatitude(etablissement.getLatitude());
-        dto.setLongitude(etablissement.getLongitude());
+        dto.setId(ligne.id());
+        dto.setNom(ligne.nom());
+        dto.setLocalisation(ligne.localisation());
+        dto.setStatut(ligne.statut().name());
+        dto.setLatitude(ligne.latitude());
+        dto.setLongitude(ligne.longitude());
         
-        if (etablissement.getTuteur() != null) {
+        if (ligne.tuteurId() != null) {
             TuteurDTO tuteurDTO = new TuteurDTO();
-            tuteurDTO.setId(etablissement.getTuteur().getIdUtilisateur());
-            tuteurDTO.setNom(etablissement.getTuteur().getNom());
-            tuteurDTO.setPrenom(etablissement.getTuteur().getPrenom());
-            tuteurDTO.setEmail(etablissement.getTuteur().getEmail());
+            tuteurDTO.setId(ligne.tuteurId());
+            tuteurDTO.setNom(ligne.tuteurNom());
+            tuteurDTO.setPrenom(ligne.tuteurPrenom());
+            tuteurDTO.setEmail(ligne.tuteurEmail());
             tuteurDTO.setRole("STANDARD");
-            tuteurDTO.setEstActif(etablissement.getTuteur().getEstActif());
+            tuteurDTO.setEstActif(ligne.tuteurActif());
             dto.setTuteur(tuteurDTO);
         }
-        
-        List<ServiceDTO> services = etablissement.getServices().stream()
-                .map(s -> new ServiceDTO(s.getIdService(), s.getNom(), s.getDescription()))
-                .collect(Collectors.toList());
         dto.setServices(services);
         
         return dto;
     }
-}
\ No newline at end of file
+}
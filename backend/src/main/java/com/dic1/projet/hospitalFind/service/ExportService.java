@@ -0,0 +1,377 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports complets des établissements et des avis (anonymisés : ni auteur ni
+ * identifiant d'utilisateur). Les lignes sont lues par un curseur JDBC en avant
+ * seulement et écrites au fil de l'eau : la mémoire utilisée ne dépend pas de la
+ * taille des tables. Les services d'un établissement arrivent sur des lignes
+ * consécutives de la même requête et sont regroupés à la volée.
+ */
+@org.springframework.stereotype.Service
+public class ExportService {
+
+    public enum Jeu {
+        ETABLISSEMENTS, AVIS
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv"),
+        GEOJSON("application/geo+json", "geojson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    public record Export(Jeu jeu, Format format, Etablissement.Statut statut, boolean gzip) {
+
+        public MediaType contentType() {
+            return MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType);
+        }
+
+        public String nomFichier() {
+            return jeu.name().toLowerCase(Locale.ROOT) + "." + format.extension + (gzip ? ".gz" : "");
+        }
+    }
+
+    private static final List<String> COLONNES_ETABLISSEMENT = List.of("id", "nom", "adresse", "localisation",
+            "telephone", "email", "description", "type", "latitude", "longitude", "statut", "services",
+            "nombreAvis", "moyenne");
+
+    private static final List<String> COLONNES_AVIS = List.of("id", "idEtablissement", "etablissement",
+            "idService", "service", "note", "commentaire", "dateCreation");
+
+    private static final String SELECT_ETABLISSEMENTS = "SELECT e.id_etablissement, e.nom, e.adresse, e.localisation, "
+            + "e.telephone, e.email, e.description, e.type_etablissement, e.latitude, e.longitude, e.statut, "
+            + "n.nombre_avis, n.somme_notes, s.nom AS service "
+            + "FROM etablissement e "
+            + "LEFT JOIN note_etablissement n ON n.id_etablissement = e.id_etablissement "
+            + "LEFT JOIN etablissement_service es ON es.id_etablissement = e.id_etablissement "
+            + "LEFT JOIN service s ON s.id_service = es.id_service ";
+
+    private static final String ORDRE_ETABLISSEMENTS = "ORDER BY e.id_etablissement";
+
+    private static final String SELECT_AVIS = "SELECT a.id_avis, a.id_etablissement, e.nom AS etablissement, "
+            + "a.id_service, s.nom AS service, a.note, a.commentaire, a.date_creation "
+            + "FROM avis a "
+            + "LEFT JOIN etablissement e ON e.id_etablissement = a.id_etablissement "
+            + "LEFT JOIN service s ON s.id_service = a.id_service "
+            + "ORDER BY a.id_avis";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate curseur;
+
+    /**
+     * Le pilote MySQL charge tout le résultat en mémoire sauf avec une taille de lot
+     * {@code Integer.MIN_VALUE}, qui lui fait lire les lignes une à une.
+     */
+    @PostConstruct
+    void init() {
+        curseur = new JdbcTemplate(dataSource);
+        String produit;
+        try {
+            produit = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            produit = "";
+        }
+        curseur.setFetchSize("MySQL".equalsIgnoreCase(produit) ? Integer.MIN_VALUE : 1000);
+    }
+
+    public Export preparer(String jeu, String format, String statut, boolean gzip) {
+        Jeu jeuExport;
+        Format formatExport;
+        try {
+            jeuExport = Jeu.valueOf(jeu.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Export inconnu: " + jeu);
+        }
+        try {
+            formatExport = Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Format invalide: " + format);
+        }
+        if (jeuExport == Jeu.AVIS && formatExport == Format.GEOJSON) {
+            throw new RuntimeException("Le format GeoJSON n'est disponible que pour les établissements");
+        }
+        Etablissement.Statut statutExport = null;
+        if (statut != null && !statut.isBlank()) {
+            if (jeuExport != Jeu.ETABLISSEMENTS) {
+                throw new RuntimeException("Le filtre par statut ne s'applique qu'aux établissements");
+            }
+            try {
+                statutExport = Etablissement.Statut.valueOf(statut.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Statut invalide: " + statut);
+            }
+        }
+        return new Export(jeuExport, formatExport, statutExport, gzip);
+    }
+
+    public void ecrire(Export export, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = export.gzip() ? new GZIPOutputStream(out, 64 * 1024) : null;
+        OutputStream destination = gzip != null ? gzip : out;
+        List<String> colonnes = export.jeu() == Jeu.ETABLISSEMENTS ? COLONNES_ETABLISSEMENT : COLONNES_AVIS;
+        try (Sortie sortie = ouvrir(export.format(), destination, colonnes)) {
+            if (export.jeu() == Jeu.ETABLISSEMENTS) {
+                exporterEtablissements(export.statut(), sortie);
+            } else {
+                exporterAvis(sortie);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (gzip != null) {
+            gzip.finish();
+        }
+        out.flush();
+    }
+
+    private void exporterEtablissements(Etablissement.Statut statut, Sortie sortie) throws IOException {
+        Object[] parametres = statut == null ? new Object[0] : new Object[]{statut.name()};
+        String sql = SELECT_ETABLISSEMENTS + (statut == null ? "" : "WHERE e.statut = ? ") + ORDRE_ETABLISSEMENTS;
+        Regroupement regroupement = new Regroupement();
+
+        curseur.query(sql, rs -> {
+            long id = rs.getLong("id_etablissement");
+            if (regroupement.courant == null || regroupement.id != id) {
+                if (regroupement.courant != null) {
+                    emettre(sortie, regroupement.courant);
+                }
+                regroupement.id = id;
+                regroupement.services = new ArrayList<>();
+                regroupement.courant = ligneEtablissement(rs, id, regroupement.services);
+            }
+            String service = rs.getString("service");
+            if (service != null) {
+                regroupement.services.add(service);
+            }
+        }, parametres);
+        if (regroupement.courant != null) {
+            sortie.ecrire(regroupement.courant);
+        }
+    }
+
+    /** Établissement en cours de lecture : ses services arrivent sur des lignes consécutives. */
+    private static final class Regroupement {
+        private long id;
+        private Map<String, Object> courant;
+        private List<String> services;
+    }
+
+    private void exporterAvis(Sortie sortie) {
+        curseur.query(SELECT_AVIS, rs -> {
+            Map<String, Object> ligne = new LinkedHashMap<>();
+            ligne.put("id", rs.getLong("id_avis"));
+            ligne.put("idEtablissement", entier(rs, "id_etablissement"));
+            ligne.put("etablissement", rs.getString("etablissement"));
+            ligne.put("idService", entier(rs, "id_service"));
+            ligne.put("service", rs.getString("service"));
+            ligne.put("note", entier(rs, "note"));
+            ligne.put("commentaire", rs.getString("commentaire"));
+            Timestamp date = rs.getTimestamp("date_creation");
+            ligne.put("dateCreation", date == null ? null : date.toLocalDateTime().toString());
+            emettre(sortie, ligne);
+        });
+    }
+
+    private static Map<String, Object> ligneEtablissement(ResultSet rs, long id, List<String> services) throws SQLException {
+        Map<String, Object> ligne = new LinkedHashMap<>();
+        ligne.put("id", id);
+        ligne.put("nom", rs.getString("nom"));
+        ligne.put("adresse", rs.getString("adresse"));
+        ligne.put("localisation", rs.getString("localisation"));
+        ligne.put("telephone", rs.getString("telephone"));
+        ligne.put("email", rs.getString("email"));
+        ligne.put("description", rs.getString("description"));
+        ligne.put("type", rs.getString("type_etablissement"));
+        ligne.put("latitude", decimal(rs, "latitude"));
+        ligne.put("longitude", decimal(rs, "longitude"));
+        ligne.put("statut", rs.getString("statut"));
+        ligne.put("services", services);
+        long nombreAvis = rs.getLong("nombre_avis");
+        long sommeNotes = rs.getLong("somme_notes");
+        ligne.put("nombreAvis", nombreAvis);
+        ligne.put("moyenne", nombreAvis > 0 ? Math.round(sommeNotes * 100.0 / nombreAvis) / 100.0 : null);
+        return ligne;
+    }
+
+    private static void emettre(Sortie sortie, Map<String, Object> ligne) {
+        try {
+            sortie.ecrire(ligne);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Long entier(ResultSet rs, String colonne) throws SQLException {
+        long valeur = rs.getLong(colonne);
+        return rs.wasNull() ? null : valeur;
+    }
+
+    private static Double decimal(ResultSet rs, String colonne) throws SQLException {
+        double valeur = rs.getDouble(colonne);
+        return rs.wasNull() ? null : valeur;
+    }
+
+    private Sortie ouvrir(Format format, OutputStream out, List<String> colonnes) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonSortie(json(out));
+            case CSV -> new CsvSortie(out, colonnes);
+            case GEOJSON -> new GeoJsonSortie(json(out));
+        };
+    }
+
+    private JsonGenerator json(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private interface Sortie extends Closeable {
+        void ecrire(Map<String, Object> ligne) throws IOException;
+    }
+
+    private static final class NdjsonSortie implements Sortie {
+        private final JsonGenerator generator;
+
+        private NdjsonSortie(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void ecrire(Map<String, Object> ligne) throws IOException {
+            generator.writeObject(ligne);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class GeoJsonSortie implements Sortie {
+        private final JsonGenerator generator;
+
+        private GeoJsonSortie(JsonGenerator generator) throws IOException {
+            this.generator = generator;
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+        }
+
+        @Override
+        public void ecrire(Map<String, Object> ligne) throws IOException {
+            Object latitude = ligne.remove("latitude");
+            Object longitude = ligne.remove("longitude");
+            generator.writeStartObject();
+            generator.writeStringField("type", "Feature");
+            if (latitude != null && longitude != null) {
+                generator.writeObjectFieldStart("geometry");
+                generator.writeStringField("type", "Point");
+                generator.writeArrayFieldStart("coordinates");
+                generator.writeNumber((Double) longitude);
+                generator.writeNumber((Double) latitude);
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } else {
+                generator.writeNullField("geometry");
+            }
+            generator.writeObjectField("properties", ligne);
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.close();
+        }
+    }
+
+    private static final class CsvSortie implements Sortie {
+        private final Writer writer;
+        private final List<String> colonnes;
+
+        private CsvSortie(OutputStream out, List<String> colonnes) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.colonnes = colonnes;
+            for (int i = 0; i < colonnes.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(colonnes.get(i));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void ecrire(Map<String, Object> ligne) throws IOException {
+            for (int i = 0; i < colonnes.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object valeur = ligne.get(colonnes.get(i));
+                if (valeur instanceof List<?> liste) {
+                    valeur = String.join("|", liste.stream().map(String::valueOf).toList());
+                }
+                if (valeur != null) {
+                    writer.write(echapper(valeur.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String echapper(String valeur) {
+            if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0 && valeur.indexOf('\r') < 0) {
+                return valeur;
+            }
+            return '"' + valeur.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.dto.NoteDTO;
+import com.dic1.projet.hospitalFind.entity.Avis;
+import com.dic1.projet.hospitalFind.entity.NoteEtablissement;
+import com.dic1.projet.hospitalFind.entity.NoteServiceEtablissement;
+import com.dic1.projet.hospitalFind.entity.StatistiquesNotes;
+import com.dic1.projet.hospitalFind.index.AfterCommit;
+import com.dic1.projet.hospitalFind.index.SuggestionIndex;
+import com.dic1.projet.hospitalFind.repository.AvisRepository;
+import com.dic1.projet.hospitalFind.repository.NoteEtablissementRepository;
+import com.dic1.projet.hospitalFind.repository.NoteServiceEtablissementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrégats de notes par établissement et par (établissement, service).
+ * Ils sont modifiés dans la transaction de l'avis par des upserts atomiques,
+ * et lus sans jamais parcourir la table AVIS.
+ */
+@org.springframework.stereotype.Service
+@Transactional(readOnly = true)
+public class NotationService {
+
+    @Autowired
+    private NoteEtablissementRepository noteEtablissementRepository;
+
+    @Autowired
+    private NoteServiceEtablissementRepository noteServiceEtablissementRepository;
+
+    @Autowired
+    private AvisRepository avisRepository;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    /**
+     * Reconstruit les agrégats à partir des avis existants au premier démarrage,
+     * avant le chargement des index en mémoire.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void initialiser() {
+        if (noteEtablissementRepository.count() > 0 || avisRepository.count() == 0) {
+            return;
+        }
+        Map<Long, NoteEtablissement> parEtablissement = new HashMap<>();
+        Map<NoteServiceEtablissement.Cle, NoteServiceEtablissement> parService = new HashMap<>();
+        for (Object[] row : avisRepository.countByEtablissementServiceAndNote()) {
+            Long etablissementId = (Long) row[0];
+            Long serviceId = (Long) row[1];
+            int note = ((Number) row[2]).intValue();
+            long nombre = ((Number) row[3]).longValue();
+            parEtablissement.computeIfAbsent(etablissementId, NoteEtablissement::new)
+                    .getStatistiques().ajouter(note, nombre);
+            if (serviceId != null) {
+                parService.computeIfAbsent(new NoteServiceEtablissement.Cle(etablissementId, serviceId),
+                                cle -> new NoteServiceEtablissement(cle.getIdEtablissement(), cle.getIdService()))
+                        .getStatistiques().ajouter(note, nombre);
+            }
+        }
+        noteEtablissementRepository.saveAll(parEtablissement.values());
+        noteServiceEtablissementRepository.saveAll(parService.values());
+    }
+
+    @Transactional
+    public void ajouterAvis(Avis avis) {
+        modifier(avis, 1);
+    }
+
+    @Transactional
+    public void retirerAvis(Avis avis) {
+        modifier(avis, -1);
+    }
+
+    /**
+     * Supprime les agrégats d'un établissement dont tous les avis viennent d'être supprimés.
+     */
+    @Transactional
+    public void supprimerNotes(Long etablissementId) {
+        noteEtablissementRepository.findForUpdate(etablissementId).ifPresent(note -> {
+            StatistiquesNotes statistiques = note.getStatistiques();
+            int nombre = (int) statistiques.getNombreAvis();
+            int somme = (int) statistiques.getSommeNotes();
+            noteEtablissementRepository.delete(note);
+            AfterCommit.run(() -> suggestionIndex.adjustNotes(etablissementId, -nombre, -somme));
+        });
+        noteServiceEtablissementRepository.deleteByEtablissement(etablissementId);
+    }
+
+    public NoteDTO getNote(Long etablissementId) {
+        return noteEtablissementRepository.findById(etablissementId)
+                .map(n -> toDTO(n.getStatistiques()))
+                .orElse(null);
+    }
+
+    public Map<Long, NoteDTO> getNotesParService(Long etablissementId) {
+        Map<Long, NoteDTO> notes = new HashMap<>();
+        for (NoteServiceEtablissement note : noteServiceEtablissementRepository.findByEtablissement(etablissementId)) {
+            notes.put(note.getCle().getIdService(), toDTO(note.getStatistiques()));
+        }
+        return notes;
+    }
+
+    public Map<Long, NoteDTO> getNotes(Collection<Long> etablissementIds) {
+        Map<Long, NoteDTO> notes = new HashMap<>();
+        for (NoteEtablissement note : noteEtablissementRepository.findAllById(etablissementIds)) {
+            notes.put(note.getIdEtablissement(), toDTO(note.getStatistiques()));
+        }
+        return notes;
+    }
+
+    public Map<Long, Map<Long, NoteDTO>> getNotesParService(Collection<Long> etablissementIds) {
+        Map<Long, Map<Long, NoteDTO>> notes = new HashMap<>();
+        for (NoteServiceEtablissement note : noteServiceEtablissementRepository.findByEtablissements(etablissementIds)) {
+            notes.computeIfAbsent(note.getCle().getIdEtablissement(), id -> new HashMap<>())
+                    .put(note.getCle().getIdService(), toDTO(note.getStatistiques()));
+        }
+        return notes;
+    }
+
+    public Map<Long, NoteDTO> getToutesLesNotes() {
+        Map<Long, NoteDTO> notes = new HashMap<>();
+        for (NoteEtablissement note : noteEtablissementRepository.findAll()) {
+            notes.put(note.getIdEtablissement(), toDTO(note.getStatistiques()));
+        }
+        return notes;
+    }
+
+    public Map<Long, Map<Long, NoteDTO>> getToutesLesNotesParService() {
+        Map<Long, Map<Long, NoteDTO>> notes = new HashMap<>();
+        for (NoteServiceEtablissement note : noteServiceEtablissementRepository.findAll()) {
+            notes.computeIfAbsent(note.getCle().getIdEtablissement(), id -> new HashMap<>())
+                    .put(note.getCle().getIdService(), toDTO(note.getStatistiques()));
+        }
+        return notes;
+    }
+
+    private void modifier(Avis avis, int delta) {
+        if (avis.getNote() == null || avis.getEtablissement() == null) {
+            return;
+        }
+        Long etablissementId = avis.getEtablissement().getIdEtablissement();
+        int note = avis.getNote();
+        if (note < 1 || note > 5) {
+            throw new RuntimeException("La note doit être comprise entre 1 et 5");
+        }
+
+        noteEtablissementRepository.ajouter(etablissementId, note, delta);
+        if (delta < 0) {
+            noteEtablissementRepository.supprimerSiVide(etablissementId);
+        }
+
+        if (avis.getService() != null) {
+            Long serviceId = avis.getService().getIdService();
+            noteServiceEtablissementRepository.ajouter(etablissementId, serviceId, note, delta);
+            if (delta < 0) {
+                noteServiceEtablissementRepository.supprimerSiVide(new NoteServiceEtablissement.Cle(etablissementId, serviceId));
+            }
+        }
+
+        AfterCommit.run(() -> suggestionIndex.adjustNotes(etablissementId, delta, delta * note));
+    }
+
+    private static NoteDTO toDTO(StatistiquesNotes statistiques) {
+        long[] histogramme = statistiques.histogramme();
+        return new NoteDTO(statistiques.getNombreAvis(), statistiques.moyenne(),
+                List.of(histogramme[0], histogramme[1], histogramme[2], histogramme[3], histogramme[4]));
+    }
+}
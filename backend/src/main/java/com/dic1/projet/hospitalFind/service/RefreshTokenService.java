@@ -0,0 +1,98 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.entity.RefreshToken;
+import com.dic1.projet.hospitalFind.repository.RefreshTokenRepository;
+import com.dic1.projet.hospitalFind.security.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Émission et rotation des jetons de rafraîchissement. Le jeton remis au client est
+ * une valeur aléatoire ; seule son empreinte est stockée.
+ */
+@org.springframework.stereotype.Service
+@Transactional
+public class RefreshTokenService {
+
+    /**
+     * Issue d'un rafraîchissement : le nouveau jeton, ou {@code reutilise} si le jeton
+     * présenté avait déjà servi (sa famille vient alors d'être supprimée).
+     */
+    public record Rotation(Long idUtilisateur, String famille, String refreshToken, boolean reutilise) {
+    }
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+
+    public String emettre(Long idUtilisateur, String famille) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String brut = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setEmpreinte(JwtUtil.sha256(brut));
+        refreshToken.setIdUtilisateur(idUtilisateur);
+        refreshToken.setFamille(famille);
+        refreshToken.setDateExpiration(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)));
+        refreshTokenRepository.save(refreshToken);
+        return brut;
+    }
+
+    /**
+     * Échange un jeton contre le suivant de sa famille. La ligne est verrouillée pour
+     * que deux rafraîchissements simultanés du même jeton ne réussissent pas tous deux.
+     */
+    public Rotation consommer(String brut) {
+        RefreshToken refreshToken = refreshTokenRepository.findForUpdate(JwtUtil.sha256(brut))
+                .orElseThrow(() -> new RuntimeException("Jeton de rafraîchissement invalide"));
+
+        if (refreshToken.getUtilise()) {
+            refreshTokenRepository.deleteByFamille(refreshToken.getFamille());
+            return new Rotation(refreshToken.getIdUtilisateur(), refreshToken.getFamille(), null, true);
+        }
+        if (refreshToken.getDateExpiration().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Jeton de rafraîchissement expiré");
+        }
+
+        refreshToken.setUtilise(true);
+        String suivant = emettre(refreshToken.getIdUtilisateur(), refreshToken.getFamille());
+        return new Rotation(refreshToken.getIdUtilisateur(), refreshToken.getFamille(), suivant, false);
+    }
+
+    /**
+     * Supprime la famille du jeton et la renvoie, ou {@code null} si le jeton est inconnu.
+     */
+    public String revoquer(String brut) {
+        return refreshTokenRepository.findByEmpreinte(JwtUtil.sha256(brut))
+                .map(refreshToken -> {
+                    refreshTokenRepository.deleteByFamille(refreshToken.getFamille());
+                    return refreshToken.getFamille();
+                })
+                .orElse(null);
+    }
+
+    public void revoquerFamille(String famille) {
+        refreshTokenRepository.deleteByFamille(famille);
+    }
+
+    public void revoquerUtilisateur(Long idUtilisateur) {
+        refreshTokenRepository.deleteByUtilisateur(idUtilisateur);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-purge-cron:0 30 3 * * *}")
+    public void purger() {
+        refreshTokenRepository.deleteExpires(LocalDateTime.now());
+    }
+}
@@ -1,10 +1,16 @@
 package com.dic1.projet.hospitalFind.service;
 
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
 import com.dic1.projet.hospitalFind.dto.CreateServiceRequest;
 import com.dic1.projet.hospitalFind.dto.ServiceDTO;
+import com.dic1.projet.hospitalFind.entity.ChangementEtablissement;
 import com.dic1.projet.hospitalFind.entity.Service;
+import com.dic1.projet.hospitalFind.index.EtablissementIndexer;
+import com.dic1.projet.hospitalFind.repository.EtablissementRepository;
 import com.dic1.projet.hospitalFind.repository.ServiceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,12 +21,26 @@ public class ServiceService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private EtablissementIndexer etablissementIndexer;
+
+    @Autowired
+    private PublicCaches publicCaches;
+
+    @Autowired
+    private EtablissementRepository etablissementRepository;
+
+    @Autowired
+    private ChangementService changementService;
+
+    @Cacheable(cacheNames = PublicCaches.SERVICES, key = "'all'")
     public List<ServiceDTO> getAllServices() {
         return serviceRepository.findAll().stream()
                 .map(s -> new ServiceDTO(s.getIdService(), s.getNom(), s.getDescription()))
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = PublicCaches.SERVICE, key = "#id")
     public ServiceDTO getServiceById(Long id) {
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Service non trouvé"));
@@ -31,10 +51,17 @@ public class ServiceService {
         Service service = new Service();
         service.setNom(request.getNom());
         service.setDescription(request.getDescription());
-        return serviceRepository.save(service);
+        Service saved = serviceRepository.save(service);
+        publicCaches.serviceCree();
+        return saved;
     }
 
+    @Transactional
     public void deleteService(Long id) {
+        List<Long> etablissementIds = etablissementRepository.findIdsByServiceId(id);
         serviceRepository.deleteById(id);
+        changementService.enregistrer(etablissementIds, ChangementEtablissement.Operation.UPSERT);
+        etablissementIndexer.removeService(id);
+        publicCaches.serviceSupprime(id);
     }
 }
\ No newline at end of file
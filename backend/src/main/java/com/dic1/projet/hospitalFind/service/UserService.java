@@ -3,10 +3,13 @@ package com.dic1.projet.hospitalFind.service;
 import com.dic1.projet.hospitalFind.dto.TuteurDTO;
 import com.dic1.projet.hospitalFind.entity.Tuteur;
 import com.dic1.projet.hospitalFind.entity.Utilisateur;
+import com.dic1.projet.hospitalFind.index.AfterCommit;
 import com.dic1.projet.hospitalFind.repository.TuteurRepository;
 import com.dic1.projet.hospitalFind.repository.UtilisateurRepository;
+import com.dic1.projet.hospitalFind.security.RevocationList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,6 +23,12 @@ public class UserService {
     @Autowired
     private TuteurRepository tuteurRepository;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevocationList revocationList;
+
     public List<Object> getAllUsers() {
         List<Utilisateur> users = utilisateurRepository.findAll();
         return users.stream().map(user -> {
@@ -72,4 +81,21 @@ public class UserService {
             return dto;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Active ou désactive un tuteur. La désactivation supprime ses jetons de
+     * rafraîchissement et refuse aussitôt ses jetons d'accès encore valides.
+     */
+    @Transactional
+    public void setActif(Long id, boolean actif) {
+        Tuteur tuteur = tuteurRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Tuteur non trouvé"));
+        tuteur.setEstActif(actif);
+        tuteurRepository.save(tuteur);
+
+        if (!actif) {
+            refreshTokenService.revoquerUtilisateur(id);
+            AfterCommit.run(() -> revocationList.revokeUser(id));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.index.EtablissementIndexer;
+import com.dic1.projet.hospitalFind.index.EtablissementSnapshot;
+import com.dic1.projet.hospitalFind.index.SpatialIndex;
+import com.dic1.projet.hospitalFind.index.TileCache;
+import com.dic1.projet.hospitalFind.index.VectorTileEncoder;
+import com.dic1.projet.hospitalFind.index.WebMercator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.DigestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@org.springframework.stereotype.Service
+public class VectorTileService {
+
+    private static final String LAYER_NAME = "etablissements";
+
+    /** Marge en degrés pour ne pas perdre un point posé sur le bord de la tuile. */
+    private static final double BOUNDS_MARGIN = 1e-7;
+
+    @Autowired
+    private TileCache tileCache;
+
+    @Autowired
+    private SpatialIndex spatialIndex;
+
+    @Autowired
+    private EtablissementIndexer etablissementIndexer;
+
+    public TileCache.CachedTile getTile(int z, int x, int y) {
+        if (z < 0 || z > TileCache.MAX_TILE_ZOOM) {
+            throw new RuntimeException("Le zoom doit être compris entre 0 et " + TileCache.MAX_TILE_ZOOM);
+        }
+        long tilesPerSide = 1L << z;
+        if (x < 0 || y < 0 || x >= tilesPerSide || y >= tilesPerSide) {
+            throw new RuntimeException("Tuile hors limites");
+        }
+
+        TileCache.CachedTile cached = tileCache.get(z, x, y);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = tileCache.stamp();
+        byte[] data = render(z, x, y);
+        TileCache.CachedTile tile = new TileCache.CachedTile(data, "\"" + DigestUtils.md5DigestAsHex(data) + "\"");
+        tileCache.put(z, x, y, tile, stamp);
+        return tile;
+    }
+
+    private byte[] render(int z, int x, int y) {
+        double tilesPerSide = 1L << z;
+        double minLon = WebMercator.lon(x / tilesPerSide) - BOUNDS_MARGIN;
+        double maxLon = WebMercator.lon((x + 1) / tilesPerSide) + BOUNDS_MARGIN;
+        double maxLat = WebMercator.lat(y / tilesPerSide) + BOUNDS_MARGIN;
+        double minLat = WebMercator.lat((y + 1) / tilesPerSide) - BOUNDS_MARGIN;
+
+        VectorTileEncoder encoder = new VectorTileEncoder(LAYER_NAME);
+        for (Long id : spatialIndex.withinBounds(minLat, maxLat, minLon, maxLon)) {
+            EtablissementSnapshot snapshot = etablissementIndexer.get(id);
+            if (snapshot == null) {
+                continue;
+            }
+            double mercatorX = WebMercator.x(snapshot.longitude());
+            double mercatorY = WebMercator.y(snapshot.latitude());
+            // Un point appartient à une seule tuile : la même règle que l'invalidation du cache.
+            if (WebMercator.cell(mercatorX, z) != x || WebMercator.cell(mercatorY, z) != y) {
+                continue;
+            }
+
+            int tileX = toTileCoordinate(mercatorX * tilesPerSide - x);
+            int tileY = toTileCoordinate(mercatorY * tilesPerSide - y);
+
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("nom", snapshot.nom());
+            attributes.put("type", snapshot.type() != null ? snapshot.type().name() : null);
+            attributes.put("services", snapshot.serviceIds().stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+            encoder.addPoint(snapshot.id(), tileX, tileY, attributes);
+        }
+        return encoder.encode();
+    }
+
+    private static int toTileCoordinate(double fraction) {
+        int coordinate = (int) Math.floor(fraction * VectorTileEncoder.EXTENT);
+        return Math.min(Math.max(coordinate, 0), VectorTileEncoder.EXTENT - 1);
+    }
+}
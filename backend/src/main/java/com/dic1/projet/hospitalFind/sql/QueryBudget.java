@@ -0,0 +1,119 @@
+package com.dic1.projet.hospitalFind.sql;
+
+import jakarta.annotation.PostConstruct;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compte les requêtes SQL émises par Hibernate pendant une requête HTTP.
+ * <p>
+ * Le compteur est attaché au thread qui traite la requête ({@link QueryBudgetFilter}) :
+ * le travail confié à un autre pool (hachage des mots de passe, exports, tâches de
+ * fond) et les accès JDBC directs ne sont pas comptés. Une même requête SQL répétée
+ * au moins {@code sql.budget.max-repeats} fois est signalée comme un N+1.
+ * En mode {@code fail}, la requête SQL qui dépasse le budget lève une exception.
+ */
+@Component
+public class QueryBudget implements StatementInspector, HibernatePropertiesCustomizer {
+
+    public enum Mode {
+        OFF, WARN, FAIL
+    }
+
+    /** Bilan d'une requête HTTP. {@code repetee} est la requête SQL la plus répétée. */
+    public record Bilan(int total, String repetee, int repetitions) {
+    }
+
+    private static final ThreadLocal<Compteur> COURANT = new ThreadLocal<>();
+
+    @Value("${sql.budget.mode:warn}")
+    private String modeConfigure;
+
+    @Value("${sql.budget.max-queries:20}")
+    private int maxQueries;
+
+    @Value("${sql.budget.max-repeats:5}")
+    private int maxRepeats;
+
+    private Mode mode;
+
+    private static final class Compteur {
+        private final Map<String, Integer> parRequete = new HashMap<>();
+        private int total;
+        private String repetee;
+        private int repetitions;
+    }
+
+    @PostConstruct
+    void init() {
+        mode = Mode.valueOf(modeConfigure.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (mode != Mode.OFF) {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Compteur compteur = COURANT.get();
+        if (compteur == null) {
+            return sql;
+        }
+        compteur.total++;
+        int repetitions = compteur.parRequete.merge(sql, 1, Integer::sum);
+        if (repetitions > compteur.repetitions) {
+            compteur.repetee = sql;
+            compteur.repetitions = repetitions;
+        }
+        if (mode == Mode.FAIL) {
+            if (compteur.total == maxQueries + 1) {
+                throw new RuntimeException("Budget SQL dépassé : plus de " + maxQueries + " requêtes");
+            }
+            if (repetitions == maxRepeats) {
+                throw new RuntimeException("Requête N+1 détectée (" + repetitions + " fois) : " + sql);
+            }
+        }
+        return sql;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public int maxQueries() {
+        return maxQueries;
+    }
+
+    public int maxRepeats() {
+        return maxRepeats;
+    }
+
+    boolean estNPlusUn(Bilan bilan) {
+        return bilan.repetitions() >= maxRepeats;
+    }
+
+    boolean estDepasse(Bilan bilan) {
+        return bilan.total() > maxQueries;
+    }
+
+    void ouvrir() {
+        COURANT.set(new Compteur());
+    }
+
+    Bilan fermer() {
+        Compteur compteur = COURANT.get();
+        COURANT.remove();
+        return compteur == null ? new Bilan(0, null, 0)
+                : new Bilan(compteur.total, compteur.repetee, compteur.repetitions);
+    }
+}
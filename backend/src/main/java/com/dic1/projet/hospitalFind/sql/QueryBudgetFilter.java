@@ -0,0 +1,83 @@
+package com.dic1.projet.hospitalFind.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Ouvre un compteur {@link QueryBudget} pour chaque requête HTTP, puis publie le nombre
+ * de requêtes SQL par route ({@code http.server.sql.queries}) et les N+1 détectés
+ * ({@code http.server.sql.n-plus-one}). En mode {@code warn}, un dépassement est journalisé.
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return queryBudget.mode() == QueryBudget.Mode.OFF;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        queryBudget.ouvrir();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            publier(request, queryBudget.fermer());
+        }
+    }
+
+    private void publier(HttpServletRequest request, QueryBudget.Bilan bilan) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.sql.queries")
+                .description("Requêtes SQL Hibernate par requête HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(bilan.total());
+
+        boolean nPlusUn = queryBudget.estNPlusUn(bilan);
+        if (nPlusUn) {
+            Counter.builder("http.server.sql.n-plus-one")
+                    .description("Requêtes HTTP qui répètent une même requête SQL")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (queryBudget.mode() != QueryBudget.Mode.WARN) {
+            return;
+        }
+        if (queryBudget.estDepasse(bilan)) {
+            log.warn("{} {} : {} requêtes SQL (budget {})",
+                    request.getMethod(), uri, bilan.total(), queryBudget.maxQueries());
+        }
+        if (nPlusUn) {
+            log.warn("{} {} : N+1 probable, requête exécutée {} fois : {}",
+                    request.getMethod(), uri, bilan.repetitions(), bilan.repetee());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.dic1.projet.hospitalFind.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bus d'événements en mémoire vers les abonnés Server-Sent Events.
+ * <p>
+ * Une connexion inactive ne tient aucun thread : la requête est asynchrone et
+ * n'occupe un thread d'envoi que lorsqu'il y a quelque chose à écrire. Par défaut
+ * chaque envoi a son thread virtuel : une écriture bloquée sur un socket lent ne
+ * retient que son abonné.
+ * Chaque abonné a une file bornée ; un client trop lent pour la vider, ou dont une
+ * écriture dépasse {@code stream.write-timeout-ms}, est déconnecté plutôt que de
+ * retenir la mémoire ou les threads d'envoi, et son navigateur se reconnecte de lui-même.
+ * Une écriture déjà bloquée dans Tomcat ne se termine qu'à l'expiration de
+ * {@code server.tomcat.connection-timeout} : seul le thread qui écrit l'attend.
+ */
+@Component
+public class EventBus {
+
+    public static final String ETABLISSEMENTS = "etablissements";
+
+    public static String avis(Long etablissementId) {
+        return "avis/" + etablissementId;
+    }
+
+    private record Event(long id, String name, String data) {
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${stream.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /** 0 : un thread virtuel par envoi ; sinon taille d'un pool de threads classiques. */
+    @Value("${stream.dispatch-threads:0}")
+    private int dispatchThreads;
+
+    @Value("${stream.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    void start() {
+        if (dispatchThreads <= 0) {
+            dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        for (Set<Subscriber> subscribers : topics.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.close();
+            }
+        }
+    }
+
+    public SseEmitter subscribe(String topic) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        topics.compute(topic, (t, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriber.offer(new Event(0, null, null));
+        return emitter;
+    }
+
+    /**
+     * Envoie {@code data} (sérialisé une seule fois en JSON) à tous les abonnés du sujet.
+     */
+    public void publish(String topic, String name, Object data) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Événement non sérialisable: " + name, e);
+        }
+        Event event = new Event(eventIds.incrementAndGet(), name, json);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Commentaire périodique : garde les connexions ouvertes à travers les proxys
+     * et détecte les clients partis.
+     */
+    @Scheduled(fixedDelayString = "${stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Event ping = new Event(0, null, null);
+        for (Set<Subscriber> subscribers : topics.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(ping);
+            }
+        }
+    }
+
+    /**
+     * Déconnecte les abonnés dont l'écriture en cours dure depuis plus de
+     * {@code stream.write-timeout-ms} et interrompt le thread qui écrit.
+     */
+    @Scheduled(fixedDelayString = "${stream.write-timeout-ms:10000}")
+    public void surveillerEcritures() {
+        long limite = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        for (Set<Subscriber> subscribers : topics.values()) {
+            for (Subscriber subscriber : subscribers) {
+                long debut = subscriber.writeStartedAt;
+                if (debut != 0 && debut - limite < 0) {
+                    droppedSubscribers.incrementAndGet();
+                    subscriber.close();
+                    subscriber.interruptWriter();
+                }
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        int count = 0;
+        for (Set<Subscriber> subscribers : topics.values()) {
+            count += subscribers.size();
+        }
+        return count;
+    }
+
+    public long droppedSubscribers() {
+        return droppedSubscribers.get();
+    }
+
+    private final class Subscriber implements Runnable {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Event> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final ReentrantLock writerLock = new ReentrantLock();
+        private volatile boolean closed;
+        private volatile long writeStartedAt;
+        private Thread writer;
+
+        private Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        private void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedSubscribers.incrementAndGet();
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            setWriter(Thread.currentThread());
+            try {
+                Event event;
+                while (!closed && (event = queue.poll()) != null) {
+                    writeStartedAt = System.nanoTime();
+                    if (event.name() == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(Long.toString(event.id())).name(event.name()).data(event.data()));
+                    }
+                    writeStartedAt = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                writeStartedAt = 0;
+                setWriter(null);
+                scheduled.set(false);
+                if (closed) {
+                    complete();
+                } else if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        /**
+         * Le thread n'est interrompu que pendant qu'il écrit pour cet abonné :
+         * l'interruption ne doit pas déborder sur la tâche suivante d'un pool.
+         */
+        private void setWriter(Thread thread) {
+            writerLock.lock();
+            try {
+                writer = thread;
+                if (thread == null) {
+                    Thread.interrupted();
+                }
+            } finally {
+                writerLock.unlock();
+            }
+        }
+
+        private void interruptWriter() {
+            writerLock.lock();
+            try {
+                if (writer != null) {
+                    writer.interrupt();
+                }
+            } finally {
+                writerLock.unlock();
+            }
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                remove();
+                completeUnlessWriting();
+            }
+        }
+
+        /**
+         * {@code send} et {@code complete} se synchronisent sur l'emitter : appelé pendant
+         * une écriture bloquée, {@code complete} retiendrait l'appelant (publication,
+         * surveillance) aussi longtemps qu'elle. Le thread qui écrit termine alors lui-même
+         * en sortant de {@link #run()}.
+         */
+        private void completeUnlessWriting() {
+            writerLock.lock();
+            try {
+                if (writer != null) {
+                    return;
+                }
+            } finally {
+                writerLock.unlock();
+            }
+            complete();
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+
+        private void remove() {
+            closed = true;
+            queue.clear();
+            topics.computeIfPresent(topic, (t, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.dic1.projet.hospitalFind.benchmark;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Jeu de données synthétique et reproductible : des établissements répartis autour
+ * des chefs-lieux des 14 régions du Sénégal, avec leurs services et leurs notes.
+ * Les valeurs sont calculées à la demande à partir de l'indice, pour que les
+ * benchmarks et le test de charge ne construisent que les objets dont ils ont besoin.
+ */
+public final class SyntheticDataset {
+
+    public record Region(String nom, double latitude, double longitude, double poids) {
+    }
+
+    /** Le poids approche la part de la population : Dakar concentre l'offre de soins. */
+    public static final List<Region> REGIONS = List.of(
+            new Region("Dakar", 14.6937, -17.4441, 0.23),
+            new Region("Thiès", 14.7910, -16.9359, 0.12),
+            new Region("Diourbel", 14.6550, -16.2314, 0.10),
+            new Region("Kaolack", 14.1520, -16.0726, 0.07),
+            new Region("Saint-Louis", 16.0179, -16.4896, 0.06),
+            new Region("Louga", 15.6173, -16.2240, 0.06),
+            new Region("Ziguinchor", 12.5681, -16.2719, 0.04),
+            new Region("Tambacounda", 13.7707, -13.6673, 0.05),
+            new Region("Fatick", 14.3390, -16.4111, 0.05),
+            new Region("Kolda", 12.8983, -14.9412, 0.05),
+            new Region("Matam", 15.6559, -13.2554, 0.04),
+            new Region("Kaffrine", 14.1059, -15.5508, 0.04),
+            new Region("Sédhiou", 12.7081, -15.5569, 0.03),
+            new Region("Kédougou", 12.5579, -12.1747, 0.01)
+    );
+
+    public static final List<String> SERVICES = List.of(
+            "Urgences", "Maternité", "Pédiatrie", "Médecine générale", "Cardiologie", "Radiologie",
+            "Laboratoire", "Chirurgie", "Ophtalmologie", "Dentisterie", "Vaccination", "Pharmacie",
+            "Gynécologie", "Dermatologie", "Kinésithérapie", "Psychiatrie");
+
+    private static final Etablissement.TypeEtablissement[] TYPES = Etablissement.TypeEtablissement.values();
+    private static final String[] PRENOMS = {"Aminata", "Moussa", "Fatou", "Ibrahima", "Awa", "Cheikh", "Mariama", "Ousmane"};
+    private static final String[] NOMS = {"Diop", "Ndiaye", "Fall", "Sow", "Ba", "Faye", "Diallo", "Sarr", "Gueye", "Mbaye"};
+
+    private final int taille;
+    private final int[] regions;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] services;
+    private final int[] nombreAvis;
+    private final int[] sommeNotes;
+
+    public SyntheticDataset(int taille, long graine) {
+        this.taille = taille;
+        this.regions = new int[taille];
+        this.latitudes = new double[taille];
+        this.longitudes = new double[taille];
+        this.services = new long[taille];
+        this.nombreAvis = new int[taille];
+        this.sommeNotes = new int[taille];
+
+        SplittableRandom random = new SplittableRandom(graine);
+        for (int i = 0; i < taille; i++) {
+            int region = tirerRegion(random.nextDouble());
+            Region r = REGIONS.get(region);
+            regions[i] = region;
+            latitudes[i] = r.latitude() + random.nextGaussian() * 0.15;
+            longitudes[i] = r.longitude() + random.nextGaussian() * 0.15;
+
+            int nombreServices = 1 + random.nextInt(6);
+            long masque = 0;
+            while (Long.bitCount(masque) < nombreServices) {
+                masque |= 1L << random.nextInt(SERVICES.size());
+            }
+            services[i] = masque;
+
+            int avis = random.nextInt(4) == 0 ? 0 : random.nextInt(200);
+            nombreAvis[i] = avis;
+            sommeNotes[i] = avis == 0 ? 0 : avis * (2 + random.nextInt(4)) - random.nextInt(avis + 1);
+        }
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    public long id(int i) {
+        return i + 1L;
+    }
+
+    public String nom(int i) {
+        return type(i).getDisplayName() + " " + region(i).nom() + " " + (i + 1);
+    }
+
+    public Region region(int i) {
+        return REGIONS.get(regions[i]);
+    }
+
+    public Etablissement.TypeEtablissement type(int i) {
+        return TYPES[i % TYPES.length];
+    }
+
+    public double latitude(int i) {
+        return latitudes[i];
+    }
+
+    public double longitude(int i) {
+        return longitudes[i];
+    }
+
+    /** Indices dans {@link #SERVICES} des services proposés par l'établissement. */
+    public int[] services(int i) {
+        int[] indices = new int[Long.bitCount(services[i])];
+        long masque = services[i];
+        for (int k = 0; k < indices.length; k++) {
+            indices[k] = Long.numberOfTrailingZeros(masque);
+            masque &= masque - 1;
+        }
+        return indices;
+    }
+
+    public int nombreAvis(int i) {
+        return nombreAvis[i];
+    }
+
+    public int sommeNotes(int i) {
+        return sommeNotes[i];
+    }
+
+    public String tuteurNom(int i) {
+        return NOMS[i % NOMS.length];
+    }
+
+    public String tuteurPrenom(int i) {
+        return PRENOMS[(i / NOMS.length) % PRENOMS.length];
+    }
+
+    public String tuteurEmail(int i) {
+        return "tuteur" + (i + 1) + "@example.sn";
+    }
+
+    private static int tirerRegion(double tirage) {
+        double cumul = 0;
+        for (int region = 0; region < REGIONS.size(); region++) {
+            cumul += REGIONS.get(region).poids();
+            if (tirage < cumul) {
+                return region;
+            }
+        }
+        return REGIONS.size() - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatasetVersionsTest {
+
+    private final DatasetVersions versions = new DatasetVersions();
+
+    @Test
+    void etagChangeAChaqueModification() {
+        String etablissements = versions.etag(DatasetVersions.Dataset.ETABLISSEMENTS);
+        String services = versions.etag(DatasetVersions.Dataset.SERVICES);
+        assertThat(etablissements).startsWith("\"etablissements-").endsWith("\"");
+
+        versions.bump(DatasetVersions.Dataset.ETABLISSEMENTS);
+
+        assertThat(versions.etag(DatasetVersions.Dataset.ETABLISSEMENTS)).isNotEqualTo(etablissements);
+        assertThat(versions.etag(DatasetVersions.Dataset.SERVICES)).isEqualTo(services);
+    }
+
+    @Test
+    void lastModifiedAvance() throws InterruptedException {
+        long avant = versions.lastModified(DatasetVersions.Dataset.AVIS);
+        Thread.sleep(5);
+
+        versions.bump(DatasetVersions.Dataset.AVIS);
+
+        assertThat(versions.lastModified(DatasetVersions.Dataset.AVIS)).isGreaterThan(avant);
+    }
+
+    @Test
+    void ifNoneMatch() {
+        String etag = "\"avis-abc-3\"";
+
+        assertThat(DatasetVersions.matches(null, etag)).isFalse();
+        assertThat(DatasetVersions.matches(etag, etag)).isTrue();
+        assertThat(DatasetVersions.matches("W/" + etag, etag)).isTrue();
+        assertThat(DatasetVersions.matches("\"x\" , " + etag, etag)).isTrue();
+        assertThat(DatasetVersions.matches("*", etag)).isTrue();
+        assertThat(DatasetVersions.matches("\"avis-abc-33\"", etag)).isFalse();
+        assertThat(DatasetVersions.matches("\"avis-abc-3\"x", etag)).isFalse();
+        assertThat(DatasetVersions.matches("", etag)).isFalse();
+    }
+}
@@ -0,0 +1,97 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Les invalidations demandées dans une transaction n'ont lieu qu'après sa validation,
+ * et pas du tout si elle est annulée ; l'ETag change aussitôt puis à la validation.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PublicCachesIntegrationTest {
+
+    private static final Long ID = 987_654L;
+
+    @Autowired
+    private PublicCaches publicCaches;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DatasetVersions datasetVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Cache etablissement;
+    private Cache liste;
+
+    @BeforeEach
+    void remplir() {
+        etablissement = cacheManager.getCache(PublicCaches.ETABLISSEMENT_PUBLIC);
+        liste = cacheManager.getCache(PublicCaches.ETABLISSEMENTS_PUBLICS);
+        etablissement.put(ID, "Hôpital Fann");
+        liste.put("nom", "liste");
+    }
+
+    @Test
+    void invalidationApresValidation() {
+        String avant = datasetVersions.etag(DatasetVersions.Dataset.ETABLISSEMENTS);
+        String[] pendant = new String[1];
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publicCaches.etablissementModifie(ID);
+
+            assertThat(etablissement.get(ID).get()).isEqualTo("Hôpital Fann");
+            assertThat(liste.get("nom")).isNotNull();
+            pendant[0] = datasetVersions.etag(DatasetVersions.Dataset.ETABLISSEMENTS);
+            assertThat(pendant[0]).isNotEqualTo(avant);
+        });
+
+        assertThat(etablissement.get(ID)).isNull();
+        assertThat(liste.get("nom")).isNull();
+        assertThat(datasetVersions.etag(DatasetVersions.Dataset.ETABLISSEMENTS)).isNotIn(avant, pendant[0]);
+    }
+
+    @Test
+    void aucuneInvalidationSiAnnulee() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publicCaches.etablissementModifie(ID);
+            status.setRollbackOnly();
+        });
+
+        assertThat(etablissement.get(ID).get()).isEqualTo("Hôpital Fann");
+        assertThat(liste.get("nom")).isNotNull();
+    }
+
+    @Test
+    void invalidationImmediateHorsTransaction() {
+        publicCaches.etablissementModifie(ID);
+
+        assertThat(etablissement.get(ID)).isNull();
+        assertThat(liste.get("nom")).isNull();
+    }
+
+    @Test
+    void suppressionDeServiceVideTousLesEtablissements() {
+        Cache avis = cacheManager.getCache(PublicCaches.AVIS_ETABLISSEMENT);
+        avis.put(ID, "avis");
+
+        publicCaches.serviceSupprime(1L);
+
+        assertThat(etablissement.get(ID)).isNull();
+        assertThat(liste.get("nom")).isNull();
+        assertThat(avis.get(ID)).isNotNull();
+    }
+}
@@ -0,0 +1,102 @@
+package com.dic1.projet.hospitalFind.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final EmbeddedL2CacheStore l2 = new EmbeddedL2CacheStore();
+
+    private TwoTierCache cache;
+    private TwoTierCache autreInstance;
+
+    @BeforeEach
+    void creer() {
+        ReflectionTestUtils.setField(l2, "maxEntries", 100);
+        cache = cache(l2);
+        autreInstance = cache(l2);
+    }
+
+    @Test
+    void chargementEcritLesDeuxNiveaux() {
+        AtomicInteger chargements = new AtomicInteger();
+
+        assertThat(cache.get(1L, () -> "Hôpital Fann#" + chargements.incrementAndGet())).isEqualTo("Hôpital Fann#1");
+        assertThat(cache.get(1L, () -> "Hôpital Fann#" + chargements.incrementAndGet())).isEqualTo("Hôpital Fann#1");
+        assertThat(l2.get("etablissementPublic", 1L)).isEqualTo("Hôpital Fann#1");
+
+        // Une autre instance trouve la valeur en second niveau sans la recharger
+        assertThat(autreInstance.get(1L, () -> "Hôpital Fann#" + chargements.incrementAndGet())).isEqualTo("Hôpital Fann#1");
+        assertThat(chargements).hasValue(1);
+        assertThat(autreInstance.l2Hits()).isEqualTo(1);
+        assertThat(cache.l2Misses()).isEqualTo(1);
+    }
+
+    @Test
+    void valeurDuSecondNiveauRecopieeEnLocal() {
+        l2.put("etablissementPublic", 2L, "Clinique du Cap", TTL);
+
+        assertThat(cache.get(2L).get()).isEqualTo("Clinique du Cap");
+        l2.clear("etablissementPublic");
+        assertThat(cache.get(2L).get()).isEqualTo("Clinique du Cap");
+        assertThat(cache.localSize()).isEqualTo(1);
+        assertThat(cache.get(3L)).isNull();
+    }
+
+    @Test
+    void valeurNulleMiseEnCache() {
+        AtomicInteger chargements = new AtomicInteger();
+
+        assertThat(cache.<String>get(4L, () -> {
+            chargements.incrementAndGet();
+            return null;
+        })).isNull();
+        assertThat(cache.get(4L)).isNotNull();
+        assertThat(cache.get(4L).get()).isNull();
+        assertThat(chargements).hasValue(1);
+    }
+
+    @Test
+    void invalidationDesDeuxNiveaux() {
+        cache.put(1L, "Hôpital Fann");
+        cache.put(2L, "Hôpital Principal");
+
+        cache.evict(1L);
+        assertThat(cache.get(1L)).isNull();
+        assertThat(l2.get("etablissementPublic", 1L)).isNull();
+        assertThat(cache.get(2L).get()).isEqualTo("Hôpital Principal");
+
+        cache.clear();
+        assertThat(cache.get(2L)).isNull();
+        assertThat(l2.get("etablissementPublic", 2L)).isNull();
+    }
+
+    @Test
+    void secondNiveauExpireEtResteBorne() throws InterruptedException {
+        l2.put("etablissementPublic", 1L, "Hôpital Fann", Duration.ofMillis(20));
+        Thread.sleep(40);
+        assertThat(l2.get("etablissementPublic", 1L)).isNull();
+
+        for (long id = 0; id < 150; id++) {
+            l2.put("etablissementPublic", id, "Etablissement " + id, TTL);
+        }
+        assertThat(l2.get("etablissementPublic", 0L)).isNull();
+        assertThat(l2.get("etablissementPublic", 49L)).isNull();
+        assertThat(l2.get("etablissementPublic", 50L)).isEqualTo("Etablissement 50");
+        assertThat(l2.get("etablissementPublic", 149L)).isEqualTo("Etablissement 149");
+    }
+
+    private static TwoTierCache cache(L2CacheStore l2) {
+        return new TwoTierCache("etablissementPublic",
+                Caffeine.newBuilder().expireAfterWrite(TTL).maximumSize(100).recordStats().build(), l2, TTL);
+    }
+}
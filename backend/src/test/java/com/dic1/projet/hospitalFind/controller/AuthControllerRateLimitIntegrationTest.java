@@ -0,0 +1,67 @@
+package com.dic1.projet.hospitalFind.controller;
+
+import com.dic1.projet.hospitalFind.dto.ErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Limitation de {@code /auth/login} à travers Tomcat : l'adresse du client est lue
+ * dans X-Forwarded-For quand la requête vient d'un proxy de confiance (ici la boucle
+ * locale), et la limite d'un compte tient même si l'adresse change à chaque essai.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class AuthControllerRateLimitIntegrationTest {
+
+    private static final int IP_CAPACITY = 20;
+    private static final int EMAIL_CAPACITY = 5;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void limiteParAdresseDuClient() {
+        for (int i = 0; i < IP_CAPACITY; i++) {
+            assertThat(login("203.0.113.7", "inconnu" + i + "@example.sn").getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        ResponseEntity<ErrorResponse> limitee = login("203.0.113.7", "autre@example.sn");
+        assertThat(limitee.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limitee.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotBlank();
+
+        // Un autre client derrière le même proxy garde son propre seau
+        assertThat(login("203.0.113.8", "autre@example.sn").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void limiteParCompteMalgreLeChangementDAdresse() {
+        for (int i = 0; i < EMAIL_CAPACITY; i++) {
+            assertThat(login("198.51.100." + i, "Cible@Example.sn").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        ResponseEntity<ErrorResponse> limitee = login("198.51.100.200", "cible@example.sn");
+        assertThat(limitee.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limitee.getBody().getMessage()).contains("ce compte");
+    }
+
+    private ResponseEntity<ErrorResponse> login(String client, String email) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", client);
+        Map<String, String> body = Map.of("email", email, "motDePasse", "mauvais-mot-de-passe");
+        return restTemplate.postForEntity("/auth/login", new HttpEntity<>(body, headers), ErrorResponse.class);
+    }
+}
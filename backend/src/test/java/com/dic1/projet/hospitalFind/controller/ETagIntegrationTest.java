@@ -0,0 +1,130 @@
+package com.dic1.projet.hospitalFind.controller;
+
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag des lectures publiques : {@code 304} sans corps ni requête SQL quand le client
+ * a la version courante, nouvelle version après une écriture du même jeu de données.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ETagIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PublicCaches publicCaches;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    private Long etablissementId;
+
+    @BeforeEach
+    void remplir() {
+        etablissementId = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, 1);
+        jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                        + "description, type_etablissement, latitude, longitude, statut) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                etablissementId, "Hôpital Fann", "Avenue Cheikh Anta Diop", "Dakar", null, null, null,
+                "HOPITAL", 14.69, -17.46, "VALIDE");
+        cacheManager.getCacheNames().forEach(nom -> cacheManager.getCache(nom).clear());
+    }
+
+    @Test
+    void listeEtablissements() throws Exception {
+        String etag = premiereLecture("/etablissements");
+
+        nonModifie("/etablissements", etag);
+        nonModifie("/etablissements", "W/" + etag);
+        nonModifie("/etablissements", "\"autre\", " + etag);
+        mockMvc.perform(get("/etablissements").header(HttpHeaders.IF_NONE_MATCH, "\"autre\""))
+                .andExpect(status().isOk());
+
+        publicCaches.etablissementModifie(etablissementId);
+        String nouvel = premiereLecture("/etablissements");
+        assertThat(nouvel).isNotEqualTo(etag);
+        nonModifie("/etablissements", nouvel);
+    }
+
+    @Test
+    void detailEtablissementSansRequeteSql() throws Exception {
+        String uri = "/etablissements/" + etablissementId;
+        String etag = premiereLecture(uri);
+        cacheManager.getCacheNames().forEach(nom -> cacheManager.getCache(nom).clear());
+
+        DistributionSummary requetes = meterRegistry.find("http.server.sql.queries")
+                .tag("method", "GET").tag("uri", "/etablissements/{id}").summary();
+        assertThat(requetes).isNotNull();
+        long appels = requetes.count();
+        double total = requetes.totalAmount();
+
+        nonModifie(uri, etag);
+
+        assertThat(requetes.count()).isEqualTo(appels + 1);
+        assertThat(requetes.totalAmount()).isEqualTo(total);
+    }
+
+    @Test
+    void versionsIndependantesParJeuDeDonnees() throws Exception {
+        String services = premiereLecture("/services");
+        String avis = premiereLecture("/avis/etablissement/" + etablissementId);
+
+        publicCaches.avisModifies(etablissementId);
+
+        nonModifie("/services", services);
+        String nouvelAvis = premiereLecture("/avis/etablissement/" + etablissementId);
+        assertThat(nouvelAvis).isNotEqualTo(avis);
+
+        publicCaches.serviceCree();
+        assertThat(premiereLecture("/services")).isNotEqualTo(services);
+        nonModifie("/avis/etablissement/" + etablissementId, nouvelAvis);
+    }
+
+    private String premiereLecture(String uri) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn();
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void nonModifie(String uri, String ifNoneMatch) throws Exception {
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andExpect(status().isNotModified())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().string(""));
+    }
+}
@@ -0,0 +1,60 @@
+package com.dic1.projet.hospitalFind.controller;
+
+import com.dic1.projet.hospitalFind.index.TileCache;
+import com.dic1.projet.hospitalFind.service.VectorTileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TileControllerTest {
+
+    private static final TileCache.CachedTile TUILE = new TileCache.CachedTile(new byte[]{1, 2, 3}, "\"abc\"");
+
+    @Mock
+    private VectorTileService vectorTileService;
+
+    @InjectMocks
+    private TileController tileController;
+
+    @BeforeEach
+    void tuile() {
+        when(vectorTileService.getTile(10, 500, 480)).thenReturn(TUILE);
+    }
+
+    @Test
+    void sansEnTeteLaTuileEstRenvoyee() {
+        ResponseEntity<?> response = tileController.getTile(10, 500, 480, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(response.getBody()).isSameAs(TUILE.data());
+    }
+
+    @Test
+    void etagConnu() {
+        assertThat(statut("\"abc\"")).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(statut("W/\"abc\"")).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(statut("\"xyz\", \"abc\"")).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(statut("*")).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void unEtagQuiEnContientUnAutreNeCorrespondPas() {
+        assertThat(statut("\"\"abc\"\"")).isEqualTo(HttpStatus.OK);
+        assertThat(statut("\"xyz\"abc\"\"")).isEqualTo(HttpStatus.OK);
+        assertThat(statut("\"abcd\"")).isEqualTo(HttpStatus.OK);
+    }
+
+    private HttpStatus statut(String ifNoneMatch) {
+        return HttpStatus.valueOf(tileController.getTile(10, 500, 480, ifNoneMatch).getStatusCode().value());
+    }
+}
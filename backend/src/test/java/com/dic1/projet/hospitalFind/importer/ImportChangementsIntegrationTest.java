@@ -0,0 +1,146 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import com.dic1.projet.hospitalFind.dto.EtablissementChangesDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementPublicDTO;
+import com.dic1.projet.hospitalFind.dto.ImportStatusDTO;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import com.dic1.projet.hospitalFind.service.EtablissementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un import en plusieurs lots pendant qu'un administrateur modifie un autre
+ * établissement : un client qui suit {@code /changes} depuis son dernier
+ * {@code seq} pendant toute l'opération doit recevoir chaque établissement.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportChangementsIntegrationTest {
+
+    private static final int LIGNES = ImportService.TAILLE_LOT * 3;
+    private static final int LIMITE = 500;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private EtablissementService etablissementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    @Test
+    void importEtModificationSimultanes() throws Exception {
+        Long modifie = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, 1);
+        jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                        + "description, type_etablissement, latitude, longitude, statut) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                modifie, "Hôpital Principal", "Avenue Nelson Mandela", "Dakar", null, null, null,
+                "HOPITAL", 14.66, -17.43, "EN_ATTENTE");
+
+        Client client = new Client(dernierSeq());
+        AtomicBoolean fini = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> modifications = executor.submit(() -> {
+                for (int i = 0; !fini.get(); i++) {
+                    if (i % 2 == 0) {
+                        etablissementService.validerEtablissement(modifie);
+                    } else {
+                        etablissementService.rejeterEtablissement(modifie);
+                    }
+                }
+            });
+            Future<?> lectures = executor.submit(() -> {
+                while (!fini.get()) {
+                    client.synchroniser();
+                }
+            });
+
+            ImportJob job = importService.demarrer(csv(), null, "CSV", "VALIDE", true);
+            ImportStatusDTO statut = attendre(job);
+            fini.set(true);
+            modifications.get(30, TimeUnit.SECONDS);
+            lectures.get(30, TimeUnit.SECONDS);
+
+            assertThat(statut.getStatut()).isEqualTo("TERMINE");
+            assertThat(statut.getImportees()).isEqualTo(LIGNES);
+        } finally {
+            fini.set(true);
+            executor.shutdownNow();
+        }
+
+        client.synchroniser();
+        List<Long> importes = jdbcTemplate.queryForList(
+                "SELECT id_etablissement FROM etablissement WHERE nom LIKE 'Centre import %'", Long.class);
+        assertThat(importes).hasSize(LIGNES);
+        assertThat(client.recus).containsAll(importes).contains(modifie);
+    }
+
+    private long dernierSeq() {
+        Client client = new Client(0);
+        client.synchroniser();
+        return client.seq;
+    }
+
+    private static ImportStatusDTO attendre(ImportJob job) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        ImportStatusDTO statut = job.toDTO();
+        while ("EN_COURS".equals(statut.getStatut()) && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            statut = job.toDTO();
+        }
+        return statut;
+    }
+
+    private static MockMultipartFile csv() {
+        StringBuilder csv = new StringBuilder("nom,adresse,type,latitude,longitude,services\n");
+        for (int i = 0; i < LIGNES; i++) {
+            csv.append("Centre import ").append(i).append(",Rue ").append(i).append(" Dakar,CENTRE_SANTE,")
+                    .append(14 + (i % 100) / 100.0).append(',').append(-17 - (i % 100) / 100.0)
+                    .append(",Consultation générale\n");
+        }
+        return new MockMultipartFile("fichier", "import.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Client de synchronisation qui repart toujours du dernier {@code seq} reçu. */
+    private final class Client {
+
+        private final Set<Long> recus = new HashSet<>();
+        private long seq;
+
+        private Client(long seq) {
+            this.seq = seq;
+        }
+
+        private void synchroniser() {
+            EtablissementChangesDTO page;
+            do {
+                page = etablissementService.getChangements(seq, LIMITE);
+                for (EtablissementPublicDTO upsert : page.getUpserts()) {
+                    recus.add(upsert.getId());
+                }
+                recus.addAll(page.getTombstones());
+                seq = page.getSeq();
+            } while (page.getHasMore());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.dic1.projet.hospitalFind.importer;
+
+import com.dic1.projet.hospitalFind.dto.ImportErreurDTO;
+import com.dic1.projet.hospitalFind.dto.ImportStatusDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Les lignes invalides d'un fichier sont rejetées une à une, avec leur numéro et la
+ * raison, sans empêcher l'import des lignes valides qui les entourent.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportValidationIntegrationTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvLignesInvalidesRejetees() throws Exception {
+        String csv = """
+                nom;adresse;type;latitude;longitude;email;services
+                Csv017 valide A;Rue 1;CENTRE_SANTE;14,5;-17,2;;
+                ;Rue 2;HOPITAL;;;;
+                Csv017 sans type;Rue 3;;;;;
+                Csv017 type inconnu;Rue 4;GARAGE;;;;
+                Csv017 hors limites;Rue 5;CLINIQUE;95;-17;;
+                Csv017 latitude seule;Rue 6;CLINIQUE;14;;;
+                Csv017 coordonnees;Rue 7;CLINIQUE;abc;-17;;
+                Csv017 email;Rue 8;CLINIQUE;;;pas-un-email;
+                "Csv017 valide; B";"Rue
+                9";Centre de santé;;;;
+                Csv017 sans adresse;;CLINIQUE;;;;
+                Csv017 service;Rue 10;CLINIQUE;;;;Service017 inexistant
+                """;
+
+        ImportStatusDTO statut = importer(new MockMultipartFile("fichier", "import.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8)), "CSV");
+
+        assertThat(statut.getStatut()).isEqualTo("TERMINE");
+        assertThat(statut.getLignesLues()).isEqualTo(11);
+        assertThat(statut.getImportees()).isEqualTo(2);
+        assertThat(statut.getRejetees()).isEqualTo(9);
+        assertThat(erreurs(statut)).containsExactly(
+                entry(3, "Nom obligatoire"),
+                entry(4, "Type d'établissement obligatoire"),
+                entry(5, "Type d'établissement invalide: GARAGE"),
+                entry(6, "Coordonnées hors limites: 95.0, -17.0"),
+                entry(7, "Latitude et longitude vont ensemble"),
+                entry(8, "Coordonnées invalides: abc, -17"),
+                entry(9, "Email invalide: pas-un-email"),
+                entry(12, "L'adresse ou la localisation est obligatoire"),
+                entry(13, "Service inconnu: Service017 inexistant"));
+
+        assertThat(jdbcTemplate.queryForList("SELECT nom FROM etablissement WHERE nom LIKE 'Csv017%'", String.class))
+                .containsExactlyInAnyOrder("Csv017 valide A", "Csv017 valide; B");
+        assertThat(jdbcTemplate.queryForObject("SELECT adresse FROM etablissement WHERE nom = 'Csv017 valide; B'",
+                String.class)).isEqualTo("Rue\n9");
+        assertThat(jdbcTemplate.queryForObject("SELECT type_etablissement FROM etablissement WHERE nom = 'Csv017 valide; B'",
+                String.class)).isEqualTo("CENTRE_SANTE");
+        assertThat(jdbcTemplate.queryForObject("SELECT latitude FROM etablissement WHERE nom = 'Csv017 valide A'",
+                Double.class)).isEqualTo(14.5);
+    }
+
+    @Test
+    void geoJsonFeaturesInvalidesRejetees() throws Exception {
+        String geoJson = """
+                {"type": "FeatureCollection", "name": "import", "features": [
+                  {"type": "Feature", "properties": {"name": "Geo017 valide", "address": "Rue 1", "type": "HOPITAL"},
+                   "geometry": {"type": "Point", "coordinates": [-17.44, 14.69]}},
+                  {"type": "Feature", "properties": {"address": "Rue 2", "type": "HOPITAL"},
+                   "geometry": {"type": "Point", "coordinates": [-17.44, 14.69]}},
+                  {"type": "Feature", "properties": {"name": "Geo017 hors limites", "address": "Rue 3", "type": "HOPITAL"},
+                   "geometry": {"type": "Point", "coordinates": [-200, 14.69]}},
+                  {"type": "Feature", "properties": {"name": "Geo017 sans position", "ville": "Thiès", "type": "PHARMACIE"},
+                   "geometry": null},
+                  {"type": "Feature", "properties": {"name": "Geo017 service", "address": "Rue 5", "type": "HOPITAL",
+                   "services": ["Service017 inconnu"]}, "geometry": null}
+                ]}
+                """;
+
+        ImportStatusDTO statut = importer(new MockMultipartFile("fichier", "import.geojson", "application/geo+json",
+                geoJson.getBytes(StandardCharsets.UTF_8)), "GEOJSON");
+
+        assertThat(statut.getStatut()).isEqualTo("TERMINE");
+        assertThat(statut.getLignesLues()).isEqualTo(5);
+        assertThat(statut.getImportees()).isEqualTo(2);
+        assertThat(erreurs(statut)).containsExactly(
+                entry(2, "Nom obligatoire"),
+                entry(3, "Coordonnées hors limites: 14.69, -200.0"),
+                entry(5, "Service inconnu: Service017 inconnu"));
+
+        assertThat(jdbcTemplate.queryForList("SELECT nom FROM etablissement WHERE nom LIKE 'Geo017%'", String.class))
+                .containsExactlyInAnyOrder("Geo017 valide", "Geo017 sans position");
+        Map<String, Object> sansPosition = jdbcTemplate.queryForMap(
+                "SELECT adresse, latitude, longitude FROM etablissement WHERE nom = 'Geo017 sans position'");
+        assertThat(sansPosition.get("ADRESSE")).isEqualTo("Thiès");
+        assertThat(sansPosition.get("LATITUDE")).isNull();
+        assertThat(sansPosition.get("LONGITUDE")).isNull();
+    }
+
+    @Test
+    void fichierIllisibleEchoue() throws Exception {
+        ImportStatusDTO statut = importer(new MockMultipartFile("fichier", "import.geojson", "application/geo+json",
+                "{\"type\": \"FeatureCollection\"}".getBytes(StandardCharsets.UTF_8)), "GEOJSON");
+
+        assertThat(statut.getStatut()).isEqualTo("ECHEC");
+        assertThat(statut.getMessage()).contains("features");
+        assertThat(statut.getImportees()).isZero();
+    }
+
+    /**
+     * Le verrou d'import n'est relâché qu'après le passage du suivi à TERMINE :
+     * on réessaie brièvement si l'import du test précédent n'a pas encore fini.
+     */
+    private ImportStatusDTO importer(MockMultipartFile fichier, String format) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJob job;
+        while (true) {
+            try {
+                job = importService.demarrer(fichier, null, format, "VALIDE", false);
+                break;
+            } catch (RuntimeException e) {
+                if (!"Un import est déjà en cours".equals(e.getMessage()) || System.nanoTime() > limite) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+
+        limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        ImportStatusDTO statut = job.toDTO();
+        while ("EN_COURS".equals(statut.getStatut()) && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            statut = job.toDTO();
+        }
+        return statut;
+    }
+
+    private static Map<Integer, String> erreurs(ImportStatusDTO statut) {
+        Map<Integer, String> erreurs = new TreeMap<>();
+        List<ImportErreurDTO> liste = statut.getErreurs();
+        for (ImportErreurDTO erreur : liste) {
+            erreurs.put(erreur.getLigne(), erreur.getMessage());
+        }
+        assertThat(erreurs).hasSize(liste.size());
+        return erreurs;
+    }
+}
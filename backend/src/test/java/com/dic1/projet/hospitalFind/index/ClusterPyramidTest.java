@@ -0,0 +1,122 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ClusterPyramidTest {
+
+    private final ClusterPyramid pyramid = new ClusterPyramid();
+
+    @Test
+    void zoomZeroCouvreLeMondeJusquAuxBords() {
+        pyramid.rebuild(List.of(
+                snapshot(1L, Etablissement.Statut.VALIDE, 14.69, -17.44),
+                snapshot(2L, Etablissement.Statut.VALIDE, 90.0, 180.0),
+                snapshot(3L, Etablissement.Statut.VALIDE, -90.0, -180.0),
+                snapshot(4L, Etablissement.Statut.VALIDE, -85.0, 179.99)));
+
+        List<ClusterPyramid.Cluster> monde = pyramid.clusters(-90, 90, -180, 180, 0);
+
+        assertThat(total(monde)).isEqualTo(4);
+        assertThat(total(pyramid.clusters(-90, 90, -180, 180, ClusterPyramid.MAX_CLUSTER_ZOOM))).isEqualTo(4);
+        // Coins opposés : cases extrêmes de la grille de 4 x 4
+        assertThat(total(pyramid.clusters(80, 90, 170, 180, 0))).isEqualTo(1);
+        assertThat(total(pyramid.clusters(-90, -80, -180, -170, 0))).isEqualTo(1);
+    }
+
+    @Test
+    void zoomHorsPyramideRameneAuxBornes() {
+        pyramid.rebuild(List.of(
+                snapshot(1L, Etablissement.Statut.VALIDE, 14.6900, -17.4400),
+                snapshot(2L, Etablissement.Statut.VALIDE, 14.7100, -17.4700)));
+
+        assertThat(pyramid.clusters(14, 15, -18, -17, 20))
+                .containsExactlyInAnyOrderElementsOf(pyramid.clusters(14, 15, -18, -17, ClusterPyramid.MAX_CLUSTER_ZOOM));
+        assertThat(pyramid.clusters(14, 15, -18, -17, -3))
+                .containsExactlyInAnyOrderElementsOf(pyramid.clusters(14, 15, -18, -17, 0));
+    }
+
+    @Test
+    void casesPlusFinesAuZoomMaximal() {
+        pyramid.rebuild(List.of(
+                snapshot(1L, Etablissement.Statut.VALIDE, 14.6900, -17.4400),
+                snapshot(2L, Etablissement.Statut.VALIDE, 14.7100, -17.4700)));
+
+        // Environ 3 km d'écart : une seule case de 64 px au zoom 5, deux au zoom 14
+        List<ClusterPyramid.Cluster> large = pyramid.clusters(14, 15, -18, -17, 5);
+        assertThat(large).hasSize(1);
+        assertThat(large.get(0).count()).isEqualTo(2);
+        assertThat(large.get(0).latitude()).isCloseTo(14.70, within(1e-9));
+        assertThat(large.get(0).longitude()).isCloseTo(-17.455, within(1e-9));
+
+        assertThat(pyramid.clusters(14, 15, -18, -17, ClusterPyramid.MAX_CLUSTER_ZOOM))
+                .extracting(ClusterPyramid.Cluster::count)
+                .containsExactly(1, 1);
+    }
+
+    @Test
+    void clustersCommeUnParcoursExhaustif() {
+        Random random = new Random(7);
+        List<EtablissementSnapshot> snapshots = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            snapshots.add(snapshot(id, Etablissement.Statut.VALIDE,
+                    12.3 + random.nextDouble() * 4.4, -17.5 + random.nextDouble() * 5.7));
+        }
+        pyramid.rebuild(snapshots);
+
+        for (int requete = 0; requete < 200; requete++) {
+            int zoom = random.nextInt(ClusterPyramid.MAX_CLUSTER_ZOOM + 1);
+            double minLat = 12 + random.nextDouble() * 4.5;
+            double minLon = -18 + random.nextDouble() * 6;
+            // Petites zones (parcours des cases) et grandes zones (parcours des agrégats)
+            double taille = random.nextBoolean() ? 0.05 : 5;
+            double maxLat = minLat + random.nextDouble() * taille;
+            double maxLon = minLon + random.nextDouble() * taille;
+
+            int gridLevel = zoom + 2;
+            int fromX = WebMercator.cell(WebMercator.x(minLon), gridLevel);
+            int toX = WebMercator.cell(WebMercator.x(maxLon), gridLevel);
+            int fromY = WebMercator.cell(WebMercator.y(maxLat), gridLevel);
+            int toY = WebMercator.cell(WebMercator.y(minLat), gridLevel);
+            long attendus = snapshots.stream().filter(s -> {
+                int x = WebMercator.cell(WebMercator.x(s.longitude()), gridLevel);
+                int y = WebMercator.cell(WebMercator.y(s.latitude()), gridLevel);
+                return x >= fromX && x <= toX && y >= fromY && y <= toY;
+            }).count();
+
+            assertThat(total(pyramid.clusters(minLat, maxLat, minLon, maxLon, zoom))).isEqualTo(attendus);
+        }
+    }
+
+    @Test
+    void miseAJourDeplaceEtRetire() {
+        EtablissementSnapshot dakar = snapshot(1L, Etablissement.Statut.VALIDE, 14.69, -17.44);
+        pyramid.rebuild(List.of(dakar, snapshot(2L, Etablissement.Statut.EN_ATTENTE, 14.69, -17.44),
+                snapshot(3L, Etablissement.Statut.VALIDE, null, null)));
+        assertThat(total(pyramid.clusters(14, 15, -18, -17, 10))).isEqualTo(1);
+
+        EtablissementSnapshot saintLouis = snapshot(1L, Etablissement.Statut.VALIDE, 16.02, -16.49);
+        pyramid.update(dakar, saintLouis);
+        assertThat(pyramid.clusters(14, 15, -18, -17, 10)).isEmpty();
+        assertThat(total(pyramid.clusters(15.5, 16.5, -17, -16, 10))).isEqualTo(1);
+
+        pyramid.update(saintLouis, snapshot(1L, Etablissement.Statut.REJETE, 16.02, -16.49));
+        assertThat(pyramid.clusters(-90, 90, -180, 180, 0)).isEmpty();
+    }
+
+    private static long total(List<ClusterPyramid.Cluster> clusters) {
+        return clusters.stream().mapToLong(ClusterPyramid.Cluster::count).sum();
+    }
+
+    private static EtablissementSnapshot snapshot(Long id, Etablissement.Statut statut, Double lat, Double lon) {
+        return new EtablissementSnapshot(id, "Etablissement " + id, "Dakar", null,
+                Etablissement.TypeEtablissement.HOPITAL, statut, lat, lon, List.of(), List.of());
+    }
+}
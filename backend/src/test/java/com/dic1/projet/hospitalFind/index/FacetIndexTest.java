@@ -0,0 +1,173 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement.Statut;
+import com.dic1.projet.hospitalFind.entity.Etablissement.TypeEtablissement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexTest {
+
+    private static final FacetIndex.BoundingBox DAKAR = new FacetIndex.BoundingBox(14, 15, -18, -17);
+
+    private static final EtablissementSnapshot FANN =
+            snapshot(1L, TypeEtablissement.HOPITAL, Statut.VALIDE, List.of(10L, 20L), 14.69, -17.44);
+    private static final EtablissementSnapshot PASTEUR =
+            snapshot(2L, TypeEtablissement.CLINIQUE, Statut.VALIDE, List.of(10L), 14.70, -17.45);
+    private static final EtablissementSnapshot SAINT_LOUIS =
+            snapshot(3L, TypeEtablissement.CLINIQUE, Statut.VALIDE, List.of(20L), 16.02, -16.49);
+    private static final EtablissementSnapshot EN_ATTENTE =
+            snapshot(4L, TypeEtablissement.HOPITAL, Statut.EN_ATTENTE, List.of(10L), 14.69, -17.44);
+    private static final EtablissementSnapshot NON_LOCALISE =
+            snapshot(5L, TypeEtablissement.CENTRE_SANTE, Statut.VALIDE, List.of(), null, null);
+
+    private final FacetIndex index = new FacetIndex();
+
+    @Test
+    void sansFiltre() {
+        index.rebuild(List.of(FANN, PASTEUR, SAINT_LOUIS, EN_ATTENTE, NON_LOCALISE));
+
+        FacetIndex.Result result = index.filter(Statut.VALIDE, List.of(), List.of(), null);
+
+        assertThat(result.ids()).containsExactlyInAnyOrder(1L, 2L, 3L, 5L);
+        assertThat(result.serviceCounts()).isEqualTo(Map.of(10L, 2, 20L, 2));
+        assertThat(result.typeCounts()).isEqualTo(Map.of(
+                TypeEtablissement.HOPITAL, 1, TypeEtablissement.CLINIQUE, 2, TypeEtablissement.CENTRE_SANTE, 1));
+    }
+
+    @Test
+    void lesCompteursIgnorentLaSelectionDeLeurFacette() {
+        index.rebuild(List.of(FANN, PASTEUR, SAINT_LOUIS, EN_ATTENTE, NON_LOCALISE));
+
+        FacetIndex.Result result = index.filter(Statut.VALIDE, List.of(10L), List.of(TypeEtablissement.CLINIQUE), null);
+
+        assertThat(result.ids()).containsExactly(2L);
+        // Services comptés parmi les cliniques, types parmi les établissements du service 10
+        assertThat(result.serviceCounts()).isEqualTo(Map.of(10L, 1, 20L, 1));
+        assertThat(result.typeCounts()).isEqualTo(Map.of(TypeEtablissement.HOPITAL, 1, TypeEtablissement.CLINIQUE, 1));
+    }
+
+    @Test
+    void zoneGeographique() {
+        index.rebuild(List.of(FANN, PASTEUR, SAINT_LOUIS, EN_ATTENTE, NON_LOCALISE));
+
+        FacetIndex.Result result = index.filter(Statut.VALIDE, List.of(), List.of(), DAKAR);
+
+        assertThat(result.ids()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.serviceCounts()).isEqualTo(Map.of(10L, 2, 20L, 1));
+        assertThat(index.filter(Statut.EN_ATTENTE, List.of(), List.of(), DAKAR).ids()).containsExactly(4L);
+    }
+
+    @Test
+    void compteursApresMiseAJour() {
+        index.rebuild(List.of(FANN, PASTEUR, SAINT_LOUIS, EN_ATTENTE, NON_LOCALISE));
+
+        index.update(PASTEUR, snapshot(2L, TypeEtablissement.HOPITAL, Statut.VALIDE, List.of(20L), 16.03, -16.50));
+        index.update(EN_ATTENTE, snapshot(4L, TypeEtablissement.HOPITAL, Statut.VALIDE, List.of(10L), 14.69, -17.44));
+        index.update(FANN, null);
+        index.update(null, snapshot(6L, TypeEtablissement.CLINIQUE, Statut.VALIDE, List.of(30L), 14.71, -17.46));
+
+        FacetIndex.Result result = index.filter(Statut.VALIDE, List.of(10L), List.of(), null);
+        assertThat(result.ids()).containsExactly(4L);
+        assertThat(result.serviceCounts()).isEqualTo(Map.of(10L, 1, 20L, 2, 30L, 1));
+        assertThat(result.typeCounts()).isEqualTo(Map.of(TypeEtablissement.HOPITAL, 1));
+
+        assertThat(index.filter(Statut.VALIDE, List.of(), List.of(), DAKAR).ids()).containsExactlyInAnyOrder(4L, 6L);
+        assertThat(index.filter(Statut.EN_ATTENTE, List.of(), List.of(), null).ids()).isEmpty();
+    }
+
+    @Test
+    void commeUnFiltrageExhaustifApresDesMisesAJour() {
+        Random random = new Random(7);
+        Map<Long, EtablissementSnapshot> courants = new HashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            courants.put(id, aleatoire(id, random));
+        }
+        index.rebuild(courants.values());
+
+        for (int i = 0; i < 1000; i++) {
+            long id = 1 + random.nextInt(250);
+            EtablissementSnapshot precedent = courants.get(id);
+            EtablissementSnapshot suivant = random.nextInt(5) == 0 ? null : aleatoire(id, random);
+            index.update(precedent, suivant);
+            if (suivant == null) {
+                courants.remove(id);
+            } else {
+                courants.put(id, suivant);
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            Statut statut = Statut.values()[random.nextInt(Statut.values().length)];
+            List<Long> services = random.nextBoolean() ? List.of() : List.of(1L + random.nextInt(8), 1L + random.nextInt(8));
+            List<TypeEtablissement> types = random.nextBoolean() ? List.of()
+                    : List.of(TypeEtablissement.values()[random.nextInt(TypeEtablissement.values().length)]);
+            FacetIndex.BoundingBox bbox = random.nextBoolean() ? null : DAKAR;
+
+            FacetIndex.Result result = index.filter(statut, services, types, bbox);
+
+            List<EtablissementSnapshot> base = courants.values().stream()
+                    .filter(s -> s.statut() == statut && dansLaZone(s, bbox))
+                    .toList();
+            List<EtablissementSnapshot> parType = base.stream().filter(s -> types.isEmpty() || types.contains(s.type())).toList();
+            List<EtablissementSnapshot> parService = base.stream()
+                    .filter(s -> services.isEmpty() || s.serviceIds().stream().anyMatch(services::contains)).toList();
+
+            assertThat(result.ids()).containsExactlyInAnyOrderElementsOf(parType.stream()
+                    .filter(parService::contains).map(EtablissementSnapshot::id).toList());
+            assertThat(result.serviceCounts()).isEqualTo(compterServices(parType));
+            assertThat(result.typeCounts()).isEqualTo(compterTypes(parService));
+        }
+    }
+
+    private static boolean dansLaZone(EtablissementSnapshot s, FacetIndex.BoundingBox bbox) {
+        return bbox == null || (s.isLocalise()
+                && s.latitude() >= bbox.minLat() && s.latitude() <= bbox.maxLat()
+                && s.longitude() >= bbox.minLon() && s.longitude() <= bbox.maxLon());
+    }
+
+    private static Map<Long, Integer> compterServices(Collection<EtablissementSnapshot> snapshots) {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        for (EtablissementSnapshot s : snapshots) {
+            s.serviceIds().forEach(service -> counts.merge(service, 1, Integer::sum));
+        }
+        return counts;
+    }
+
+    private static Map<TypeEtablissement, Integer> compterTypes(Collection<EtablissementSnapshot> snapshots) {
+        Map<TypeEtablissement, Integer> counts = new LinkedHashMap<>();
+        snapshots.forEach(s -> counts.merge(s.type(), 1, Integer::sum));
+        return counts;
+    }
+
+    private static EtablissementSnapshot aleatoire(long id, Random random) {
+        List<Long> services = new ArrayList<>();
+        for (long service = 1; service <= 8; service++) {
+            if (random.nextInt(3) == 0) {
+                services.add(service);
+            }
+        }
+        boolean localise = random.nextInt(10) != 0;
+        return snapshot(id,
+                TypeEtablissement.values()[random.nextInt(TypeEtablissement.values().length)],
+                Statut.values()[random.nextInt(Statut.values().length)],
+                services,
+                localise ? 12.3 + random.nextDouble() * 4.4 : null,
+                localise ? -17.5 + random.nextDouble() * 5.7 : null);
+    }
+
+    private static EtablissementSnapshot snapshot(Long id, TypeEtablissement type, Statut statut,
+                                                  List<Long> services, Double lat, Double lon) {
+        List<String> noms = services.stream().map(service -> "Service " + service).toList();
+        return new EtablissementSnapshot(id, "Etablissement " + id, "Dakar", null, type, statut,
+                lat, lon, List.copyOf(services), noms);
+    }
+}
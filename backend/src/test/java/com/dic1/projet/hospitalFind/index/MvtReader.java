@@ -0,0 +1,151 @@
+package com.dic1.projet.hospitalFind.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture minimale d'une tuile Mapbox Vector Tile pour les tests : une seule couche
+ * de points, valeurs String ou entières.
+ */
+public final class MvtReader {
+
+    public record Feature(long id, int type, List<Integer> geometry, Map<String, Object> attributes) {
+    }
+
+    public record Layer(String name, int version, int extent, List<Feature> features) {
+    }
+
+    private final byte[] data;
+    private int position;
+    private final int end;
+
+    private MvtReader(byte[] data, int from, int to) {
+        this.data = data;
+        this.position = from;
+        this.end = to;
+    }
+
+    public static List<Layer> read(byte[] tile) {
+        List<Layer> layers = new ArrayList<>();
+        MvtReader reader = new MvtReader(tile, 0, tile.length);
+        while (reader.position < reader.end) {
+            long tag = reader.varint();
+            if (tag >>> 3 == 3 && (tag & 7) == 2) {
+                layers.add(reader.message().layer());
+            } else {
+                reader.skip(tag);
+            }
+        }
+        return layers;
+    }
+
+    private Layer layer() {
+        String name = null;
+        int version = 1;
+        int extent = 4096;
+        List<MvtReader> encodedFeatures = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        while (position < end) {
+            long tag = varint();
+            switch ((int) (tag >>> 3)) {
+                case 1 -> name = message().string();
+                case 2 -> encodedFeatures.add(message());
+                case 3 -> keys.add(message().string());
+                case 4 -> values.add(message().value());
+                case 5 -> extent = (int) varint();
+                case 15 -> version = (int) varint();
+                default -> skip(tag);
+            }
+        }
+        List<Feature> features = new ArrayList<>();
+        for (MvtReader feature : encodedFeatures) {
+            features.add(feature.feature(keys, values));
+        }
+        return new Layer(name, version, extent, features);
+    }
+
+    private Feature feature(List<String> keys, List<Object> values) {
+        long id = 0;
+        int type = 0;
+        List<Integer> tags = new ArrayList<>();
+        List<Integer> geometry = new ArrayList<>();
+        while (position < end) {
+            long tag = varint();
+            switch ((int) (tag >>> 3)) {
+                case 1 -> id = varint();
+                case 2 -> tags.addAll(message().packed());
+                case 3 -> type = (int) varint();
+                case 4 -> geometry.addAll(message().packed());
+                default -> skip(tag);
+            }
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < tags.size(); i += 2) {
+            attributes.put(keys.get(tags.get(i)), values.get(tags.get(i + 1)));
+        }
+        return new Feature(id, type, geometry, attributes);
+    }
+
+    private Object value() {
+        Object value = null;
+        while (position < end) {
+            long tag = varint();
+            switch ((int) (tag >>> 3)) {
+                case 1 -> value = message().string();
+                case 5 -> value = varint();
+                default -> skip(tag);
+            }
+        }
+        return value;
+    }
+
+    private List<Integer> packed() {
+        List<Integer> values = new ArrayList<>();
+        while (position < end) {
+            values.add((int) varint());
+        }
+        return values;
+    }
+
+    private String string() {
+        return new String(data, position, end - position, StandardCharsets.UTF_8);
+    }
+
+    private MvtReader message() {
+        int length = (int) varint();
+        MvtReader message = new MvtReader(data, position, position + length);
+        position += length;
+        return message;
+    }
+
+    private void skip(long tag) {
+        if ((tag & 7) == 0) {
+            varint();
+        } else if ((tag & 7) == 2) {
+            message();
+        } else {
+            throw new IllegalStateException("Type de champ inattendu : " + (tag & 7));
+        }
+    }
+
+    private long varint() {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = data[position++];
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    public static int zigZagDecode(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
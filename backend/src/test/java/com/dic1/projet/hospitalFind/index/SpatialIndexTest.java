@@ -0,0 +1,110 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SpatialIndexTest {
+
+    private final SpatialIndex index = new SpatialIndex();
+
+    @Test
+    void haversineSurUnMeridien() {
+        double unDegre = Math.PI * SpatialIndex.EARTH_RADIUS_KM / 180.0;
+        assertThat(SpatialIndex.haversineKm(14.0, -17.0, 15.0, -17.0)).isCloseTo(unDegre, within(1e-9));
+        assertThat(SpatialIndex.haversineKm(14.69, -17.44, 14.69, -17.44)).isZero();
+    }
+
+    @Test
+    void nearestCommeUneRechercheExhaustive() {
+        Random random = new Random(42);
+        List<EtablissementSnapshot> snapshots = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            snapshots.add(snapshot(id, Etablissement.Statut.VALIDE,
+                    12.3 + random.nextDouble() * 4.4, -17.5 + random.nextDouble() * 5.7));
+        }
+        index.rebuild(snapshots);
+
+        for (int requete = 0; requete < 50; requete++) {
+            double lat = 12.3 + random.nextDouble() * 4.4;
+            double lon = -17.5 + random.nextDouble() * 5.7;
+            List<SpatialIndex.Neighbor> attendus = snapshots.stream()
+                    .map(s -> new SpatialIndex.Neighbor(s.id(), SpatialIndex.haversineKm(lat, lon, s.latitude(), s.longitude())))
+                    .filter(n -> n.distanceKm() <= 50)
+                    .sorted(Comparator.comparingDouble(SpatialIndex.Neighbor::distanceKm))
+                    .limit(10)
+                    .toList();
+
+            List<SpatialIndex.Neighbor> trouves = index.nearest(lat, lon, 50, 10);
+
+            assertThat(trouves).extracting(SpatialIndex.Neighbor::id)
+                    .containsExactlyElementsOf(attendus.stream().map(SpatialIndex.Neighbor::id).toList());
+        }
+    }
+
+    @Test
+    void nearestRespecteLeRayon() {
+        index.rebuild(List.of(
+                snapshot(1L, Etablissement.Statut.VALIDE, 14.69, -17.44),
+                snapshot(2L, Etablissement.Statut.VALIDE, 16.02, -16.49)));
+
+        assertThat(index.nearest(14.70, -17.45, 20, 5)).extracting(SpatialIndex.Neighbor::id).containsExactly(1L);
+        assertThat(index.nearest(14.70, -17.45, 500, 5)).extracting(SpatialIndex.Neighbor::id).containsExactly(1L, 2L);
+        assertThat(index.nearest(14.70, -17.45, 500, 0)).isEmpty();
+    }
+
+    @Test
+    void withinBoundsInclutLesBornes() {
+        // 14.7 et -17.4 tombent exactement sur des limites de cellules
+        index.rebuild(List.of(
+                snapshot(1L, Etablissement.Statut.VALIDE, 14.7, -17.4),
+                snapshot(2L, Etablissement.Statut.VALIDE, 14.65, -17.45),
+                snapshot(3L, Etablissement.Statut.VALIDE, 14.7000001, -17.4),
+                snapshot(4L, Etablissement.Statut.VALIDE, 14.6, -17.5)));
+
+        assertThat(index.withinBounds(14.6, 14.7, -17.5, -17.4)).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(index.withinBounds(14.71, 14.8, -17.5, -17.4)).isEmpty();
+        assertThat(index.withinBounds(-90, 90, -180, 180)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void seulsLesEtablissementsValidesEtLocalisesSontIndexes() {
+        index.rebuild(List.of(
+                snapshot(1L, Etablissement.Statut.VALIDE, 14.69, -17.44),
+                snapshot(2L, Etablissement.Statut.EN_ATTENTE, 14.69, -17.44),
+                snapshot(3L, Etablissement.Statut.VALIDE, null, null)));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.withinBounds(14, 15, -18, -17)).containsExactly(1L);
+    }
+
+    @Test
+    void updateDeplaceEtRetire() {
+        EtablissementSnapshot dakar = snapshot(1L, Etablissement.Statut.VALIDE, 14.69, -17.44);
+        EtablissementSnapshot saintLouis = snapshot(1L, Etablissement.Statut.VALIDE, 16.02, -16.49);
+        index.rebuild(List.of(dakar, snapshot(2L, Etablissement.Statut.VALIDE, 14.70, -17.45)));
+
+        index.update(dakar, saintLouis);
+        assertThat(index.withinBounds(14, 15, -18, -17)).containsExactly(2L);
+        assertThat(index.withinBounds(16, 16.1, -16.5, -16.4)).containsExactly(1L);
+
+        index.update(saintLouis, snapshot(1L, Etablissement.Statut.REJETE, 16.02, -16.49));
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.nearest(16.02, -16.49, 10, 5)).isEmpty();
+
+        index.update(null, dakar);
+        assertThat(index.nearest(14.69, -17.44, 1, 5)).extracting(SpatialIndex.Neighbor::id).containsExactly(1L);
+    }
+
+    private static EtablissementSnapshot snapshot(Long id, Etablissement.Statut statut, Double lat, Double lon) {
+        return new EtablissementSnapshot(id, "Etablissement " + id, "Dakar", null,
+                Etablissement.TypeEtablissement.HOPITAL, statut, lat, lon, List.of(), List.of());
+    }
+}
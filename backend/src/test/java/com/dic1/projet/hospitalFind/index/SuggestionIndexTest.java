@@ -0,0 +1,132 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.repository.NoteEtablissementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionIndexTest {
+
+    @Mock
+    private NoteEtablissementRepository noteEtablissementRepository;
+
+    @InjectMocks
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void sansNotes() {
+        when(noteEtablissementRepository.findAll()).thenReturn(List.of());
+    }
+
+    @Test
+    void chaqueMotEstUnPointDEntree() {
+        index.rebuild(List.of(
+                snapshot(1L, "Hôpital Principal", null, List.of()),
+                snapshot(2L, "Clinique Pasteur", null, List.of())));
+
+        assertThat(labels(index.suggest("princ", 10))).containsExactly("Hôpital Principal");
+        assertThat(labels(index.suggest("HÔP", 10))).containsExactly("Hôpital Principal");
+        assertThat(labels(index.suggest("hopital p", 10))).containsExactly("Hôpital Principal");
+        assertThat(labels(index.suggest("p", 10))).containsExactlyInAnyOrder("Hôpital Principal", "Clinique Pasteur");
+        assertThat(index.suggest("hopx", 10)).isEmpty();
+        assertThat(index.suggest("z", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void uneSuggestionNApparaitQuUneFois() {
+        index.rebuild(List.of(snapshot(1L, "Hôpital de l'hôpital", null, List.of())));
+
+        assertThat(index.suggest("hop", 10)).hasSize(1);
+    }
+
+    @Test
+    void classementParPoids() {
+        index.rebuild(List.of(
+                snapshot(1L, "Clinique Alpha", null, List.of()),
+                snapshot(2L, "Clinique Beta", null, List.of()),
+                snapshot(3L, "Clinique Gamma", null, List.of())));
+
+        // À poids égal, ordre alphabétique
+        assertThat(labels(index.suggest("clinique", 10)))
+                .containsExactly("Clinique Alpha", "Clinique Beta", "Clinique Gamma");
+
+        index.adjustNotes(3L, 10, 50);
+        index.adjustNotes(2L, 1, 1);
+        index.refresh();
+
+        List<SuggestionIndex.Suggestion> suggestions = index.suggest("clinique", 10);
+        assertThat(labels(suggestions)).containsExactly("Clinique Gamma", "Clinique Beta", "Clinique Alpha");
+        double lisse = (50 + 3.0 * 5) / (10 + 5);
+        assertThat(suggestions.get(0).weight()).isCloseTo(1 + Math.log1p(10) * lisse / 5, within(1e-9));
+        assertThat(suggestions.get(2).weight()).isEqualTo(1.0);
+
+        index.adjustNotes(3L, -10, -50);
+        index.refresh();
+        assertThat(index.suggest("gamma", 10).get(0).weight()).isEqualTo(1.0);
+    }
+
+    @Test
+    void localisationsEtServicesCumulentLesPoids() {
+        index.rebuild(List.of(
+                snapshot(1L, "Hôpital Fann", "Dakar", List.of("Cardiologie")),
+                snapshot(2L, "Hôpital Principal", "dakar", List.of("Cardiologie", "Pédiatrie"))));
+
+        List<SuggestionIndex.Suggestion> dakar = index.suggest("dak", 10);
+        assertThat(dakar).hasSize(1);
+        assertThat(dakar.get(0).kind()).isEqualTo(SuggestionIndex.Kind.LOCALISATION);
+        assertThat(dakar.get(0).etablissementId()).isNull();
+        assertThat(dakar.get(0).weight()).isEqualTo(2.0);
+
+        assertThat(index.suggest("pedia", 10)).extracting(SuggestionIndex.Suggestion::kind)
+                .containsExactly(SuggestionIndex.Kind.SERVICE);
+    }
+
+    @Test
+    void limiteEtPlafond() {
+        List<EtablissementSnapshot> snapshots = new ArrayList<>();
+        for (long id = 1; id <= 15; id++) {
+            snapshots.add(snapshot(id, "Clinique " + id, null, List.of()));
+        }
+        index.rebuild(snapshots);
+
+        assertThat(index.suggest("clin", 3)).hasSize(3);
+        assertThat(index.suggest("clin", 50)).hasSize(SuggestionIndex.MAX_SUGGESTIONS);
+        assertThat(index.suggest("clin", 0)).isEmpty();
+    }
+
+    @Test
+    void lesModificationsApparaissentApresRecompilation() {
+        EtablissementSnapshot fann = snapshot(1L, "Hôpital Fann", null, List.of());
+        index.rebuild(List.of(fann));
+
+        index.update(null, snapshot(2L, "Hôpital Dalal Jamm", null, List.of()));
+        index.update(fann, null);
+        assertThat(labels(index.suggest("hop", 10))).containsExactly("Hôpital Fann");
+
+        index.refresh();
+        assertThat(labels(index.suggest("hop", 10))).containsExactly("Hôpital Dalal Jamm");
+        assertThat(index.suggest("fann", 10)).isEmpty();
+    }
+
+    private static List<String> labels(List<SuggestionIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionIndex.Suggestion::label).toList();
+    }
+
+    private static EtablissementSnapshot snapshot(Long id, String nom, String localisation, List<String> services) {
+        return new EtablissementSnapshot(id, nom, localisation, null, Etablissement.TypeEtablissement.HOPITAL,
+                Etablissement.Statut.VALIDE, 14.69, -17.44, List.of(), services);
+    }
+}
@@ -0,0 +1,90 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TextSearchIndexTest {
+
+    private static final EtablissementSnapshot PASTEUR =
+            snapshot(1L, "Clinique Pasteur", null, List.of());
+    private static final EtablissementSnapshot FANN =
+            snapshot(2L, "Hôpital Fann", null, List.of());
+    private static final EtablissementSnapshot PRINCIPAL =
+            snapshot(3L, "Hôpital Principal", "Service de pédiatrie Pasteur", List.of("Cardiologie"));
+
+    private final TextSearchIndex index = new TextSearchIndex();
+
+    @Test
+    void scoreBm25() {
+        index.rebuild(List.of(PASTEUR, FANN));
+
+        // Deux documents de même longueur (nom x3 + localisation) : idf = ln 2, tf = 3, norme = K1
+        double attendu = Math.log(2) * 3 * 2.2 / (3 + 1.2);
+        List<TextSearchIndex.Hit> hits = index.search("pasteur", 10);
+
+        assertThat(hits).extracting(TextSearchIndex.Hit::id).containsExactly(1L);
+        assertThat(hits.get(0).score()).isCloseTo(attendu, within(1e-6));
+    }
+
+    @Test
+    void leNomPeseDavantageQueLaDescription() {
+        index.rebuild(List.of(PASTEUR, FANN, PRINCIPAL));
+
+        assertThat(index.search("pasteur", 10)).extracting(TextSearchIndex.Hit::id).containsExactly(1L, 3L);
+        assertThat(index.search("hopital cardiologie", 10)).extracting(TextSearchIndex.Hit::id).containsExactly(3L, 2L);
+        assertThat(index.search("pasteur", 1)).hasSize(1);
+    }
+
+    @Test
+    void prefixeEtFauteDeFrappeSontPonderes() {
+        index.rebuild(List.of(PASTEUR, FANN));
+        double exact = index.search("pasteur", 10).get(0).score();
+
+        assertThat(index.search("Past", 10).get(0).score()).isCloseTo(0.8 * exact, within(1e-9));
+        assertThat(index.search("pastuer", 10).get(0).score()).isCloseTo(0.6 * exact, within(1e-9));
+        assertThat(index.search("pasteru", 10)).extracting(TextSearchIndex.Hit::id).containsExactly(1L);
+        assertThat(index.search("hôpîtal", 10)).extracting(TextSearchIndex.Hit::id).containsExactly(2L);
+        assertThat(index.search("fnn", 10)).isEmpty();
+    }
+
+    @Test
+    void isOneEditAway() {
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "pasteur")).isTrue();
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "pastuer")).isTrue();
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "pateur")).isTrue();
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "pasteurs")).isTrue();
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "pasteor")).isTrue();
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "paster")).isTrue();
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "patseru")).isFalse();
+        assertThat(TextSearchIndex.isOneEditAway("pasteur", "paseu")).isFalse();
+    }
+
+    @Test
+    void retraitEtModification() {
+        index.rebuild(List.of(PASTEUR, FANN, PRINCIPAL));
+
+        index.update(PASTEUR, null);
+        index.update(PRINCIPAL, snapshot(3L, "Hôpital Principal", null, List.of("Cardiologie")));
+        index.update(FANN, new EtablissementSnapshot(2L, "Hôpital Fann", "Dakar", null, Etablissement.TypeEtablissement.HOPITAL,
+                Etablissement.Statut.REJETE, 14.69, -17.44, List.of(), List.of()));
+
+        assertThat(index.search("pasteur", 10)).isEmpty();
+        assertThat(index.search("fann", 10)).isEmpty();
+
+        // Les longueurs retirées ne doivent pas fausser la normalisation BM25
+        TextSearchIndex reconstruit = new TextSearchIndex();
+        reconstruit.rebuild(List.of(snapshot(3L, "Hôpital Principal", null, List.of("Cardiologie"))));
+        assertThat(index.search("hopital cardiologie", 10))
+                .containsExactlyElementsOf(reconstruit.search("hopital cardiologie", 10));
+    }
+
+    private static EtablissementSnapshot snapshot(Long id, String nom, String description, List<String> services) {
+        return new EtablissementSnapshot(id, nom, "Dakar", description, Etablissement.TypeEtablissement.HOPITAL,
+                Etablissement.Statut.VALIDE, 14.69, -17.44, List.of(), services);
+    }
+}
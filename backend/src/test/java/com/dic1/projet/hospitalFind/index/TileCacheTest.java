@@ -0,0 +1,88 @@
+package com.dic1.projet.hospitalFind.index;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TileCacheTest {
+
+    private static final double LAT = 14.69;
+    private static final double LON = -17.44;
+
+    private final TileCache cache = new TileCache();
+
+    @BeforeEach
+    void taille() {
+        ReflectionTestUtils.setField(cache, "maxBytes", 10L);
+    }
+
+    @Test
+    void uneTuileCalculeeAvantUneModificationNEstPasMiseEnCache() {
+        long stamp = cache.stamp();
+        cache.update(null, snapshot(LAT, LON));
+
+        cache.put(0, 0, 0, tuile(1), stamp);
+        assertThat(cache.get(0, 0, 0)).isNull();
+
+        cache.put(0, 0, 0, tuile(1), cache.stamp());
+        assertThat(cache.get(0, 0, 0)).isNotNull();
+    }
+
+    @Test
+    void seulesLesTuilesDeLAncienneEtDeLaNouvellePositionSontInvalidees() {
+        int z = 12;
+        int x = WebMercator.cell(WebMercator.x(LON), z);
+        int y = WebMercator.cell(WebMercator.y(LAT), z);
+        int xAilleurs = WebMercator.cell(WebMercator.x(-16.49), z);
+        int yAilleurs = WebMercator.cell(WebMercator.y(16.02), z);
+        long stamp = cache.stamp();
+        cache.put(z, x, y, tuile(1), stamp);
+        cache.put(z, xAilleurs, yAilleurs, tuile(1), stamp);
+        cache.put(z, x + 1, y, tuile(1), stamp);
+
+        cache.update(snapshot(LAT, LON), snapshot(LAT + 0.0001, LON));
+
+        assertThat(cache.get(z, x, y)).isNull();
+        assertThat(cache.get(z, xAilleurs, yAilleurs)).isNotNull();
+        assertThat(cache.get(z, x + 1, y)).isNotNull();
+    }
+
+    @Test
+    void unEtablissementNonValideNInvalideRien() {
+        long stamp = cache.stamp();
+        cache.update(null, new EtablissementSnapshot(1L, "Clinique", "Dakar", null, Etablissement.TypeEtablissement.CLINIQUE,
+                Etablissement.Statut.EN_ATTENTE, LAT, LON, List.of(), List.of()));
+
+        assertThat(cache.stamp()).isEqualTo(stamp);
+    }
+
+    @Test
+    void borneEnOctetsLesMoinsRecentesSortent() {
+        long stamp = cache.stamp();
+        cache.put(1, 0, 0, tuile(4), stamp);
+        cache.put(1, 0, 1, tuile(4), stamp);
+        cache.get(1, 0, 0);
+        cache.put(1, 1, 0, tuile(4), stamp);
+
+        assertThat(cache.get(1, 0, 1)).isNull();
+        assertThat(cache.get(1, 0, 0)).isNotNull();
+        assertThat(cache.get(1, 1, 0)).isNotNull();
+
+        cache.put(1, 1, 1, tuile(11), stamp);
+        assertThat(cache.get(1, 1, 1)).isNull();
+    }
+
+    private static TileCache.CachedTile tuile(int octets) {
+        return new TileCache.CachedTile(new byte[octets], "\"t\"");
+    }
+
+    private static EtablissementSnapshot snapshot(double lat, double lon) {
+        return new EtablissementSnapshot(1L, "Hôpital", "Dakar", null, Etablissement.TypeEtablissement.HOPITAL,
+                Etablissement.Statut.VALIDE, lat, lon, List.of(), List.of());
+    }
+}
@@ -0,0 +1,54 @@
+package com.dic1.projet.hospitalFind.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VectorTileEncoderTest {
+
+    @Test
+    void coucheDePoints() {
+        VectorTileEncoder encoder = new VectorTileEncoder("etablissements");
+        Map<String, Object> attributs = new LinkedHashMap<>();
+        attributs.put("nom", "Hôpital Fann");
+        attributs.put("type", "HOPITAL");
+        attributs.put("lits", 250L);
+        attributs.put("description", null);
+        encoder.addPoint(42L, 100, 4095, attributs);
+        encoder.addPoint(43L, 0, 7, Map.of("type", "HOPITAL"));
+
+        List<MvtReader.Layer> layers = MvtReader.read(encoder.encode());
+
+        assertThat(layers).hasSize(1);
+        MvtReader.Layer layer = layers.get(0);
+        assertThat(layer.name()).isEqualTo("etablissements");
+        assertThat(layer.version()).isEqualTo(2);
+        assertThat(layer.extent()).isEqualTo(VectorTileEncoder.EXTENT);
+        assertThat(layer.features()).extracting(MvtReader.Feature::id).containsExactly(42L, 43L);
+
+        MvtReader.Feature premier = layer.features().get(0);
+        assertThat(premier.type()).isEqualTo(1);
+        // MoveTo d'un seul point : commande 1, compteur 1, puis x et y en zigzag
+        assertThat(premier.geometry()).hasSize(3);
+        assertThat(premier.geometry().get(0)).isEqualTo(9);
+        assertThat(MvtReader.zigZagDecode(premier.geometry().get(1))).isEqualTo(100);
+        assertThat(MvtReader.zigZagDecode(premier.geometry().get(2))).isEqualTo(4095);
+        assertThat(premier.attributes()).containsOnly(
+                Map.entry("nom", "Hôpital Fann"), Map.entry("type", "HOPITAL"), Map.entry("lits", 250L));
+
+        // Clés et valeurs partagées entre les points
+        assertThat(layer.features().get(1).attributes()).containsOnly(Map.entry("type", "HOPITAL"));
+    }
+
+    @Test
+    void tuileVide() {
+        VectorTileEncoder encoder = new VectorTileEncoder("etablissements");
+
+        assertThat(encoder.isEmpty()).isTrue();
+        assertThat(encoder.encode()).isEmpty();
+    }
+}
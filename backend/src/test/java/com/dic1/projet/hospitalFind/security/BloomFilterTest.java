@@ -0,0 +1,55 @@
+package com.dic1.projet.hospitalFind.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void aucunFauxNegatif() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("s:" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("s:" + i)).as("s:%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void aucunFauxNegatifAuDelaDeLaCapacite() {
+        BloomFilter filter = new BloomFilter(10, 0.01);
+        for (int i = 0; i < 5_000; i++) {
+            filter.add("u:" + i);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(filter.mightContain("u:" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void tauxDeFauxPositifsProcheDeLaCible() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("s:" + i);
+        }
+
+        int fauxPositifs = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent:" + i)) {
+                fauxPositifs++;
+            }
+        }
+        assertThat(fauxPositifs / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void filtreVide() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertThat(filter.mightContain("s:session")).isFalse();
+        filter.add("s:session");
+        assertThat(filter.mightContain("s:session")).isTrue();
+    }
+}
@@ -0,0 +1,87 @@
+package com.dic1.projet.hospitalFind.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "secret_de_test_suffisamment_long_pour_hs256_0123456789";
+
+    private JwtUtil jwtUtil;
+    private Cache<String, JwtUtil.VerifiedToken> verifiedTokens;
+
+    @BeforeEach
+    void init() {
+        jwtUtil = jwtUtil(SECRET, 900_000L);
+        verifiedTokens = cache(jwtUtil);
+    }
+
+    @Test
+    void jetonAnalyseUneSeuleFois() {
+        String token = jwtUtil.generateToken("awa@example.sn", "TUTEUR", 7L, "session-1");
+
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+        assertThat(verified.email()).isEqualTo("awa@example.sn");
+        assertThat(verified.role()).isEqualTo("TUTEUR");
+        assertThat(verified.userId()).isEqualTo(7L);
+        assertThat(verified.sessionId()).isEqualTo("session-1");
+        assertThat(verified.expiresAt()).isGreaterThan(verified.issuedAt());
+
+        assertThat(jwtUtil.verify(token)).isSameAs(verified);
+        assertThat(verifiedTokens.stats().hitCount()).isEqualTo(1);
+        assertThat(verifiedTokens.asMap()).containsOnlyKeys(JwtUtil.sha256(token));
+    }
+
+    @Test
+    void entreeExpireAvecLeJeton() throws InterruptedException {
+        JwtUtil courtTerme = jwtUtil(SECRET, 1_000L);
+        Cache<String, JwtUtil.VerifiedToken> cache = cache(courtTerme);
+        String token = courtTerme.generateToken("awa@example.sn", "TUTEUR", 7L, "session-1");
+
+        JwtUtil.VerifiedToken verified = courtTerme.verify(token);
+        assertThat(verified).isNotNull();
+        assertThat(cache.getIfPresent(JwtUtil.sha256(token))).isNotNull();
+
+        // exp est en secondes : on attend qu'il soit franchement dépassé
+        Thread.sleep(Math.max(0, verified.expiresAt() - System.currentTimeMillis()) + 50);
+
+        assertThat(cache.getIfPresent(JwtUtil.sha256(token))).isNull();
+        assertThat(courtTerme.verify(token)).isNull();
+        assertThat(courtTerme.isTokenValid(token)).isFalse();
+        // Le jeton expiré n'est pas remis en cache
+        assertThat(cache.getIfPresent(JwtUtil.sha256(token))).isNull();
+    }
+
+    @Test
+    void jetonInvalideNonMisEnCache() {
+        String token = jwtUtil.generateToken("awa@example.sn", "TUTEUR", 7L, "session-1");
+        String falsifie = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String autreCle = jwtUtil("une_autre_cle_de_signature_assez_longue_pour_hs256_987654", 900_000L)
+                .generateToken("awa@example.sn", "ADMIN", 7L, "session-1");
+
+        assertThat(jwtUtil.verify(falsifie)).isNull();
+        assertThat(jwtUtil.verify(autreCle)).isNull();
+        assertThat(jwtUtil.verify("pas.un.jeton")).isNull();
+        assertThat(verifiedTokens.asMap()).isEmpty();
+    }
+
+    private static JwtUtil jwtUtil(String secret, long expiration) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, JwtUtil.VerifiedToken> cache(JwtUtil jwtUtil) {
+        return (Cache<String, JwtUtil.VerifiedToken>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens");
+    }
+}
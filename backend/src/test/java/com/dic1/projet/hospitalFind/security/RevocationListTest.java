@@ -0,0 +1,120 @@
+package com.dic1.projet.hospitalFind.security;
+
+import com.dic1.projet.hospitalFind.repository.TuteurRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationListTest {
+
+    private static final long QUINZE_MINUTES = 900_000L;
+
+    @Mock
+    private TuteurRepository tuteurRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private RevocationList revocationList;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 16L);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        revocationList.init();
+    }
+
+    @Test
+    void sessionRevoquee() {
+        when(jwtUtil.getExpiration()).thenReturn(QUINZE_MINUTES);
+
+        revocationList.revokeSession("session-1");
+
+        assertThat(revocationList.isRevoked(token(1L, "session-1", 0))).isTrue();
+        assertThat(revocationList.isRevoked(token(1L, "session-2", 0))).isFalse();
+        assertThat(revocationList.isRevoked(token(null, null, 0))).isFalse();
+    }
+
+    @Test
+    void seulsLesJetonsEmisAvantLaRevocationDUnUtilisateurSontRefuses() {
+        long avant = System.currentTimeMillis() - 1;
+        revocationList.revokeUser(7L);
+        long apres = System.currentTimeMillis() + 1;
+
+        assertThat(revocationList.isRevoked(token(7L, "session", avant))).isTrue();
+        assertThat(revocationList.isRevoked(token(7L, "session", apres))).isFalse();
+        assertThat(revocationList.isRevoked(token(8L, "session", avant))).isFalse();
+    }
+
+    @Test
+    void aucunFauxNegatifAuDelaDeLaCapaciteDuFiltre() {
+        when(jwtUtil.getExpiration()).thenReturn(QUINZE_MINUTES);
+
+        for (int i = 0; i < 1_000; i++) {
+            revocationList.revokeSession("session-" + i);
+            revocationList.revokeUser((long) i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(revocationList.isRevoked(token(null, "session-" + i, 0))).isTrue();
+            assertThat(revocationList.isRevoked(token((long) i, null, 0))).isTrue();
+        }
+        assertThat(revocationList.isRevoked(token(5_000L, "session-absente", 0))).isFalse();
+    }
+
+    @Test
+    void lesEntreesExpireesSontPurgees() {
+        // Jetons d'accès déjà expirés : la révocation n'a plus rien à refuser
+        when(jwtUtil.getExpiration()).thenReturn(-1L);
+        long emis = System.currentTimeMillis() - 1;
+        revocationList.revokeSession("session-1");
+        revocationList.revokeUser(7L);
+        assertThat(revocationList.size()).isEqualTo(2);
+
+        revocationList.purger();
+
+        assertThat(revocationList.size()).isZero();
+        assertThat(revocationList.isRevoked(token(7L, "session-1", emis))).isFalse();
+    }
+
+    @Test
+    void lesEntreesEncoreUtilesSurviventALaPurge() {
+        when(jwtUtil.getExpiration()).thenReturn(QUINZE_MINUTES);
+        long emis = System.currentTimeMillis() - 1;
+        revocationList.revokeSession("session-1");
+        revocationList.revokeUser(7L);
+
+        revocationList.purger();
+
+        assertThat(revocationList.size()).isEqualTo(2);
+        assertThat(revocationList.isRevoked(token(null, "session-1", 0))).isTrue();
+        assertThat(revocationList.isRevoked(token(7L, null, emis))).isTrue();
+    }
+
+    @Test
+    void tuteursInactifsRevoquesAuDemarrage() {
+        when(tuteurRepository.findInactifIds()).thenReturn(List.of(3L, 4L));
+        long emis = System.currentTimeMillis() - 1;
+
+        revocationList.initialiser();
+
+        assertThat(revocationList.isRevoked(token(3L, null, emis))).isTrue();
+        assertThat(revocationList.isRevoked(token(4L, null, emis))).isTrue();
+        assertThat(revocationList.isRevoked(token(5L, null, emis))).isFalse();
+    }
+
+    private static JwtUtil.VerifiedToken token(Long userId, String sessionId, long issuedAt) {
+        return new JwtUtil.VerifiedToken("tuteur@test.sn", "TUTEUR", userId, sessionId, issuedAt, issuedAt + QUINZE_MINUTES);
+    }
+}
@@ -0,0 +1,79 @@
+package com.dic1.projet.hospitalFind.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final AtomicLong horloge = new AtomicLong();
+
+    @Test
+    void rafaleJusquALaCapacitePuisAttente() {
+        TokenBucket bucket = new TokenBucket(5, 3 / 60.0, horloge::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryConsume()).isZero();
+        }
+        // 3 par minute : un jeton toutes les 20 secondes
+        assertThat(bucket.tryConsume()).isEqualTo(20);
+    }
+
+    @Test
+    void rechargeProportionnelleAuTempsEcoule() {
+        TokenBucket bucket = new TokenBucket(5, 3 / 60.0, horloge::get);
+        vider(bucket, 5);
+
+        avancer(10);
+        assertThat(bucket.tryConsume()).isEqualTo(10);
+        avancer(10);
+        assertThat(bucket.tryConsume()).isZero();
+        assertThat(bucket.tryConsume()).isEqualTo(20);
+    }
+
+    @Test
+    void unRefusNeConsommeRien() {
+        TokenBucket bucket = new TokenBucket(20, 10 / 60.0, horloge::get);
+        vider(bucket, 20);
+
+        assertThat(bucket.tryConsume()).isEqualTo(6);
+        assertThat(bucket.tryConsume()).isEqualTo(6);
+        avancer(6);
+        assertThat(bucket.tryConsume()).isZero();
+    }
+
+    @Test
+    void laRechargeEstPlafonneeALaCapacite() {
+        TokenBucket bucket = new TokenBucket(5, 3 / 60.0, horloge::get);
+        vider(bucket, 5);
+
+        avancer(3600);
+        vider(bucket, 5);
+        assertThat(bucket.tryConsume()).isEqualTo(20);
+    }
+
+    @Test
+    void attenteDAuMoinsUneSeconde() {
+        TokenBucket bucket = new TokenBucket(2, 10, horloge::get);
+        vider(bucket, 2);
+
+        assertThat(bucket.tryConsume()).isEqualTo(1);
+        horloge.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(bucket.tryConsume()).isEqualTo(1);
+        horloge.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(bucket.tryConsume()).isZero();
+    }
+
+    private void avancer(long secondes) {
+        horloge.addAndGet(TimeUnit.SECONDS.toNanos(secondes));
+    }
+
+    private static void vider(TokenBucket bucket, int jetons) {
+        for (int i = 0; i < jetons; i++) {
+            assertThat(bucket.tryConsume()).isZero();
+        }
+    }
+}
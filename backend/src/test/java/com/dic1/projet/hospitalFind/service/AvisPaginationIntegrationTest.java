@@ -0,0 +1,116 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.dto.AvisDto;
+import com.dic1.projet.hospitalFind.dto.AvisPageDTO;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parcours complet des pages d'avis quand de nombreux avis partagent la même note et
+ * la même date : l'identifiant départage, aucun avis n'est sauté ni répété.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AvisPaginationIntegrationTest {
+
+    private static final int AVIS = 23;
+    private static final int TAILLE_PAGE = 4;
+
+    @Autowired
+    private AvisService avisService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    private long etablissementId;
+
+    private record Ligne(long id, Integer note, LocalDateTime date) {
+    }
+
+    @BeforeEach
+    void remplir() {
+        long serviceId = sequenceRepository.allouer(SequenceRepository.Sequence.SERVICE, 1);
+        jdbcTemplate.update("INSERT INTO service (id_service, nom) VALUES (?, ?)", serviceId, "Cardiologie");
+        etablissementId = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, 1);
+        jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                        + "description, type_etablissement, latitude, longitude, statut) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                etablissementId, "Hôpital Fann", "Avenue Cheikh Anta Diop", "Dakar", "+221 33 869 18 18", null, null,
+                "HOPITAL", 14.69, -17.46, "VALIDE");
+        String email = "pagination" + etablissementId + "@test.sn";
+        jdbcTemplate.update("INSERT INTO utilisateur (nom, prenom, email, mot_de_passe, role) VALUES (?, ?, ?, ?, ?)",
+                "Diop", "Awa", email, "-", "STANDARD");
+        Long utilisateurId = jdbcTemplate.queryForObject(
+                "SELECT id_utilisateur FROM utilisateur WHERE email = ?", Long.class, email);
+
+        // Trois dates et quatre valeurs de note (dont l'absence de note) pour multiplier les égalités
+        LocalDateTime date = LocalDateTime.of(2024, 5, 1, 10, 0);
+        for (int i = 0; i < AVIS; i++) {
+            Integer note = i % 4 == 3 ? null : 3 + i % 3;
+            jdbcTemplate.update("INSERT INTO avis (note, commentaire, date_creation, id_utilisateur, id_service, id_etablissement) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    note, "Avis " + i, Timestamp.valueOf(date.plusHours(i % 3)), utilisateurId, serviceId, etablissementId);
+        }
+    }
+
+    @Test
+    void parDate() {
+        Comparator<Ligne> ordre = Comparator.comparing(Ligne::date).thenComparingLong(Ligne::id).reversed();
+        assertThat(parcourir("newest")).containsExactlyElementsOf(attendus(ordre, false));
+    }
+
+    @Test
+    void meilleuresNotes() {
+        Comparator<Ligne> ordre = Comparator.comparing(Ligne::note)
+                .thenComparing(Ligne::date)
+                .thenComparingLong(Ligne::id)
+                .reversed();
+        assertThat(parcourir("best")).containsExactlyElementsOf(attendus(ordre, true));
+    }
+
+    @Test
+    void piresNotes() {
+        Comparator<Ligne> ordre = Comparator.comparing(Ligne::note)
+                .thenComparing(Comparator.comparing(Ligne::date).thenComparingLong(Ligne::id).reversed());
+        assertThat(parcourir("worst")).containsExactlyElementsOf(attendus(ordre, true));
+    }
+
+    private List<Long> parcourir(String sort) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            AvisPageDTO page = avisService.getAvisPage(etablissementId, cursor, TAILLE_PAGE, sort);
+            assertThat(page.getAvis()).hasSizeLessThanOrEqualTo(TAILLE_PAGE);
+            page.getAvis().stream().map(AvisDto::getIdAvis).forEach(ids::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> attendus(Comparator<Ligne> ordre, boolean notesSeulement) {
+        return jdbcTemplate.query("SELECT id_avis, note, date_creation FROM avis WHERE id_etablissement = ?",
+                        (rs, i) -> new Ligne(rs.getLong("id_avis"), (Integer) rs.getObject("note"),
+                                rs.getTimestamp("date_creation").toLocalDateTime()),
+                        etablissementId).stream()
+                .filter(ligne -> !notesSeulement || Objects.nonNull(ligne.note()))
+                .sorted(ordre)
+                .map(Ligne::id)
+                .toList();
+    }
+}
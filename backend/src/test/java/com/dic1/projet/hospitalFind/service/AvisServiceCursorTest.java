@@ -0,0 +1,63 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.entity.Avis;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvisServiceCursorTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 3, 14, 9, 26, 53, 589_000_000);
+
+    @Test
+    void allerRetour() {
+        String cursor = AvisService.encodeCursor(avis(42L, 4, DATE), "best");
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(AvisService.decodeCursor(cursor, "best"))
+                .isEqualTo(new AvisService.Curseur(4, DATE, 42L));
+    }
+
+    @Test
+    void unAvisSansNoteNePagineQueParDate() {
+        String cursor = AvisService.encodeCursor(avis(7L, null, DATE), "newest");
+
+        assertThat(AvisService.decodeCursor(cursor, "newest"))
+                .isEqualTo(new AvisService.Curseur(null, DATE, 7L));
+        assertThatThrownBy(() -> AvisService.decodeCursor(encoder("best|null|" + DATE + "|7"), "best"))
+                .hasMessage("Curseur invalide");
+    }
+
+    @Test
+    void unCurseurEstLieASonTri() {
+        String cursor = AvisService.encodeCursor(avis(42L, 4, DATE), "best");
+
+        assertThatThrownBy(() -> AvisService.decodeCursor(cursor, "worst")).hasMessage("Curseur invalide");
+    }
+
+    @Test
+    void curseursMalFormes() {
+        assertThatThrownBy(() -> AvisService.decodeCursor("pas un curseur!", "newest")).hasMessage("Curseur invalide");
+        assertThatThrownBy(() -> AvisService.decodeCursor(encoder("newest|4|" + DATE), "newest")).hasMessage("Curseur invalide");
+        assertThatThrownBy(() -> AvisService.decodeCursor(encoder("newest|4|hier|42"), "newest")).hasMessage("Curseur invalide");
+        assertThatThrownBy(() -> AvisService.decodeCursor(encoder("best|quatre|" + DATE + "|42"), "best")).hasMessage("Curseur invalide");
+        assertThatThrownBy(() -> AvisService.decodeCursor(encoder("best|4|" + DATE + "|x"), "best")).hasMessage("Curseur invalide");
+    }
+
+    private static String encoder(String valeur) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Avis avis(Long id, Integer note, LocalDateTime date) {
+        Avis avis = new Avis();
+        avis.setIdAvis(id);
+        avis.setNote(note);
+        avis.setDateCreation(date);
+        return avis;
+    }
+}
@@ -0,0 +1,131 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.dto.EtablissementChangesDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementPublicDTO;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pagination de {@code /changes} par curseur et compaction du journal.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangementsIntegrationTest {
+
+    @Autowired
+    private EtablissementService etablissementService;
+
+    @Autowired
+    private ChangementService changementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    private long depart;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void remplir() {
+        depart = dernierSeq();
+        long premier = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, 3);
+        for (long id = premier; id < premier + 3; id++) {
+            jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                            + "description, type_etablissement, latitude, longitude, statut) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    id, "Clinique " + id, "Route de Ouakam", "Dakar", null, null, null,
+                    "CLINIQUE", 14.72, -17.48, "EN_ATTENTE");
+            ids.add(id);
+        }
+    }
+
+    @Test
+    void pagesSuccessivesDepuisLeCurseur() {
+        for (Long id : ids) {
+            etablissementService.validerEtablissement(id);
+        }
+
+        EtablissementChangesDTO premiere = etablissementService.getChangements(depart, 2);
+        assertThat(premiere.getHasMore()).isTrue();
+        assertThat(idsUpserts(premiere)).containsExactly(ids.get(0), ids.get(1));
+        assertThat(premiere.getTombstones()).isEmpty();
+
+        EtablissementChangesDTO seconde = etablissementService.getChangements(premiere.getSeq(), 2);
+        assertThat(seconde.getHasMore()).isFalse();
+        assertThat(idsUpserts(seconde)).containsExactly(ids.get(2));
+        assertThat(seconde.getSeq()).isGreaterThan(premiere.getSeq());
+
+        EtablissementChangesDTO vide = etablissementService.getChangements(seconde.getSeq(), 2);
+        assertThat(vide.getHasMore()).isFalse();
+        assertThat(vide.getUpserts()).isEmpty();
+        assertThat(vide.getTombstones()).isEmpty();
+        assertThat(vide.getSeq()).isEqualTo(seconde.getSeq());
+    }
+
+    @Test
+    void seuleLaDerniereOperationEstRenvoyee() {
+        etablissementService.validerEtablissement(ids.get(0));
+        etablissementService.validerEtablissement(ids.get(1));
+        etablissementService.rejeterEtablissement(ids.get(0));
+        etablissementService.deleteEtablissement(ids.get(1));
+        etablissementService.validerEtablissement(ids.get(2));
+
+        EtablissementChangesDTO changements = etablissementService.getChangements(depart, 10);
+        assertThat(changements.getHasMore()).isFalse();
+        assertThat(idsUpserts(changements)).containsExactly(ids.get(2));
+        assertThat(changements.getTombstones()).containsExactly(ids.get(0), ids.get(1));
+    }
+
+    @Test
+    void compactionGardeLaDerniereEntree() {
+        etablissementService.validerEtablissement(ids.get(0));
+        etablissementService.rejeterEtablissement(ids.get(0));
+        etablissementService.validerEtablissement(ids.get(0));
+        etablissementService.validerEtablissement(ids.get(1));
+        assertThat(entrees(ids.get(0))).isEqualTo(3);
+        Long dernier = jdbcTemplate.queryForObject(
+                "SELECT MAX(seq) FROM changement_etablissement WHERE id_etablissement = ?", Long.class, ids.get(0));
+
+        changementService.compacter();
+
+        assertThat(entrees(ids.get(0))).isEqualTo(1);
+        assertThat(entrees(ids.get(1))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT seq FROM changement_etablissement WHERE id_etablissement = ?", Long.class, ids.get(0)))
+                .isEqualTo(dernier);
+        EtablissementChangesDTO changements = etablissementService.getChangements(depart, 10);
+        assertThat(idsUpserts(changements)).containsExactly(ids.get(0), ids.get(1));
+    }
+
+    @Test
+    void parametresInvalides() {
+        assertThatThrownBy(() -> etablissementService.getChangements(-1L, 10)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> etablissementService.getChangements(0L, 0)).isInstanceOf(RuntimeException.class);
+    }
+
+    private long dernierSeq() {
+        Long seq = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM changement_etablissement", Long.class);
+        return seq != null ? seq : 0;
+    }
+
+    private long entrees(Long etablissementId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM changement_etablissement WHERE id_etablissement = ?", Long.class, etablissementId);
+    }
+
+    private static List<Long> idsUpserts(EtablissementChangesDTO changements) {
+        return changements.getUpserts().stream().map(EtablissementPublicDTO::getId).toList();
+    }
+}
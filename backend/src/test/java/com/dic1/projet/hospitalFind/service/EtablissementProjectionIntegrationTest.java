@@ -0,0 +1,229 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.dto.EtablissementAdminDTO;
+import com.dic1.projet.hospitalFind.dto.EtablissementPublicDTO;
+import com.dic1.projet.hospitalFind.dto.NoteDTO;
+import com.dic1.projet.hospitalFind.dto.ServiceDTO;
+import com.dic1.projet.hospitalFind.dto.TuteurDTO;
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.entity.Tuteur;
+import com.dic1.projet.hospitalFind.entity.Utilisateur;
+import com.dic1.projet.hospitalFind.repository.EtablissementRepository;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import com.dic1.projet.hospitalFind.repository.TuteurRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Les DTO construits à partir des projections sont identiques à ceux qu'on obtient
+ * depuis les entités chargées avec leur tuteur et leurs services : avec ou sans
+ * tuteur, avec ou sans services, pour chaque statut.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EtablissementProjectionIntegrationTest {
+
+    @Autowired
+    private EtablissementService etablissementService;
+
+    @Autowired
+    private EtablissementRepository etablissementRepository;
+
+    @Autowired
+    private TuteurRepository tuteurRepository;
+
+    @Autowired
+    private NotationService notationService;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Tuteur tuteurActif;
+    private long valideAvecServices;
+    private long valideSansTuteur;
+    private long enAttente;
+
+    @BeforeEach
+    void remplir() {
+        tuteurActif = tuteur("Diop", "Aminata", true);
+        Tuteur tuteurInactif = tuteur("Ndiaye", "Moussa", false);
+
+        valideAvecServices = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, 3);
+        valideSansTuteur = valideAvecServices + 1;
+        enAttente = valideAvecServices + 2;
+        inserer(valideAvecServices, "Hôpital Le Dantec", 14.66, -17.44, "VALIDE", tuteurActif.getIdUtilisateur());
+        inserer(valideSansTuteur, "Poste de santé de Yoff", null, null, "VALIDE", null);
+        inserer(enAttente, "Clinique Pasteur", 14.68, -17.45, "EN_ATTENTE", tuteurInactif.getIdUtilisateur());
+
+        long service = sequenceRepository.allouer(SequenceRepository.Sequence.SERVICE, 2);
+        jdbcTemplate.update("INSERT INTO service (id_service, nom, description) VALUES (?, ?, ?)",
+                service, "Cardiologie " + service, "Consultations et échographie");
+        jdbcTemplate.update("INSERT INTO service (id_service, nom, description) VALUES (?, ?, ?)",
+                service + 1, "Urgences " + service, null);
+        lier(service, valideAvecServices);
+        lier(service + 1, valideAvecServices);
+        lier(service + 1, enAttente);
+
+        cacheManager.getCacheNames().forEach(nom -> cacheManager.getCache(nom).clear());
+    }
+
+    @Test
+    void dtoAdmin() {
+        Map<Long, Etablissement> entites = entites();
+
+        Map<Long, EtablissementAdminDTO> tous = parId(etablissementService.getAllEtablissementsAdmin(), EtablissementAdminDTO::getId);
+        for (long id : List.of(valideAvecServices, valideSansTuteur, enAttente)) {
+            EtablissementAdminDTO attendu = adminDepuisEntite(entites.get(id));
+            assertThat(trie(tous.get(id))).isEqualTo(attendu);
+            assertThat(trie(etablissementService.getEtablissementAdminById(id))).isEqualTo(attendu);
+        }
+
+        Map<Long, EtablissementAdminDTO> enAttentes = parId(etablissementService.getEtablissementsEnAttente(), EtablissementAdminDTO::getId);
+        assertThat(enAttentes).doesNotContainKeys(valideAvecServices, valideSansTuteur);
+        assertThat(trie(enAttentes.get(enAttente))).isEqualTo(adminDepuisEntite(entites.get(enAttente)));
+        assertThat(enAttentes.get(enAttente).getTuteur().getEstActif()).isFalse();
+    }
+
+    @Test
+    void dtoPublics() {
+        Map<Long, Etablissement> entites = entites();
+        Map<Long, NoteDTO> notes = notationService.getToutesLesNotes();
+
+        Map<Long, EtablissementPublicDTO> liste = parId(etablissementService.getAllEtablissementsPublic(null), EtablissementPublicDTO::getId);
+        assertThat(liste).doesNotContainKey(enAttente);
+        for (long id : List.of(valideAvecServices, valideSansTuteur)) {
+            EtablissementPublicDTO attendu = publicDepuisEntite(entites.get(id), notes.get(id),
+                    notationService.getToutesLesNotesParService().getOrDefault(id, Map.of()));
+            assertThat(trie(liste.get(id))).isEqualTo(attendu);
+        }
+
+        EtablissementPublicDTO detail = publicDepuisEntite(entites.get(valideAvecServices),
+                notationService.getNote(valideAvecServices), notationService.getNotesParService(valideAvecServices));
+        assertThat(trie(etablissementService.getEtablissementPublicById(valideAvecServices))).isEqualTo(detail);
+        assertThat(trie(etablissementService.getMyEtablissement(tuteurActif.getIdUtilisateur()))).isEqualTo(detail);
+        assertThat(detail.getServices()).hasSize(2);
+        assertThat(detail.getTuteurNom()).isEqualTo("Diop");
+    }
+
+    /** Entités chargées comme avant les projections, tuteur et services compris. */
+    private Map<Long, Etablissement> entites() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                parId(etablissementRepository.findAllWithTuteurAndServices(), Etablissement::getIdEtablissement));
+    }
+
+    private static EtablissementAdminDTO adminDepuisEntite(Etablissement etablissement) {
+        EtablissementAdminDTO dto = new EtablissementAdminDTO();
+        dto.setId(etablissement.getIdEtablissement());
+        dto.setNom(etablissement.getNom());
+        dto.setLocalisation(etablissement.getLocalisation());
+        dto.setStatut(etablissement.getStatut().name());
+        dto.setLatitude(etablissement.getLatitude());
+        dto.setLongitude(etablissement.getLongitude());
+        if (etablissement.getTuteur() != null) {
+            TuteurDTO tuteur = new TuteurDTO();
+            tuteur.setId(etablissement.getTuteur().getIdUtilisateur());
+            tuteur.setNom(etablissement.getTuteur().getNom());
+            tuteur.setPrenom(etablissement.getTuteur().getPrenom());
+            tuteur.setEmail(etablissement.getTuteur().getEmail());
+            tuteur.setRole("STANDARD");
+            tuteur.setEstActif(etablissement.getTuteur().getEstActif());
+            dto.setTuteur(tuteur);
+        }
+        dto.setServices(services(etablissement));
+        return dto;
+    }
+
+    private static EtablissementPublicDTO publicDepuisEntite(Etablissement etablissement,
+                                                             NoteDTO note,
+                                                             Map<Long, NoteDTO> notesParService) {
+        EtablissementPublicDTO dto = new EtablissementPublicDTO();
+        dto.setId(etablissement.getIdEtablissement());
+        dto.setNom(etablissement.getNom());
+        dto.setLocalisation(etablissement.getLocalisation());
+        dto.setStatut(etablissement.getStatut().name());
+        dto.setLatitude(etablissement.getLatitude());
+        dto.setLongitude(etablissement.getLongitude());
+        if (etablissement.getTuteur() != null) {
+            dto.setTuteurNom(etablissement.getTuteur().getNom());
+            dto.setTuteurPrenom(etablissement.getTuteur().getPrenom());
+        }
+        dto.setServices(services(etablissement));
+        dto.setNote(note);
+        dto.setNotesParService(notesParService);
+        return dto;
+    }
+
+    private static List<ServiceDTO> services(Etablissement etablissement) {
+        return etablissement.getServices().stream()
+                .map(s -> new ServiceDTO(s.getIdService(), s.getNom(), s.getDescription()))
+                .sorted(Comparator.comparing(ServiceDTO::getId))
+                .collect(Collectors.toList());
+    }
+
+    /** L'ordre des services n'est pas garanti, ni par l'entité ni par la projection. */
+    private static EtablissementAdminDTO trie(EtablissementAdminDTO dto) {
+        List<ServiceDTO> services = new ArrayList<>(dto.getServices());
+        services.sort(Comparator.comparing(ServiceDTO::getId));
+        dto.setServices(services);
+        return dto;
+    }
+
+    private static EtablissementPublicDTO trie(EtablissementPublicDTO dto) {
+        List<ServiceDTO> services = new ArrayList<>(dto.getServices());
+        services.sort(Comparator.comparing(ServiceDTO::getId));
+        dto.setServices(services);
+        return dto;
+    }
+
+    private static <T> Map<Long, T> parId(List<T> elements, Function<T, Long> id) {
+        return elements.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private Tuteur tuteur(String nom, String prenom, boolean actif) {
+        Tuteur tuteur = new Tuteur();
+        tuteur.setNom(nom);
+        tuteur.setPrenom(prenom);
+        tuteur.setEmail(prenom.toLowerCase() + "." + System.nanoTime() + "@example.sn");
+        tuteur.setMotDePasse("inutilise");
+        tuteur.setRole(Utilisateur.Role.TUTEUR);
+        tuteur.setEstActif(actif);
+        return tuteurRepository.save(tuteur);
+    }
+
+    private void inserer(long id, String nom, Double latitude, Double longitude, String statut, Long tuteurId) {
+        jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                        + "description, type_etablissement, latitude, longitude, statut, id_tuteur) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, nom, "Dakar", "Dakar", null, null, null, "HOPITAL", latitude, longitude, statut, tuteurId);
+    }
+
+    private void lier(long serviceId, long etablissementId) {
+        jdbcTemplate.update("INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)",
+                serviceId, etablissementId);
+    }
+}
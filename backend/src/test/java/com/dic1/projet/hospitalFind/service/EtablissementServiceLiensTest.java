@@ -0,0 +1,161 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.cache.PublicCaches;
+import com.dic1.projet.hospitalFind.dto.CreateEtablissementRequest;
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.entity.Service;
+import com.dic1.projet.hospitalFind.entity.Tuteur;
+import com.dic1.projet.hospitalFind.index.EtablissementIndexer;
+import com.dic1.projet.hospitalFind.repository.EtablissementRepository;
+import com.dic1.projet.hospitalFind.repository.EtablissementServiceRepository;
+import com.dic1.projet.hospitalFind.repository.ServiceRepository;
+import com.dic1.projet.hospitalFind.repository.TuteurRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Les liens vers les services sont réécrits par différence : seuls les services
+ * retirés sont supprimés de la table de liaison et seuls les nouveaux y sont insérés.
+ */
+@ExtendWith(MockitoExtension.class)
+class EtablissementServiceLiensTest {
+
+    private static final Long TUTEUR_ID = 5L;
+    private static final Long ETABLISSEMENT_ID = 10L;
+
+    @Mock
+    private EtablissementRepository etablissementRepository;
+
+    @Mock
+    private ServiceRepository serviceRepository;
+
+    @Mock
+    private EtablissementServiceRepository etablissementServiceRepository;
+
+    @Mock
+    private TuteurRepository tuteurRepository;
+
+    @Mock
+    private EtablissementIndexer etablissementIndexer;
+
+    @Mock
+    private ChangementService changementService;
+
+    @Mock
+    private PublicCaches publicCaches;
+
+    @InjectMocks
+    private EtablissementService etablissementService;
+
+    private Tuteur tuteur;
+    private Etablissement etablissement;
+
+    @BeforeEach
+    void init() {
+        tuteur = new Tuteur();
+        tuteur.setIdUtilisateur(TUTEUR_ID);
+        etablissement = new Etablissement();
+        etablissement.setIdEtablissement(ETABLISSEMENT_ID);
+        etablissement.setTuteur(tuteur);
+        lenient().when(etablissementRepository.findById(ETABLISSEMENT_ID)).thenReturn(Optional.of(etablissement));
+        lenient().when(etablissementRepository.save(etablissement)).thenReturn(etablissement);
+        lenient().when(serviceRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id < 100).map(EtablissementServiceLiensTest::service).toList();
+        });
+    }
+
+    @Test
+    void seulsLesLiensModifiesSontEcrits() {
+        when(etablissementServiceRepository.findServiceIds(ETABLISSEMENT_ID)).thenReturn(List.of(1L, 2L, 3L));
+
+        etablissementService.updateEtablissement(ETABLISSEMENT_ID, requete(2L, 3L, 4L, 4L), TUTEUR_ID);
+
+        verify(etablissementServiceRepository).delier(ETABLISSEMENT_ID, Set.of(1L));
+        verify(etablissementServiceRepository).lier(ETABLISSEMENT_ID, Set.of(4L));
+        assertThat(etablissement.getServices()).extracting(Service::getIdService).containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    void aucuneEcritureSiLesServicesNeChangentPas() {
+        when(etablissementServiceRepository.findServiceIds(ETABLISSEMENT_ID)).thenReturn(List.of(1L, 2L));
+
+        etablissementService.updateEtablissement(ETABLISSEMENT_ID, requete(2L, 1L), TUTEUR_ID);
+
+        verify(etablissementServiceRepository).delier(ETABLISSEMENT_ID, Set.of());
+        verify(etablissementServiceRepository).lier(ETABLISSEMENT_ID, Set.of());
+    }
+
+    @Test
+    void tousLesServicesRetires() {
+        when(etablissementServiceRepository.findServiceIds(ETABLISSEMENT_ID)).thenReturn(List.of(1L, 2L));
+
+        etablissementService.updateEtablissement(ETABLISSEMENT_ID, requete(), TUTEUR_ID);
+
+        verify(etablissementServiceRepository).delier(ETABLISSEMENT_ID, Set.of(1L, 2L));
+        verify(etablissementServiceRepository).lier(ETABLISSEMENT_ID, Set.of());
+        assertThat(etablissement.getServices()).isEmpty();
+    }
+
+    @Test
+    void creationSansLectureDesLiens() {
+        when(tuteurRepository.findById(TUTEUR_ID)).thenReturn(Optional.of(tuteur));
+        when(etablissementRepository.findByTuteurIdUtilisateur(TUTEUR_ID)).thenReturn(Optional.empty());
+        when(etablissementRepository.saveAndFlush(any(Etablissement.class))).thenAnswer(invocation -> {
+            Etablissement nouveau = invocation.getArgument(0);
+            nouveau.setIdEtablissement(11L);
+            return nouveau;
+        });
+
+        etablissementService.createEtablissement(requete(1L, 2L), TUTEUR_ID);
+
+        verify(etablissementServiceRepository, never()).findServiceIds(anyLong());
+        verify(etablissementServiceRepository).delier(11L, Set.of());
+        verify(etablissementServiceRepository).lier(11L, Set.of(1L, 2L));
+    }
+
+    @Test
+    void serviceInconnuAvantToutEcriture() {
+        assertThatThrownBy(() -> etablissementService.updateEtablissement(ETABLISSEMENT_ID, requete(1L, 404L), TUTEUR_ID))
+                .hasMessage("Service non trouvé: 404");
+
+        verify(etablissementServiceRepository, never()).delier(anyLong(), anyCollection());
+        verify(etablissementServiceRepository, never()).lier(anyLong(), anyCollection());
+        verify(etablissementRepository, never()).save(any());
+    }
+
+    private static CreateEtablissementRequest requete(Long... serviceIds) {
+        CreateEtablissementRequest request = new CreateEtablissementRequest();
+        request.setNom("Clinique de la Madeleine");
+        request.setAdresse("Avenue Carde, Dakar");
+        request.setType("CLINIQUE");
+        request.setServiceIds(List.of(serviceIds));
+        return request;
+    }
+
+    private static Service service(Long id) {
+        Service service = new Service();
+        service.setIdService(id);
+        service.setNom("Service " + id);
+        return service;
+    }
+}
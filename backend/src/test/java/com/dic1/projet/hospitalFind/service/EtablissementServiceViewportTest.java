@@ -0,0 +1,88 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.dto.ViewportDTO;
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.index.ClusterPyramid;
+import com.dic1.projet.hospitalFind.index.EtablissementIndexer;
+import com.dic1.projet.hospitalFind.index.EtablissementSnapshot;
+import com.dic1.projet.hospitalFind.index.SpatialIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Passage des agrégats aux marqueurs à la limite de la pyramide, et bornes de la zone.
+ */
+@ExtendWith(MockitoExtension.class)
+class EtablissementServiceViewportTest {
+
+    private static final EtablissementSnapshot FANN = snapshot(1L, 14.69, -17.46);
+    private static final EtablissementSnapshot PRINCIPAL = snapshot(2L, 14.66, -17.43);
+
+    @Spy
+    private ClusterPyramid clusterPyramid = new ClusterPyramid();
+
+    @Spy
+    private SpatialIndex spatialIndex = new SpatialIndex();
+
+    @Mock
+    private EtablissementIndexer etablissementIndexer;
+
+    @InjectMocks
+    private EtablissementService etablissementService;
+
+    @BeforeEach
+    void remplir() {
+        clusterPyramid.rebuild(List.of(FANN, PRINCIPAL));
+        spatialIndex.rebuild(List.of(FANN, PRINCIPAL));
+        lenient().when(etablissementIndexer.get(1L)).thenReturn(FANN);
+        lenient().when(etablissementIndexer.get(2L)).thenReturn(PRINCIPAL);
+    }
+
+    @Test
+    void agregatsJusquAuZoomMaximalDeLaPyramide() {
+        ViewportDTO viewport = etablissementService.getViewport(14.0, 15.0, -18.0, -17.0, ClusterPyramid.MAX_CLUSTER_ZOOM);
+
+        assertThat(viewport.getEtablissements()).isEmpty();
+        assertThat(viewport.getClusters()).isNotEmpty();
+        assertThat(viewport.getClusters().stream().mapToInt(c -> c.getCount()).sum()).isEqualTo(2);
+    }
+
+    @Test
+    void marqueursAuDelaDeLaPyramide() {
+        ViewportDTO viewport = etablissementService.getViewport(14.0, 15.0, -18.0, -17.0, ClusterPyramid.MAX_CLUSTER_ZOOM + 1);
+
+        assertThat(viewport.getClusters()).isEmpty();
+        assertThat(viewport.getEtablissements()).extracting(e -> e.getId()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void zoomEtZoneValides() {
+        assertThat(etablissementService.getViewport(-90.0, 90.0, -180.0, 180.0, 0).getClusters()).hasSize(1);
+        assertThat(etablissementService.getViewport(14.0, 15.0, -18.0, -17.0, 22).getEtablissements()).hasSize(2);
+
+        assertThatThrownBy(() -> etablissementService.getViewport(14.0, 15.0, -18.0, -17.0, 23))
+                .hasMessageContaining("zoom");
+        assertThatThrownBy(() -> etablissementService.getViewport(14.0, 15.0, -18.0, -17.0, -1))
+                .hasMessageContaining("zoom");
+        assertThatThrownBy(() -> etablissementService.getViewport(15.0, 14.0, -18.0, -17.0, 10))
+                .hasMessage("Zone d'affichage invalide");
+        assertThatThrownBy(() -> etablissementService.getViewport(-91.0, 15.0, -18.0, -17.0, 10))
+                .hasMessage("Zone d'affichage invalide");
+    }
+
+    private static EtablissementSnapshot snapshot(Long id, double lat, double lon) {
+        return new EtablissementSnapshot(id, "Etablissement " + id, "Dakar", null,
+                Etablissement.TypeEtablissement.HOPITAL, Etablissement.Statut.VALIDE, lat, lon, List.of(), List.of());
+    }
+}
@@ -0,0 +1,162 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.importer.CsvSource;
+import com.dic1.projet.hospitalFind.importer.LigneImport;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Formats d'export : échappement CSV relu par le lecteur d'import, géométrie nulle
+ * en GeoJSON pour un établissement sans position, et compression gzip.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceIntegrationTest {
+
+    private static final String NOM_PIEGE = "Clinique \"du Port\", Dakar";
+    private static final String ADRESSE_PIEGE = "Rue 1\r\nBP 12";
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    private long avecPosition;
+    private long sansPosition;
+
+    @BeforeEach
+    void remplir() {
+        avecPosition = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, 2);
+        sansPosition = avecPosition + 1;
+        inserer(avecPosition, NOM_PIEGE, ADRESSE_PIEGE, 14.69, -17.46, "VALIDE");
+        inserer(sansPosition, "Pharmacie sans position " + sansPosition, "Thiès", null, null, "EN_ATTENTE");
+
+        long service = sequenceRepository.allouer(SequenceRepository.Sequence.SERVICE, 2);
+        jdbcTemplate.update("INSERT INTO service (id_service, nom) VALUES (?, ?)", service, "Radiologie " + service);
+        jdbcTemplate.update("INSERT INTO service (id_service, nom) VALUES (?, ?)", service + 1, "Maternité " + service);
+        jdbcTemplate.update("INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)", service, avecPosition);
+        jdbcTemplate.update("INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)", service + 1, avecPosition);
+    }
+
+    @Test
+    void csvEchappe() throws IOException {
+        String csv = exporter("etablissements", "csv", null, false);
+
+        assertThat(csv).startsWith("id,nom,adresse,localisation,telephone,email,description,type,latitude,longitude,"
+                + "statut,services,nombreAvis,moyenne\r\n");
+        assertThat(csv).contains(avecPosition + ",\"Clinique \"\"du Port\"\", Dakar\",\"Rue 1\r\nBP 12\",");
+
+        Map<String, LigneImport> lignes = new HashMap<>();
+        try (CsvSource source = new CsvSource(new StringReader(csv))) {
+            for (LigneImport ligne = source.suivante(); ligne != null; ligne = source.suivante()) {
+                lignes.put(ligne.get(LigneImport.NOM), ligne);
+            }
+        }
+        LigneImport relue = lignes.get(NOM_PIEGE);
+        assertThat(relue.champs().get(LigneImport.ADRESSE)).isEqualTo(ADRESSE_PIEGE);
+        assertThat(relue.get(LigneImport.SERVICES).split("\\|")).hasSize(2);
+        LigneImport vide = lignes.get("Pharmacie sans position " + sansPosition);
+        assertThat(vide.get(LigneImport.LATITUDE)).isNull();
+        assertThat(vide.get(LigneImport.SERVICES)).isNull();
+    }
+
+    @Test
+    void geoJsonGeometrieNulle() throws IOException {
+        JsonNode collection = objectMapper.readTree(exporter("etablissements", "geojson", null, false));
+        assertThat(collection.get("type").asText()).isEqualTo("FeatureCollection");
+
+        JsonNode avec = feature(collection, avecPosition);
+        assertThat(avec.get("geometry").get("type").asText()).isEqualTo("Point");
+        assertThat(avec.get("geometry").get("coordinates").get(0).asDouble()).isEqualTo(-17.46);
+        assertThat(avec.get("geometry").get("coordinates").get(1).asDouble()).isEqualTo(14.69);
+        assertThat(avec.get("properties").has("latitude")).isFalse();
+        assertThat(avec.get("properties").get("nom").asText()).isEqualTo(NOM_PIEGE);
+        assertThat(avec.get("properties").get("services")).hasSize(2);
+
+        JsonNode sans = feature(collection, sansPosition);
+        assertThat(sans.has("geometry")).isTrue();
+        assertThat(sans.get("geometry").isNull()).isTrue();
+    }
+
+    @Test
+    void gzipIdentiqueAuFluxNonCompresse() throws IOException {
+        ExportService.Export export = exportService.preparer("etablissements", "ndjson", "en_attente", true);
+        assertThat(export.contentType().toString()).isEqualTo("application/gzip");
+        assertThat(export.nomFichier()).isEqualTo("etablissements.ndjson.gz");
+
+        ByteArrayOutputStream compresse = new ByteArrayOutputStream();
+        exportService.ecrire(export, compresse);
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compresse.toByteArray()))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        assertThat(ndjson).isEqualTo(exporter("etablissements", "ndjson", "EN_ATTENTE", false));
+        boolean trouve = false;
+        for (String ligne : ndjson.split("\n")) {
+            JsonNode etablissement = objectMapper.readTree(ligne);
+            assertThat(etablissement.get("statut").asText()).isEqualTo("EN_ATTENTE");
+            trouve |= etablissement.get("id").asLong() == sansPosition;
+        }
+        assertThat(trouve).isTrue();
+    }
+
+    @Test
+    void parametresInvalides() {
+        assertThatThrownBy(() -> exportService.preparer("avis", "geojson", null, false))
+                .hasMessage("Le format GeoJSON n'est disponible que pour les établissements");
+        assertThatThrownBy(() -> exportService.preparer("avis", "csv", "VALIDE", false))
+                .hasMessage("Le filtre par statut ne s'applique qu'aux établissements");
+        assertThatThrownBy(() -> exportService.preparer("etablissements", "xml", null, false))
+                .hasMessage("Format invalide: xml");
+        assertThatThrownBy(() -> exportService.preparer("medecins", "csv", null, false))
+                .hasMessage("Export inconnu: medecins");
+    }
+
+    private String exporter(String jeu, String format, String statut, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.ecrire(exportService.preparer(jeu, format, statut, gzip), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static JsonNode feature(JsonNode collection, long id) {
+        for (JsonNode feature : collection.get("features")) {
+            if (feature.get("properties").get("id").asLong() == id) {
+                return feature;
+            }
+        }
+        throw new AssertionError("Établissement absent de l'export: " + id);
+    }
+
+    private void inserer(long id, String nom, String adresse, Double latitude, Double longitude, String statut) {
+        jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                        + "description, type_etablissement, latitude, longitude, statut) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, nom, adresse, "Dakar", null, null, null, "PHARMACIE", latitude, longitude, statut);
+    }
+}
@@ -0,0 +1,124 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.dto.NoteDTO;
+import com.dic1.projet.hospitalFind.entity.Avis;
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.entity.Service;
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Des avis ajoutés puis retirés en parallèle sur le même établissement et le même
+ * service : les upserts ne doivent perdre aucune mise à jour, y compris sur le
+ * premier avis qui crée la ligne.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotationConcurrenceIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int AVIS_PAR_THREAD = 25;
+
+    @Autowired
+    private NotationService notationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    private Long etablissementId;
+    private Long serviceId;
+
+    @BeforeEach
+    void remplir() {
+        serviceId = sequenceRepository.allouer(SequenceRepository.Sequence.SERVICE, 1);
+        jdbcTemplate.update("INSERT INTO service (id_service, nom) VALUES (?, ?)", serviceId, "Cardiologie");
+        etablissementId = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, 1);
+        jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                        + "description, type_etablissement, latitude, longitude, statut) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                etablissementId, "Hôpital Fann", "Avenue Cheikh Anta Diop", "Dakar", "+221 33 869 18 18", null, null,
+                "HOPITAL", 14.69, -17.46, "VALIDE");
+    }
+
+    @Test
+    void avisSimultanes() throws Exception {
+        enParallele(avis -> notationService.ajouterAvis(avis));
+
+        int total = THREADS * AVIS_PAR_THREAD;
+        long somme = 0;
+        for (int i = 0; i < total; i++) {
+            somme += note(i);
+        }
+        NoteDTO note = notationService.getNote(etablissementId);
+        assertThat(note.getNombreAvis()).isEqualTo(total);
+        assertThat(note.getMoyenne()).isEqualTo((double) somme / total);
+        assertThat(note.getHistogramme()).containsExactly(40L, 40L, 40L, 40L, 40L);
+        assertThat(jdbcTemplate.queryForObject("SELECT somme_notes FROM note_etablissement WHERE id_etablissement = ?",
+                Long.class, etablissementId)).isEqualTo(somme);
+
+        NoteDTO parService = notationService.getNotesParService(etablissementId).get(serviceId);
+        assertThat(parService.getNombreAvis()).isEqualTo(total);
+        assertThat(parService.getHistogramme()).containsExactly(40L, 40L, 40L, 40L, 40L);
+
+        enParallele(avis -> notationService.retirerAvis(avis));
+
+        assertThat(notationService.getNote(etablissementId)).isNull();
+        assertThat(notationService.getNotesParService(etablissementId)).isEmpty();
+    }
+
+    private void enParallele(java.util.function.Consumer<Avis> action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    depart.await();
+                    for (int i = 0; i < AVIS_PAR_THREAD; i++) {
+                        action.accept(avis(note(thread * AVIS_PAR_THREAD + i)));
+                    }
+                    return null;
+                }));
+            }
+            depart.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int note(int i) {
+        return i % 5 + 1;
+    }
+
+    private Avis avis(int note) {
+        Etablissement etablissement = new Etablissement();
+        etablissement.setIdEtablissement(etablissementId);
+        Service service = new Service();
+        service.setIdService(serviceId);
+        Avis avis = new Avis();
+        avis.setNote(note);
+        avis.setEtablissement(etablissement);
+        avis.setService(service);
+        return avis;
+    }
+}
@@ -0,0 +1,125 @@
+package com.dic1.projet.hospitalFind.service;
+
+import com.dic1.projet.hospitalFind.entity.Etablissement;
+import com.dic1.projet.hospitalFind.index.EtablissementIndexer;
+import com.dic1.projet.hospitalFind.index.EtablissementSnapshot;
+import com.dic1.projet.hospitalFind.index.MvtReader;
+import com.dic1.projet.hospitalFind.index.SpatialIndex;
+import com.dic1.projet.hospitalFind.index.TileCache;
+import com.dic1.projet.hospitalFind.index.VectorTileEncoder;
+import com.dic1.projet.hospitalFind.index.WebMercator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class VectorTileServiceTest {
+
+    private static final EtablissementSnapshot FANN = snapshot(1L, 14.69, -17.46, List.of(10L, 20L));
+    /** Sur la limite des tuiles (1, 0, 0) et (1, 1, 0). */
+    private static final EtablissementSnapshot MERIDIEN = snapshot(2L, 14.69, 0.0, List.of());
+
+    @Spy
+    private TileCache tileCache = new TileCache();
+
+    @Spy
+    private SpatialIndex spatialIndex = new SpatialIndex();
+
+    @Mock
+    private EtablissementIndexer etablissementIndexer;
+
+    @InjectMocks
+    private VectorTileService vectorTileService;
+
+    @BeforeEach
+    void indexer() {
+        ReflectionTestUtils.setField(tileCache, "maxBytes", 1_000_000L);
+        Map<Long, EtablissementSnapshot> snapshots = new HashMap<>();
+        for (EtablissementSnapshot snapshot : List.of(FANN, MERIDIEN)) {
+            snapshots.put(snapshot.id(), snapshot);
+        }
+        spatialIndex.rebuild(snapshots.values());
+        lenient().when(etablissementIndexer.get(anyLong())).thenAnswer(invocation -> snapshots.get(invocation.<Long>getArgument(0)));
+    }
+
+    @Test
+    void unPointEstEncodeDansSaTuile() {
+        int z = 10;
+        double mercatorX = WebMercator.x(FANN.longitude()) * (1 << z);
+        double mercatorY = WebMercator.y(FANN.latitude()) * (1 << z);
+        int x = (int) mercatorX;
+        int y = (int) mercatorY;
+
+        List<MvtReader.Layer> layers = MvtReader.read(vectorTileService.getTile(z, x, y).data());
+
+        assertThat(layers).hasSize(1);
+        assertThat(layers.get(0).name()).isEqualTo("etablissements");
+        MvtReader.Feature feature = layers.get(0).features().get(0);
+        assertThat(layers.get(0).features()).hasSize(1);
+        assertThat(feature.id()).isEqualTo(1L);
+        assertThat(feature.attributes()).containsEntry("nom", "Etablissement 1")
+                .containsEntry("type", "HOPITAL")
+                .containsEntry("services", "10,20");
+        assertThat(MvtReader.zigZagDecode(feature.geometry().get(1)))
+                .isEqualTo((int) Math.floor((mercatorX - x) * VectorTileEncoder.EXTENT));
+        assertThat(MvtReader.zigZagDecode(feature.geometry().get(2)))
+                .isEqualTo((int) Math.floor((mercatorY - y) * VectorTileEncoder.EXTENT));
+    }
+
+    @Test
+    void unPointSurUneLimiteNApparaitQueDansUneTuile() {
+        List<Long> gauche = ids(vectorTileService.getTile(1, 0, 0).data());
+        List<Long> droite = ids(vectorTileService.getTile(1, 1, 0).data());
+
+        assertThat(gauche).containsExactly(1L);
+        assertThat(droite).containsExactly(2L);
+        assertThat(ids(vectorTileService.getTile(1, 1, 1).data())).isEmpty();
+    }
+
+    @Test
+    void tuileMiseEnCacheAvecUnEtagStable() {
+        TileCache.CachedTile premiere = vectorTileService.getTile(0, 0, 0);
+
+        assertThat(vectorTileService.getTile(0, 0, 0)).isSameAs(premiere);
+        assertThat(premiere.etag()).matches("\"[0-9a-f]{32}\"");
+
+        tileCache.update(FANN, null);
+        spatialIndex.update(FANN, null);
+        TileCache.CachedTile apres = vectorTileService.getTile(0, 0, 0);
+        assertThat(apres.etag()).isNotEqualTo(premiere.etag());
+        assertThat(ids(apres.data())).containsExactly(2L);
+    }
+
+    @Test
+    void coordonneesInvalides() {
+        assertThatThrownBy(() -> vectorTileService.getTile(19, 0, 0)).hasMessageContaining("zoom");
+        assertThatThrownBy(() -> vectorTileService.getTile(2, 4, 0)).hasMessage("Tuile hors limites");
+        assertThatThrownBy(() -> vectorTileService.getTile(2, 0, -1)).hasMessage("Tuile hors limites");
+    }
+
+    private static List<Long> ids(byte[] tile) {
+        return MvtReader.read(tile).stream()
+                .flatMap(layer -> layer.features().stream())
+                .map(MvtReader.Feature::id)
+                .toList();
+    }
+
+    private static EtablissementSnapshot snapshot(Long id, double lat, double lon, List<Long> services) {
+        return new EtablissementSnapshot(id, "Etablissement " + id, "Dakar", null, Etablissement.TypeEtablissement.HOPITAL,
+                Etablissement.Statut.VALIDE, lat, lon, services, services.stream().map(s -> "Service " + s).toList());
+    }
+}
@@ -0,0 +1,108 @@
+package com.dic1.projet.hospitalFind.sql;
+
+import com.dic1.projet.hospitalFind.repository.SequenceRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Les endpoints publics de liste et de détail tiennent en un nombre fixe de requêtes
+ * SQL, quel que soit le nombre d'établissements. En mode {@code fail}, un dépassement
+ * du budget ou une requête répétée (N+1) fait échouer l'appel.
+ */
+@SpringBootTest(properties = {
+        "sql.budget.mode=fail",
+        "sql.budget.max-queries=" + QueryBudgetIntegrationTest.MAX_REQUETES,
+        "sql.budget.max-repeats=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetIntegrationTest {
+
+    /** Lignes, services, notes et notes par service. */
+    static final int MAX_REQUETES = 4;
+
+    private static final int ETABLISSEMENTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceRepository sequenceRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long premierEtablissement;
+
+    @BeforeEach
+    void remplir() {
+        jdbcTemplate.update("DELETE FROM etablissement_service");
+        jdbcTemplate.update("DELETE FROM etablissement");
+        jdbcTemplate.update("DELETE FROM service");
+
+        long premierService = sequenceRepository.allouer(SequenceRepository.Sequence.SERVICE, 2);
+        jdbcTemplate.update("INSERT INTO service (id_service, nom) VALUES (?, ?)", premierService, "Cardiologie");
+        jdbcTemplate.update("INSERT INTO service (id_service, nom) VALUES (?, ?)", premierService + 1, "Pédiatrie");
+
+        premierEtablissement = sequenceRepository.allouer(SequenceRepository.Sequence.ETABLISSEMENT, ETABLISSEMENTS);
+        for (int i = 0; i < ETABLISSEMENTS; i++) {
+            long id = premierEtablissement + i;
+            jdbcTemplate.update("INSERT INTO etablissement (id_etablissement, nom, adresse, localisation, telephone, email, "
+                            + "description, type_etablissement, latitude, longitude, statut) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    id, "Hôpital " + i, "Quartier " + i, "Dakar", "+221 33 800 00 0" + i, null, null,
+                    "HOPITAL", 14.69 + i * 0.01, -17.44, "VALIDE");
+            jdbcTemplate.update("INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)", premierService, id);
+            jdbcTemplate.update("INSERT INTO etablissement_service (id_service, id_etablissement) VALUES (?, ?)", premierService + 1, id);
+        }
+
+        cacheManager.getCacheNames().forEach(nom -> cacheManager.getCache(nom).clear());
+    }
+
+    @Test
+    void listeDansLeBudget() throws Exception {
+        mockMvc.perform(get("/etablissements"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ETABLISSEMENTS));
+
+        assertThat(requetes("/etablissements").max()).isLessThanOrEqualTo(MAX_REQUETES);
+    }
+
+    @Test
+    void detailDansLeBudget() throws Exception {
+        mockMvc.perform(get("/etablissements/{id}", premierEtablissement))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.services.length()").value(2));
+
+        assertThat(requetes("/etablissements/{id}").max()).isLessThanOrEqualTo(MAX_REQUETES);
+    }
+
+    private DistributionSummary requetes(String uri) {
+        DistributionSummary summary = meterRegistry.find("http.server.sql.queries")
+                .tag("method", "GET")
+                .tag("uri", uri)
+                .summary();
+        assertThat(summary).isNotNull();
+        assertThat(summary.count()).isPositive();
+        return summary;
+    }
+}
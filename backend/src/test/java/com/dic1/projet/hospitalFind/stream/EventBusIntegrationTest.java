@@ -0,0 +1,176 @@
+package com.dic1.projet.hospitalFind.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Diffusion SSE à travers Tomcat : chaque abonné ne reçoit que son sujet, et un client
+ * qui ne lit plus est déconnecté sans retarder les autres ni la publication. Chaque test
+ * a ses sujets et le ping est espacé : les connexions fermées d'un test précédent ne
+ * sont retirées qu'au prochain envoi vers elles et ne faussent pas le nombre d'abonnés.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"stream.queue-capacity=8", "stream.write-timeout-ms=1000", "stream.heartbeat-ms=3600000"})
+@ActiveProfiles("test")
+class EventBusIntegrationTest {
+
+    private static final String BOURRAGE = "x".repeat(64 * 1024);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<AutoCloseable> connexions = new ArrayList<>();
+
+    @AfterEach
+    void fermer() throws Exception {
+        for (AutoCloseable connexion : connexions) {
+            connexion.close();
+        }
+    }
+
+    @Test
+    void chaqueAbonneNeRecoitQueSonSujet() throws Exception {
+        int avant = eventBus.subscriberCount();
+        Lecteur avis = abonner("/stream/avis/42");
+        Lecteur etablissements = abonner("/stream/etablissements");
+        attendre(() -> eventBus.subscriberCount() == avant + 2);
+
+        eventBus.publish(EventBus.avis(42L), "avis", Map.of("note", 5));
+        eventBus.publish(EventBus.ETABLISSEMENTS, "statut", Map.of("statut", "VALIDE"));
+
+        String[] recu = avis.suivant();
+        assertThat(recu[0]).isEqualTo("avis");
+        assertThat(objectMapper.readTree(recu[1]).get("note").asInt()).isEqualTo(5);
+        assertThat(etablissements.suivant()[0]).isEqualTo("statut");
+    }
+
+    @Test
+    void clientLentDeconnecteSansRetarderLesAutres() throws Exception {
+        int avant = eventBus.subscriberCount();
+        long deconnectes = eventBus.droppedSubscribers();
+        Lecteur rapide = abonner("/stream/avis/43");
+        abonnerSansLire("/stream/avis/43");
+        attendre(() -> eventBus.subscriberCount() == avant + 2);
+
+        // Le client lent est coupé dès que ses tampons TCP puis sa file sont pleins,
+        // pendant que l'autre abonné continue de tout recevoir dans l'ordre
+        int publies = 0;
+        while (eventBus.droppedSubscribers() == deconnectes && publies < 400) {
+            long debut = System.nanoTime();
+            eventBus.publish(EventBus.avis(43L), "avis", Map.of("i", publies, "bourrage", BOURRAGE));
+            assertThat(System.nanoTime() - debut).as("publication bloquée").isLessThan(TimeUnit.SECONDS.toNanos(5));
+            JsonNode data = objectMapper.readTree(rapide.suivant()[1]);
+            assertThat(data.get("i").asInt()).isEqualTo(publies++);
+        }
+
+        attendre(() -> eventBus.subscriberCount() == avant + 1);
+        eventBus.publish(EventBus.avis(43L), "avis", Map.of("i", publies, "bourrage", ""));
+        assertThat(objectMapper.readTree(rapide.suivant()[1]).get("i").asInt()).isEqualTo(publies);
+        assertThat(eventBus.droppedSubscribers()).isEqualTo(deconnectes + 1);
+    }
+
+    private Lecteur abonner(String chemin) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + chemin))
+                .header("Accept", "text/event-stream").build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        Lecteur lecteur = new Lecteur(response.body());
+        connexions.add(lecteur);
+        return lecteur;
+    }
+
+    private void abonnerSansLire(String chemin) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api" + chemin + " HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        connexions.add(socket);
+    }
+
+    private static void attendre(BooleanSupplier condition) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition non atteinte à temps").isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+
+    /** Lit le flux dans un thread à part et rend les événements nommés (nom, data). */
+    private static final class Lecteur implements AutoCloseable {
+        private final Stream<String> lignes;
+        private final BlockingQueue<String[]> evenements = new LinkedBlockingQueue<>();
+
+        private Lecteur(Stream<String> lignes) {
+            this.lignes = lignes;
+            Thread thread = new Thread(this::lire, "sse-lecteur");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void lire() {
+            String nom = null;
+            try {
+                Iterator<String> iterator = lignes.iterator();
+                while (iterator.hasNext()) {
+                    String ligne = iterator.next();
+                    if (ligne.startsWith("event:")) {
+                        nom = ligne.substring("event:".length());
+                    } else if (ligne.startsWith("data:") && nom != null) {
+                        evenements.add(new String[]{nom, ligne.substring("data:".length())});
+                        nom = null;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // flux fermé par le test
+            }
+        }
+
+        private String[] suivant() throws InterruptedException {
+            String[] evenement = evenements.poll(15, TimeUnit.SECONDS);
+            assertThat(evenement).as("aucun événement reçu").isNotNull();
+            return evenement;
+        }
+
+        @Override
+        public void close() {
+            lignes.close();
+        }
+    }
+}
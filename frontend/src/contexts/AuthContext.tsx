@@ -42,6 +42,31 @@ const API_BASE_URL = 'http://localhost:9000/api';
 
 axios.defaults.baseURL = API_BASE_URL;
 
+// Un seul rafraîchissement à la fois : le jeton de rafraîchissement est à usage unique et
+// le présenter deux fois révoque toute la session. Les requêtes refusées en parallèle
+// attendent la même promesse puis sont rejouées avec le nouveau jeton.
+let refreshEnCours: Promise<string> | null = null;
+
+const rafraichir = (refreshToken: string): Promise<string> => {
+  if (!refreshEnCours) {
+    refreshEnCours = axios.post('/auth/refresh', { refreshToken })
+      .then((response) => {
+        const newToken: string = response.data.token;
+        localStorage.setItem('token', newToken);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return newToken;
+      })
+      .catch((error) => {
+        localStorage.removeItem('refreshToken');
+        throw error;
+      })
+      .finally(() => {
+        refreshEnCours = null;
+      });
+  }
+  return refreshEnCours;
+};
+
 export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) => {
   const [user, setUser] = useState<User | null>(null);
   const [token, setToken] = useState<string | null>(localStorage.getItem('token'));
@@ -86,8 +111,10 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
   useEffect(() => {
     const interceptor = axios.interceptors.request.use(
       (config) => {
-        if (token) {
-          config.headers.Authorization = `Bearer ${token}`;
+        // localStorage a déjà le jeton rafraîchi avant que l'état React ne suive
+        const current = localStorage.getItem('token') ?? token;
+        if (current && !config.headers.Authorization) {
+          config.headers.Authorization = `Bearer ${current}`;
         }
         return config;
       },
@@ -97,13 +124,46 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
     return () => axios.interceptors.request.eject(interceptor);
   }, [token]);
 
+  // Jeton d'accès expiré ou révoqué : un seul essai par requête, après rafraîchissement
+  useEffect(() => {
+    const interceptor = axios.interceptors.response.use(
+      (response) => response,
+      async (error) => {
+        const original = error.config;
+        const status = error.response?.status;
+        if ((status === 401 || status === 403) && original && !original._retry
+            && !String(original.url ?? '').startsWith('/auth/')) {
+          const sentToken = String(original.headers?.Authorization ?? '').replace(/^Bearer\s+/i, '');
+          const currentToken = localStorage.getItem('token');
+          const refreshToken = localStorage.getItem('refreshToken');
+          // Refusée avec un jeton déjà remplacé entre-temps : il suffit de la rejouer
+          const alreadyRefreshed = !!currentToken && !!sentToken && currentToken !== sentToken;
+          if (alreadyRefreshed || refreshToken) {
+            original._retry = true;
+            try {
+              const newToken = alreadyRefreshed ? currentToken! : await rafraichir(refreshToken!);
+              setToken(newToken);
+              original.headers.Authorization = `Bearer ${newToken}`;
+              return axios(original);
+            } catch (_) {
+              // rafraîchissement refusé : l'erreur d'origine est renvoyée
+            }
+          }
+        }
+        return Promise.reject(error);
+      }
+    );
+
+    return () => axios.interceptors.response.eject(interceptor);
+  }, []);
+
   useEffect(() => {
     const loadUserData = async () => {
       if (token) {
         try {
           const decoded = jwtDecode<JWTPayload>(token);
           
-          if (decoded.exp * 1000 < Date.now()) {
+          if (decoded.exp * 1000 < Date.now() && !localStorage.getItem('refreshToken')) {
             logout();
             return;
           }
@@ -174,6 +234,9 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
 
       setToken(newToken);
       localStorage.setItem('token', newToken);
+      if (data.refreshToken) {
+        localStorage.setItem('refreshToken', data.refreshToken);
+      }
 
       let resolvedUser: any = data.user || null;
       let resolvedUserId: number | null = data.userId ?? null;
@@ -246,6 +309,11 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
   };
 
   const logout = () => {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (token || refreshToken) {
+      axios.post('/auth/logout', refreshToken ? { refreshToken } : {}).catch(() => {});
+    }
+    localStorage.removeItem('refreshToken');
     setUser(null);
     setToken(null);
     localStorage.removeItem('token');